@@ -1,7 +1,18 @@
 package br.com.sampachat.api.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -10,11 +21,65 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class AppConfig {
 
+    @Value("${app.upstream.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${app.upstream.http.read-timeout-ms:60000}")
+    private long readTimeoutMs;
+
+    @Value("${app.upstream.http.pool-timeout-ms:10000}")
+    private long poolTimeoutMs;
+
+    @Value("${app.upstream.http.max-connections:20}")
+    private int maxConnections;
+
+    @Value("${app.upstream.http.max-connections-per-route:4}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${app.upstream.http.keep-alive-seconds:60}")
+    private long keepAliveSeconds;
+
+    /**
+     * Cliente HTTP das chamadas a sistemas externos (SPLegis).
+     * Pool de conexões persistentes (keep-alive), timeouts de conexão, leitura e espera no pool, e
+     * compressão: o HttpClient envia Accept-Encoding: gzip, deflate e descompacta a resposta.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient upstreamHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        // Conexões ociosas há algum tempo são validadas antes de serem reutilizadas
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        // Usado quando o servidor não informa o cabeçalho Keep-Alive
+                        .setConnectionKeepAlive(TimeValue.ofSeconds(keepAliveSeconds))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(keepAliveSeconds))
+                .setUserAgent("sampachat-api")
+                .build();
+    }
+
     /**
-     * Configura um RestTemplate para chamadas HTTP
+     * Configura um RestTemplate para chamadas HTTP, sobre o cliente com pool e com métricas por rota.
+     * O endereço do SPLegis vem de app.splegis.base-url, o que permite apontar testes e benchmarks
+     * para um servidor local.
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient upstreamHttpClient, MeterRegistry meterRegistry) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(upstreamHttpClient));
+        restTemplate.getInterceptors().add(new UpstreamMetricsInterceptor(meterRegistry));
+        return restTemplate;
     }
 }
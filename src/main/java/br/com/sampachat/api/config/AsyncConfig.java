@@ -1,13 +1,152 @@
 package br.com.sampachat.api.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+/**
+ * Executores da aplicação.
+ *
+ * Com spring.threads.virtual.enabled=true em uma JVM 21+, os executores usam threads virtuais
+ * (limitadas por concorrência). Nas demais JVMs são pools de threads de plataforma com fila limitada.
+ * Em ambos os casos a admissão de buscas é controlada pelo AdmissionControlService.
+ *
+ * Qualquer bean Executor faz o Spring Boot desistir do applicationTaskExecutor auto-configurado
+ * (usado pelo MVC assíncrono e pelo @Async sem qualificador), então ele é declarado aqui com os
+ * builders do Boot, mantendo as propriedades spring.task.execution.*.
+ */
 @Configuration
 @EnableAsync
 @EnableScheduling
 public class AsyncConfig {
-    // É possível personalizar o executor aqui se necessário
-    // Por exemplo, definir tamanho de pool de threads, etc.
+
+    public static final String SEARCH_EXECUTOR = "searchTaskExecutor";
+    public static final String SYNC_EXECUTOR = "syncTaskExecutor";
+    public static final String SYNC_FETCH_EXECUTOR = "syncFetchExecutor";
+    public static final String SYNC_EMBEDDING_EXECUTOR = "syncEmbeddingExecutor";
+
+    @Value("${app.admission.search.max-concurrent:8}")
+    private int maxConcurrentSearches;
+
+    @Value("${app.admission.search.max-queue:50}")
+    private int maxQueuedSearches;
+
+    @Value("${app.sync.parallel.max-workers:8}")
+    private int maxSyncFetchWorkers;
+
+    @Value("${app.sync.pipeline.embedding-workers:2}")
+    private int syncEmbeddingWorkers;
+
+    /**
+     * Executor padrão da aplicação, equivalente ao auto-configurado pelo Spring Boot
+     */
+    @Lazy
+    @Bean(name = { TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME })
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualApplicationTaskExecutor(SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Lazy
+    @Bean(name = { TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME })
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor platformApplicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Executor das buscas via SSE (substitui o ForkJoinPool.commonPool)
+     */
+    @Bean(name = SEARCH_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor virtualSearchTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("search-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(maxConcurrentSearches);
+        return executor;
+    }
+
+    @Bean(name = SEARCH_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public AsyncTaskExecutor platformSearchTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("search-");
+        executor.setCorePoolSize(maxConcurrentSearches);
+        executor.setMaxPoolSize(maxConcurrentSearches);
+        // A admissão já limita as buscas em andamento; a fila só absorve a janela entre liberar a permissão e a thread
+        executor.setQueueCapacity(maxQueuedSearches);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor das sincronizações disparadas manualmente (@Async).
+     * Uma única thread e no máximo uma sincronização na fila: pedidos além disso são rejeitados.
+     * Sincronizações são tarefas longas e raras, então threads virtuais não trazem ganho aqui.
+     */
+    @Bean(name = SYNC_EXECUTOR)
+    public AsyncTaskExecutor syncTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("sync-");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor das requisições ao SPLegis durante a sincronização (janelas buscadas em paralelo).
+     * O ritmo real das requisições é dado pelo SplegisThrottle; aqui só se limita o número de threads.
+     */
+    @Bean(name = SYNC_FETCH_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor virtualSyncFetchExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("sync-fetch-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    @Bean(name = SYNC_FETCH_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public AsyncTaskExecutor platformSyncFetchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("sync-fetch-");
+        executor.setCorePoolSize(maxSyncFetchWorkers);
+        executor.setMaxPoolSize(maxSyncFetchWorkers);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Workers de embedding da sincronização (ver SyncPipeline).
+     * A inferência é limitada pela CPU, então são sempre threads de plataforma.
+     */
+    @Bean(name = SYNC_EMBEDDING_EXECUTOR)
+    public AsyncTaskExecutor syncEmbeddingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("sync-embed-");
+        executor.setCorePoolSize(Math.max(1, syncEmbeddingWorkers));
+        executor.setMaxPoolSize(Math.max(1, syncEmbeddingWorkers));
+        // A drenagem no desligamento é feita pelo SyncPipeline, antes deste executor ser encerrado
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
 }
@@ -27,6 +27,9 @@ public class CorsConfig {
         // Permitir qualquer cabeçalho
         config.addAllowedHeader("*");
         
+        // Expor o ETag para que clientes de outras origens possam revalidar buscas
+        config.addExposedHeader("ETag");
+        
         // Permitir métodos específicos
         config.addAllowedMethod("GET");
         config.addAllowedMethod("POST");
@@ -0,0 +1,28 @@
+package br.com.sampachat.api.config;
+
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Respostas condicionais para os arquivos estáticos do frontend.
+ * Os arquivos não têm hash no nome, então são servidos com "no-cache" (ver application.properties)
+ * e revalidados pelo ETag calculado a partir do conteúdo, respondendo 304 quando não mudaram.
+ */
+@Configuration
+public class HttpCacheConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> staticResourcesEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        // Apenas arquivos estáticos: o filtro bufferiza a resposta inteira, o que quebraria o SSE
+        registration.addUrlPatterns("/index.html", "*.js", "*.css");
+        // FORWARD cobre a página inicial ("/"), encaminhada para index.html
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.FORWARD);
+        registration.setName("staticResourcesEtagFilter");
+        return registration;
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.sampachat.api.config;
+
+import br.com.sampachat.api.dto.ProjetoResponseDTO;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+/**
+ * Configuração do Jackson para as representações das respostas.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Sem fields=, o filtro de campos do ProjetoResponseDTO serializa tudo
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer projetoFieldsFilterCustomizer() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .addFilter(ProjetoResponseDTO.FIELDS_FILTER, SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    /**
+     * Conversor CBOR (Accept: application/cbor) com a mesma configuração do JSON.
+     * O conversor padrão do Spring MVC usaria um ObjectMapper sem o filtro de campos.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
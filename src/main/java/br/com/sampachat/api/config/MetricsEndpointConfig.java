@@ -0,0 +1,50 @@
+package br.com.sampachat.api.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Protege o endpoint /prometheus com a mesma chave de API dos endpoints administrativos
+ * (cabeçalho X-API-Key). As métricas expõem queries, latências e volume de uso, então não
+ * ficam públicas junto com health e info.
+ */
+@Configuration
+public class MetricsEndpointConfig {
+
+    @Value("${app.admin.secret-key:defaultKey}")
+    private String secretKey;
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> prometheusApiKeyFilter() {
+        byte[] expected = secretKey.getBytes(StandardCharsets.UTF_8);
+        OncePerRequestFilter filter = new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                    throws ServletException, IOException {
+                String apiKey = request.getHeader("X-API-Key");
+                // Comparação em tempo constante
+                if (apiKey == null || !MessageDigest.isEqual(expected, apiKey.getBytes(StandardCharsets.UTF_8))) {
+                    response.sendError(HttpStatus.UNAUTHORIZED.value(), "Chave de API inválida");
+                    return;
+                }
+                chain.doFilter(request, response);
+            }
+        };
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/prometheus", "/prometheus/*");
+        registration.setName("prometheusApiKeyFilter");
+        return registration;
+    }
+}
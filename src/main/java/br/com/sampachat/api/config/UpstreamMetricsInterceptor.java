@@ -0,0 +1,160 @@
+package br.com.sampachat.api.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Métricas das chamadas a sistemas externos, por rota (host + caminho, sem a query string).
+ * <p>
+ * sampachat.upstream.requests: duração da troca completa, até o corpo ser lido e a resposta fechada
+ * (tags route, method, status e outcome; falhas de E/S aparecem com outcome IO_ERROR).
+ * sampachat.upstream.response.bytes: tamanho do corpo lido (já descompactado) por rota.
+ */
+public class UpstreamMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String route = route(request.getURI());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException e) {
+            sample.stop(timer(route, request, "IO_ERROR", "IO_ERROR"));
+            throw e;
+        }
+        HttpStatusCode status = response.getStatusCode();
+        return new MeteredResponse(response, bytes -> {
+            sample.stop(timer(route, request, String.valueOf(status.value()), outcome(status)));
+            DistributionSummary.builder("sampachat.upstream.response.bytes")
+                    .description("Tamanho do corpo das respostas de sistemas externos")
+                    .baseUnit("bytes")
+                    .tag("route", route)
+                    .register(meterRegistry)
+                    .record(bytes);
+        });
+    }
+
+    private Timer timer(String route, HttpRequest request, String status, String outcome) {
+        return Timer.builder("sampachat.upstream.requests")
+                .description("Duração das chamadas a sistemas externos")
+                .tag("route", route)
+                .tag("method", request.getMethod().name())
+                .tag("status", status)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String route(URI uri) {
+        return uri.getHost() + (uri.getPath() == null || uri.getPath().isEmpty() ? "/" : uri.getPath());
+    }
+
+    private static String outcome(HttpStatusCode status) {
+        if (status.is2xxSuccessful()) {
+            return "SUCCESS";
+        }
+        if (status.is3xxRedirection()) {
+            return "REDIRECTION";
+        }
+        if (status.is4xxClientError()) {
+            return "CLIENT_ERROR";
+        }
+        if (status.is5xxServerError()) {
+            return "SERVER_ERROR";
+        }
+        return "UNKNOWN";
+    }
+
+    private interface CompletionListener {
+        void completed(long bytes);
+    }
+
+    /**
+     * Resposta que conta os bytes lidos do corpo e registra as métricas ao ser fechada
+     */
+    private static final class MeteredResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final CompletionListener listener;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private long bytesRead;
+        private InputStream body;
+
+        MeteredResponse(ClientHttpResponse delegate, CompletionListener listener) {
+            this.delegate = delegate;
+            this.listener = listener;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new FilterInputStream(delegate.getBody()) {
+                    @Override
+                    public int read() throws IOException {
+                        int b = super.read();
+                        if (b >= 0) {
+                            bytesRead++;
+                        }
+                        return b;
+                    }
+
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        int n = super.read(buffer, offset, length);
+                        if (n > 0) {
+                            bytesRead += n;
+                        }
+                        return n;
+                    }
+                };
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (closed.compareAndSet(false, true)) {
+                    listener.completed(bytesRead);
+                }
+            }
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package br.com.sampachat.api.controller;
 
+import br.com.sampachat.api.repository.ProjetoBulkUpsert;
 import br.com.sampachat.api.service.DataIntegrityService;
+import br.com.sampachat.api.service.FlightRecordingService;
+import br.com.sampachat.api.service.ProjetosRelacionadosService;
 import br.com.sampachat.api.service.SyncProjetosService;
+import br.com.sampachat.api.service.UpsertBenchmarkService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -28,9 +35,21 @@ public class AdminController {
     @Autowired
     private DataIntegrityService dataIntegrityService;
     
+    @Autowired
+    private ProjetosRelacionadosService projetosRelacionadosService;
+    
+    @Autowired
+    private FlightRecordingService flightRecordingService;
+    
+    @Autowired
+    private UpsertBenchmarkService upsertBenchmarkService;
+    
     @Value("${app.admin.secret-key:defaultKey}")
     private String secretKey;
     
+    // Limite de projetos por medição do benchmark de upsert
+    private static final int MAX_BENCHMARK_ROWS = 200_000;
+    
     /**
      * Endpoint para iniciar sincronização manual via cron-job.org ou outra fonte externa.
      * Protegido por API key para evitar acesso não autorizado.
@@ -62,6 +81,14 @@ public class AdminController {
                     "message", "Sincronização iniciada com sucesso em segundo plano",
                     "timestamp", LocalDateTime.now().toString()
             ));
+        } catch (TaskRejectedException e) {
+            logger.warn("Sincronização recusada: já existe uma sincronização em andamento e outra na fila");
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of(
+                            "success", false,
+                            "message", "Já existe uma sincronização em andamento",
+                            "timestamp", LocalDateTime.now().toString()
+                    ));
         } catch (Exception e) {
             logger.error("Erro ao iniciar sincronização: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -117,4 +144,185 @@ public class AdminController {
                     ));
         }
     }
+    
+    /**
+     * Endpoint para recalcular o grafo de projetos relacionados.
+     * Por padrão é incremental (apenas projetos sem vizinhos); com full=true recalcula tudo.
+     * 
+     * @param apiKey Chave de API fornecida no cabeçalho
+     * @param full Se verdadeiro, recalcula os vizinhos de todos os projetos
+     * @return Número de listas de vizinhos gravadas
+     */
+    @PostMapping("/relacionados")
+    public ResponseEntity<Map<String, Object>> triggerRelacionados(
+            @RequestHeader(value = "X-API-Key", required = true) String apiKey,
+            @RequestParam(value = "full", defaultValue = "false") boolean full) {
+        
+        // Verificar a chave de API para segurança
+        if (!secretKey.equals(apiKey)) {
+            logger.warn("Tentativa de recálculo de projetos relacionados com chave de API inválida");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("success", false, "message", "Chave de API inválida"));
+        }
+        
+        logger.info("Recálculo de projetos relacionados (full={}) iniciado via endpoint REST em {}", full, LocalDateTime.now());
+        
+        try {
+            int atualizados = projetosRelacionadosService.rebuild(full);
+            if (atualizados < 0) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of(
+                                "success", false,
+                                "message", "Cálculo de projetos relacionados já está em andamento",
+                                "timestamp", LocalDateTime.now().toString()
+                        ));
+            }
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Projetos relacionados recalculados com sucesso",
+                    "atualizados", atualizados,
+                    "timestamp", LocalDateTime.now().toString()
+            ));
+        } catch (Exception e) {
+            logger.error("Erro ao recalcular projetos relacionados: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of(
+                            "success", false,
+                            "message", "Erro ao recalcular projetos relacionados: " + e.getMessage(),
+                            "timestamp", LocalDateTime.now().toString()
+                    ));
+        }
+    }
+    
+    /**
+     * Inicia uma gravação do Java Flight Recorder com duração limitada, gravada em arquivo local
+     * ao fim do prazo (ou ao chamar /jfr/stop). Inclui os eventos de busca, embeddings e sincronização.
+     * 
+     * @param apiKey Chave de API fornecida no cabeçalho
+     * @param durationSeconds Duração da gravação (limitada por app.jfr.max-duration-seconds)
+     * @return Caminho do arquivo da gravação
+     */
+    @PostMapping("/jfr/start")
+    public ResponseEntity<Map<String, Object>> startRecording(
+            @RequestHeader(value = "X-API-Key", required = true) String apiKey,
+            @RequestParam(value = "durationSeconds", defaultValue = "60") long durationSeconds) {
+        
+        // Verificar a chave de API para segurança
+        if (!secretKey.equals(apiKey)) {
+            logger.warn("Tentativa de iniciar gravação JFR com chave de API inválida");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("success", false, "message", "Chave de API inválida"));
+        }
+        
+        try {
+            Path arquivo = flightRecordingService.start(durationSeconds);
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Gravação JFR iniciada",
+                    "file", arquivo.toString(),
+                    "timestamp", LocalDateTime.now().toString()
+            ));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of(
+                            "success", false,
+                            "message", e.getMessage(),
+                            "timestamp", LocalDateTime.now().toString()
+                    ));
+        } catch (Exception e) {
+            logger.error("Erro ao iniciar gravação JFR: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of(
+                            "success", false,
+                            "message", "Erro ao iniciar gravação JFR: " + e.getMessage(),
+                            "timestamp", LocalDateTime.now().toString()
+                    ));
+        }
+    }
+    
+    /**
+     * Encerra a gravação JFR em andamento antes do prazo e grava o arquivo
+     * 
+     * @param apiKey Chave de API fornecida no cabeçalho
+     * @return Caminho do arquivo gravado
+     */
+    @PostMapping("/jfr/stop")
+    public ResponseEntity<Map<String, Object>> stopRecording(
+            @RequestHeader(value = "X-API-Key", required = true) String apiKey) {
+        
+        // Verificar a chave de API para segurança
+        if (!secretKey.equals(apiKey)) {
+            logger.warn("Tentativa de encerrar gravação JFR com chave de API inválida");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("success", false, "message", "Chave de API inválida"));
+        }
+        
+        Path arquivo = flightRecordingService.stop();
+        if (arquivo == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of(
+                            "success", false,
+                            "message", "Nenhuma gravação JFR em andamento",
+                            "timestamp", LocalDateTime.now().toString()
+                    ));
+        }
+        return ResponseEntity.ok(Map.of(
+                "success", true,
+                "message", "Gravação JFR encerrada",
+                "file", arquivo.toString(),
+                "timestamp", LocalDateTime.now().toString()
+        ));
+    }
+    
+    /**
+     * Compara as estratégias de upsert em massa em tabelas temporárias (nada é gravado em projetos).
+     * Roda de forma síncrona: com 100 mil projetos e a estratégia ROW pode levar alguns minutos.
+     * 
+     * @param apiKey Chave de API fornecida no cabeçalho
+     * @param rows Quantidades de projetos a medir
+     * @param strategies Estratégias a comparar
+     * @param batchSize Tamanho do lote das estratégias BATCH, MULTI_ROW e COPY
+     * @return Tempos de inserção e de atualização por estratégia e quantidade
+     */
+    @PostMapping("/benchmark/upsert")
+    public ResponseEntity<Map<String, Object>> benchmarkUpsert(
+            @RequestHeader(value = "X-API-Key", required = true) String apiKey,
+            @RequestParam(value = "rows", defaultValue = "1000,10000,100000") List<Integer> rows,
+            @RequestParam(value = "strategies", defaultValue = "ROW,BATCH,MULTI_ROW,COPY") List<ProjetoBulkUpsert.Strategy> strategies,
+            @RequestParam(value = "batchSize", defaultValue = "500") int batchSize) {
+        
+        // Verificar a chave de API para segurança
+        if (!secretKey.equals(apiKey)) {
+            logger.warn("Tentativa de executar benchmark de upsert com chave de API inválida");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("success", false, "message", "Chave de API inválida"));
+        }
+        
+        if (rows.stream().anyMatch(n -> n < 1 || n > MAX_BENCHMARK_ROWS) || batchSize < 1) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of(
+                            "success", false,
+                            "message", "rows deve estar entre 1 e " + MAX_BENCHMARK_ROWS + " e batchSize deve ser positivo",
+                            "timestamp", LocalDateTime.now().toString()
+                    ));
+        }
+        
+        try {
+            List<UpsertBenchmarkService.Result> resultados = upsertBenchmarkService.run(rows, strategies, batchSize);
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Benchmark de upsert concluído",
+                    "results", resultados,
+                    "timestamp", LocalDateTime.now().toString()
+            ));
+        } catch (Exception e) {
+            logger.error("Erro ao executar benchmark de upsert: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of(
+                            "success", false,
+                            "message", "Erro ao executar benchmark de upsert: " + e.getMessage(),
+                            "timestamp", LocalDateTime.now().toString()
+                    ));
+        }
+    }
 }
@@ -2,10 +2,15 @@ package br.com.sampachat.api.controller;
 
 import br.com.sampachat.api.dto.ConfigDTO;
 import br.com.sampachat.api.util.AppConstants;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * Controller para expor configurações do sistema
@@ -14,12 +19,21 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/config")
 public class ConfigController {
     
+    // As configurações são constantes da versão implantada: o ETag muda apenas com elas
+    private static final String CONFIG_ETAG =
+            "\"config-" + AppConstants.DEFAULT_PAGE_SIZE + "-" + AppConstants.MAX_RESULTS_LIMIT + "\"";
+    
     @GetMapping
-    public ResponseEntity<ConfigDTO> getConfig() {
+    public ResponseEntity<ConfigDTO> getConfig(WebRequest webRequest) {
+        CacheControl cacheControl = CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic();
+        if (webRequest.checkNotModified(CONFIG_ETAG)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(CONFIG_ETAG).cacheControl(cacheControl).build();
+        }
+        
         ConfigDTO config = new ConfigDTO(
             AppConstants.DEFAULT_PAGE_SIZE,
             AppConstants.MAX_RESULTS_LIMIT
         );
-        return ResponseEntity.ok(config);
+        return ResponseEntity.ok().eTag(CONFIG_ETAG).cacheControl(cacheControl).body(config);
     }
 }
@@ -0,0 +1,31 @@
+package br.com.sampachat.api.controller;
+
+import br.com.sampachat.api.dto.ProjetoResponseDTO;
+import br.com.sampachat.api.service.ProjetosRelacionadosService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller para consultas sobre um projeto específico
+ */
+@RestController
+@RequestMapping("/api/projetos")
+public class ProjetoController {
+
+    @Autowired
+    private ProjetosRelacionadosService projetosRelacionadosService;
+
+    /**
+     * Projetos relacionados (vizinhos semânticos pré-computados), do mais ao menos similar
+     */
+    @GetMapping("/{id}/relacionados")
+    public ResponseEntity<List<ProjetoResponseDTO>> getRelacionados(@PathVariable("id") Integer id) {
+        return ResponseEntity.ok(projetosRelacionadosService.findRelacionados(id));
+    }
+}
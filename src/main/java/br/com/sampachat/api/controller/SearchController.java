@@ -1,46 +1,118 @@
 package br.com.sampachat.api.controller;
 
+import br.com.sampachat.api.config.AsyncConfig;
+import br.com.sampachat.api.dto.BatchSearchRequestDTO;
+import br.com.sampachat.api.dto.ColumnarSearchResultDTO;
 import br.com.sampachat.api.dto.HybridSearchResultDTO;
+import br.com.sampachat.api.dto.ProjetoResponseDTO;
+import br.com.sampachat.api.dto.SuggestionDTO;
 import br.com.sampachat.api.model.Projeto;
+import br.com.sampachat.api.service.AdmissionControlService;
+import br.com.sampachat.api.service.InvalidCursorException;
+import br.com.sampachat.api.service.SearchCancellation;
 import br.com.sampachat.api.service.SearchService;
 import br.com.sampachat.api.service.SearchServiceRefactored;
+import br.com.sampachat.api.service.ServiceOverloadedException;
+import br.com.sampachat.api.service.SseHeartbeatService;
+import br.com.sampachat.api.service.SuggestService;
 import br.com.sampachat.api.util.AppConstants;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.concurrent.CompletableFuture;
-
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/search")
 public class SearchController {
 
+    // Intervalo entre comentários de heartbeat enviados durante uma busca SSE
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(1);
+
+    // Valor usado quando app.admin.secret-key não está configurada
+    private static final String DEFAULT_SECRET_KEY = "defaultKey";
+
     // Usando o serviço refatorado
     @Autowired
     private SearchServiceRefactored searchService;
     
+    @Autowired
+    private SuggestService suggestService;
+    
     @Autowired
     private ObjectMapper objectMapper;
+    
+    @Autowired
+    private SseHeartbeatService sseHeartbeatService;
+    
+    @Autowired
+    private AdmissionControlService admissionControlService;
+    
+    @Autowired
+    @Qualifier(AsyncConfig.SEARCH_EXECUTOR)
+    private AsyncTaskExecutor searchTaskExecutor;
+    
+    @Value("${app.admin.secret-key:defaultKey}")
+    private String secretKey;
+
+    // Tempo que navegadores e CDN podem reutilizar uma resposta de busca sem revalidar
+    @Value("${app.http.search.max-age-seconds:60}")
+    private long searchMaxAgeSeconds;
 
     @GetMapping
     public ResponseEntity<?> searchProjects(
             @RequestParam("q") String query,
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "" + AppConstants.DEFAULT_PAGE_SIZE) int size,
-            @RequestParam(value = "excludedFilters", required = false) String excludedFiltersJson) {
+            @RequestParam(value = "excludedFilters", required = false) String excludedFiltersJson,
+            @RequestParam(value = "fields", required = false) String fieldsParam,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "debug", defaultValue = "false") boolean debug,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = "X-API-Key", required = false) String apiKey,
+            WebRequest webRequest) {
+
+        // Campos pedidos (fields=id,numero,ano,...); null significa todos
+        List<String> campos = parseFields(fieldsParam);
+        if (campos != null && !ProjetoResponseDTO.CAMPOS.containsAll(campos)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Campos válidos para fields: " + String.join(",", ProjetoResponseDTO.CAMPOS)));
+        }
+        boolean columnar = accept != null && accept.contains(ColumnarSearchResultDTO.MEDIA_TYPE);
 
         if (query == null || query.isBlank()) {
             // Retorna um DTO vazio com informações de paginação
@@ -59,9 +131,84 @@ public class SearchController {
             }
         }
 
+        // Explain da busca (filtros, plano, etapas e EXPLAIN ANALYZE das consultas): uso administrativo
+        if (debug) {
+            if (!isDebugKey(apiKey)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Map.of("success", false, "message", "Chave de API inválida"));
+            }
+            try (AdmissionControlService.Permit ignored = admissionControlService.admitSearch()) {
+                return ResponseEntity.ok().cacheControl(CacheControl.noStore())
+                        .body(searchService.explainSearch(query, page, size, excludedFilters));
+            }
+        }
+
+        // Filtros extraídos uma vez e reaproveitados pelo ETag e pela busca
+        SearchServiceRefactored.SearchFilter filter = searchService.parseFilters(query, excludedFilters);
+
+        // Revalidação condicional antes de qualquer trabalho de busca: os dados só mudam quando a sincronização roda
+        // O ETag também varia com a representação (campos e codificação negociada)
+        String etag = representationETag(searchService.searchETag(query, filter, page, size), fieldsParam, accept, cursor);
+        CacheControl cacheControl = CacheControl.maxAge(searchMaxAgeSeconds, TimeUnit.SECONDS).cachePublic().mustRevalidate();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+
         // Sempre usa a busca híbrida/inteligente com o serviço refatorado
-        HybridSearchResultDTO results = searchService.searchHybridPaged(query, page, size, excludedFilters);
-        return ResponseEntity.ok(results);
+        try (AdmissionControlService.Permit ignored = admissionControlService.admitSearch()) {
+            // Com cursor (nextCursor da página anterior) a página é buscada por keyset, sem OFFSET
+            HybridSearchResultDTO results = cursor != null && !cursor.isBlank()
+                    ? searchService.searchFilterOnlyAfter(query, filter, cursor, size)
+                    : searchService.searchHybridPaged(query, filter, page, size);
+            // Resultados degradados ou com erro não devem ser reaproveitados por caches
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+            if (results.isPartial() || "error".equals(results.getResultType())) {
+                response.cacheControl(CacheControl.noStore());
+            } else {
+                response.eTag(etag).cacheControl(cacheControl);
+            }
+            if (columnar) {
+                return response.contentType(MediaType.parseMediaType(ColumnarSearchResultDTO.MEDIA_TYPE))
+                        .body(ColumnarSearchResultDTO.from(results, campos != null ? campos : ProjetoResponseDTO.CAMPOS));
+            }
+            if (campos != null) {
+                // Os campos fora da lista não são serializados (e os links deles nem chegam a ser montados)
+                MappingJacksonValue sparse = new MappingJacksonValue(results);
+                sparse.setFilters(new SimpleFilterProvider().addFilter(ProjetoResponseDTO.FIELDS_FILTER,
+                        SimpleBeanPropertyFilter.filterOutAllExcept(new HashSet<>(campos))));
+                return response.body(sparse);
+            }
+            return response.body(results);
+        }
+    }
+    
+    /**
+     * Executa várias buscas em uma única requisição, compartilhando a chamada ao modelo de embeddings.
+     * Os resultados são devolvidos na mesma ordem das buscas enviadas.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> searchBatch(@RequestBody List<BatchSearchRequestDTO> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        if (requests.size() > AppConstants.MAX_BATCH_QUERIES) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Máximo de " + AppConstants.MAX_BATCH_QUERIES + " buscas por lote"));
+        }
+        try (AdmissionControlService.Permit ignored = admissionControlService.admitSearch()) {
+            return ResponseEntity.ok(searchService.searchHybridBatch(requests));
+        }
+    }
+    
+    /**
+     * Sugestões de autocompletar (autores, partidos, assuntos e identificadores).
+     * Atendido inteiramente pelo índice em memória, sem acesso ao banco.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam("q") String prefix,
+            @RequestParam(value = "limit", defaultValue = "8") int limit) {
+        return ResponseEntity.ok(suggestService.suggest(prefix, limit));
     }
     
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
@@ -100,19 +247,107 @@ public class SearchController {
             }
         }
         
+        // Admissão antes de abrir o stream, sem esperar na fila: a espera prenderia a thread do Tomcat.
+        // Em sobrecarga o cliente recebe 503 imediatamente
+        final AdmissionControlService.Permit permit = admissionControlService.tryAdmitSearch();
+        
         // Cria um emitter com um timeout de 3 minutos
         final SseEmitter emitter = new SseEmitter(180000L);
         
-        // Executa a busca em uma thread separada para não bloquear o thread principal
-        CompletableFuture.runAsync(() -> {
-            try {
-                // Realiza a busca em duas etapas - usando a cópia final dos filtros
-                searchService.searchHybridPagedWithSSE(query, page, size, finalExcludedFilters, emitter);
-            } catch (Exception e) {
-                emitter.completeWithError(e);
-            }
-        });
+        // Sinal de cancelamento acionado quando o cliente desconecta, o emitter expira ou falha
+        final SearchCancellation cancellation = new SearchCancellation();
+        
+        // Heartbeat: a desconexão do cliente só é percebida ao escrever na resposta, então
+        // enviamos um comentário SSE periódico enquanto a busca está em andamento
+        final ScheduledFuture<?> heartbeat = sseHeartbeatService.start(emitter, HEARTBEAT_INTERVAL, cancellation::cancel);
+        
+        // Conclusão, timeout e erro param o heartbeat e cancelam a busca
+        Runnable onFinish = () -> {
+            heartbeat.cancel(false);
+            cancellation.cancel();
+        };
+        emitter.onCompletion(onFinish);
+        emitter.onTimeout(onFinish);
+        emitter.onError(e -> onFinish.run());
+        
+        // Executa a busca no executor de buscas para não bloquear a thread da requisição
+        try {
+            searchTaskExecutor.execute(() -> {
+                try {
+                    // Realiza a busca em duas etapas - usando a cópia final dos filtros
+                    searchService.searchHybridPagedWithSSE(query, page, size, finalExcludedFilters, emitter, cancellation);
+                } catch (Exception e) {
+                    emitter.completeWithError(e);
+                } finally {
+                    heartbeat.cancel(false);
+                    permit.close();
+                }
+            });
+        } catch (RuntimeException e) {
+            permit.close();
+            onFinish.run();
+            throw e;
+        }
         
         return emitter;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Resposta rápida para requisições recusadas pelo controle de admissão
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleOverload(ServiceOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of(
+                        "success", false,
+                        "message", e.getMessage(),
+                        "timestamp", LocalDateTime.now().toString()
+                ));
+    }
+    
+    /**
+     * Cursor malformado ou usado em busca semântica
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidCursor(InvalidCursorException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of(
+                        "success", false,
+                        "message", e.getMessage(),
+                        "timestamp", LocalDateTime.now().toString()
+                ));
+    }
+    
+    /**
+     * O explain expõe consultas e planos, então só é liberado com uma chave configurada de fato:
+     * chave vazia ou o valor padrão recusam sempre. Comparação em tempo constante
+     */
+    private boolean isDebugKey(String apiKey) {
+        if (secretKey == null || secretKey.isBlank() || DEFAULT_SECRET_KEY.equals(secretKey) || apiKey == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(secretKey.getBytes(StandardCharsets.UTF_8), apiKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<String> parseFields(String fieldsParam) {
+        if (fieldsParam == null || fieldsParam.isBlank()) {
+            return null;
+        }
+        return Arrays.stream(fieldsParam.split(","))
+                .map(String::trim)
+                .filter(campo -> !campo.isEmpty())
+                .distinct()
+                .toList();
+    }
+    
+    private String representationETag(String etag, String fieldsParam, String accept, String cursor) {
+        if (Stream.of(fieldsParam, accept, cursor).allMatch(parte -> parte == null || parte.isBlank())) {
+            return etag;
+        }
+        String variante = Integer.toHexString(Objects.hash(fieldsParam, accept, cursor));
+        return etag.substring(0, etag.length() - 1) + "-" + variante + "\"";
+    }
+}
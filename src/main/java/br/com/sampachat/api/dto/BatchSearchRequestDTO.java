@@ -0,0 +1,22 @@
+package br.com.sampachat.api.dto;
+
+import br.com.sampachat.api.util.AppConstants;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uma busca dentro de uma requisição de busca em lote (mesmos parâmetros de /api/search)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class BatchSearchRequestDTO {
+    private String q;
+    private int page = 0;
+    private int size = AppConstants.DEFAULT_PAGE_SIZE;
+    private Map<String, List<String>> excludedFilters;
+}
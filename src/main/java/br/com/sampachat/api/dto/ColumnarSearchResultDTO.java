@@ -0,0 +1,79 @@
+package br.com.sampachat.api.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Resultado de busca em layout colunar (Accept: application/vnd.sampachat.columnar+json).
+ * Em vez de uma lista de objetos, cada campo vira uma coluna com os valores de todos os projetos
+ * da página, na mesma ordem; os nomes dos campos aparecem uma única vez por resposta.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class ColumnarSearchResultDTO {
+    public static final String MEDIA_TYPE = "application/vnd.sampachat.columnar+json";
+
+    // Coluna -> valores, uma posição por projeto
+    private Map<String, List<Object>> projetos;
+    private Map<String, List<String>> appliedFilters;
+    private int currentPage;
+    private int pageSize;
+    private int totalElements;
+    private boolean hasMore;
+    private List<String> highlightTerms;
+    private String resultType;
+    private boolean partial;
+    private String didYouMean;
+
+    public static ColumnarSearchResultDTO from(HybridSearchResultDTO result, List<String> campos) {
+        ColumnarSearchResultDTO columnar = new ColumnarSearchResultDTO();
+        List<ProjetoResponseDTO> linhas = result.getProjetos() != null ? result.getProjetos() : List.of();
+
+        Map<String, List<Object>> colunas = new LinkedHashMap<>();
+        for (String campo : campos) {
+            Function<ProjetoResponseDTO, Object> extrator = extrator(campo);
+            List<Object> valores = new ArrayList<>(linhas.size());
+            for (ProjetoResponseDTO linha : linhas) {
+                valores.add(extrator.apply(linha));
+            }
+            colunas.put(campo, valores);
+        }
+
+        columnar.setProjetos(colunas);
+        columnar.setAppliedFilters(result.getAppliedFilters());
+        columnar.setCurrentPage(result.getCurrentPage());
+        columnar.setPageSize(result.getPageSize());
+        columnar.setTotalElements(result.getTotalElements());
+        columnar.setHasMore(result.isHasMore());
+        columnar.setHighlightTerms(result.getHighlightTerms());
+        columnar.setResultType(result.getResultType());
+        columnar.setPartial(result.isPartial());
+        columnar.setDidYouMean(result.getDidYouMean());
+        return columnar;
+    }
+
+    private static Function<ProjetoResponseDTO, Object> extrator(String campo) {
+        switch (campo) {
+            case "id": return ProjetoResponseDTO::getId;
+            case "tipo": return ProjetoResponseDTO::getTipo;
+            case "numero": return ProjetoResponseDTO::getNumero;
+            case "ano": return ProjetoResponseDTO::getAno;
+            case "autor": return ProjetoResponseDTO::getAutor;
+            case "autorSearch": return ProjetoResponseDTO::getAutorSearch;
+            case "ementa": return ProjetoResponseDTO::getEmenta;
+            case "palavrasChave": return ProjetoResponseDTO::getPalavrasChave;
+            case "linkSpLegis": return ProjetoResponseDTO::getLinkSpLegis;
+            case "linkPortal": return ProjetoResponseDTO::getLinkPortal;
+            case "linkPdf": return ProjetoResponseDTO::getLinkPdf;
+            default: throw new IllegalArgumentException("Campo desconhecido: " + campo);
+        }
+    }
+}
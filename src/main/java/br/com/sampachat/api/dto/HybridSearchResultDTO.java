@@ -1,6 +1,7 @@
 package br.com.sampachat.api.dto;
 
 import br.com.sampachat.api.model.Projeto;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -23,10 +24,20 @@ public class HybridSearchResultDTO {
     private int pageSize;
     private int totalElements;
     private boolean hasMore;
+    // Cursor opaco da próxima página (buscas apenas por filtros); enviado de volta em cursor=
+    private String nextCursor;
     // Termos para destaque no frontend
     private List<String> highlightTerms;
-    // Tipo de resultado: "exact" (só resultados exatos) ou "complete" (com resultados semânticos)
+    // Tipo de resultado: "exact" (só resultados exatos), "complete" (com resultados semânticos)
+    // ou "partial" (orçamento de latência esgotado antes da fase semântica)
     private String resultType;
+    // Indica que a fase semântica não terminou a tempo e os resultados contêm apenas matches exatos
+    private boolean partial;
+    // Sugestão de consulta corrigida ("você quis dizer"), ou null quando não há correções
+    private String didYouMean;
+    // Explain da busca (apenas com debug=true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private SearchExplainDTO explain;
     
     // Construtor para compatibilidade com código existente
     public HybridSearchResultDTO(List<ProjetoResponseDTO> projetos, Map<String, List<String>> appliedFilters) {
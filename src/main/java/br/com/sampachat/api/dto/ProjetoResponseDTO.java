@@ -2,14 +2,26 @@ package br.com.sampachat.api.dto;
 
 import br.com.sampachat.api.model.Projeto;
 import br.com.sampachat.api.model.TipoProposicao;
+import br.com.sampachat.api.util.ProjetoLinks;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.List;
+
 @Getter
 @Setter
 @NoArgsConstructor
+@JsonFilter(ProjetoResponseDTO.FIELDS_FILTER)
 public class ProjetoResponseDTO {
+    // Filtro do Jackson usado pelo parâmetro fields= (sem ele, todos os campos são serializados)
+    public static final String FIELDS_FILTER = "projetoFields";
+    // Campos disponíveis, na ordem de serialização
+    public static final List<String> CAMPOS = List.of(
+            "id", "tipo", "numero", "ano", "autor", "autorSearch", "ementa", "palavrasChave",
+            "linkSpLegis", "linkPortal", "linkPdf");
+
     private Integer id;
     private TipoProposicao tipo;
     private Integer numero;
@@ -18,11 +30,12 @@ public class ProjetoResponseDTO {
     private String autorSearch;
     private String ementa;
     private String palavrasChave;
+    // Links explícitos; quando nulos, são montados a partir dos templates só na serialização
     private String linkSpLegis;
     private String linkPortal;
     private String linkPdf;
     
-    public ProjetoResponseDTO(Projeto projeto, String linkSpLegis, String linkPortal, String linkPdf) {
+    public ProjetoResponseDTO(Projeto projeto) {
         this.id = projeto.getId();
         this.tipo = projeto.getTipo();
         this.numero = projeto.getNumero();
@@ -31,8 +44,24 @@ public class ProjetoResponseDTO {
         this.autorSearch = projeto.getAutorSearch();
         this.ementa = projeto.getEmenta();
         this.palavrasChave = projeto.getPalavrasChave();
+    }
+    
+    public ProjetoResponseDTO(Projeto projeto, String linkSpLegis, String linkPortal, String linkPdf) {
+        this(projeto);
         this.linkSpLegis = linkSpLegis;
         this.linkPortal = linkPortal;
         this.linkPdf = linkPdf;
     }
-}
\ No newline at end of file
+    
+    public String getLinkSpLegis() {
+        return linkSpLegis != null || tipo == null ? linkSpLegis : ProjetoLinks.spLegis(tipo, numero, ano);
+    }
+    
+    public String getLinkPortal() {
+        return linkPortal != null || tipo == null ? linkPortal : ProjetoLinks.portal(tipo, numero, ano);
+    }
+    
+    public String getLinkPdf() {
+        return linkPdf != null || tipo == null ? linkPdf : ProjetoLinks.pdf(tipo, numero, ano);
+    }
+}
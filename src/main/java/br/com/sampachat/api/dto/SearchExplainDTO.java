@@ -0,0 +1,52 @@
+package br.com.sampachat.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Explain de uma busca executada com debug=true: como a busca foi interpretada e executada
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class SearchExplainDTO {
+    // Filtros extraídos da query (autores, anos, número, tipo, query semântica, frases exatas, correções)
+    private Map<String, Object> filter;
+    // Plano escolhido: empty, filter_only ou hybrid
+    private String plan;
+    // Quantidade de projetos após os filtros de metadados
+    private int relevantIds;
+    // Tamanho de cada conjunto de candidatos (filtered, exact, semantic, final)
+    private Map<String, Integer> candidates;
+    // Tempo de parede de cada etapa, em milissegundos
+    private Map<String, Double> stageMillis;
+    private double totalMillis;
+    // Consultas SQL executadas, com o plano de EXPLAIN (ANALYZE, BUFFERS)
+    private List<Statement> statements;
+    // Consultas ao cache de resultados
+    private List<CacheLookup> cacheLookups;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Statement {
+        private String stage;
+        private String sql;
+        // Parâmetros; listas longas (ex: ids) aparecem resumidas
+        private Map<String, Object> parameters;
+        private List<String> plan;
+        private String error;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CacheLookup {
+        private String key;
+        private long dataVersion;
+        private boolean hit;
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.sampachat.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Sugestão de autocompletar exibida enquanto o usuário digita a busca
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDTO {
+    // Texto a ser inserido na caixa de busca (ex: "Keit Lima", "Saúde", "PL 123/2024")
+    private String texto;
+    // Categoria da sugestão: "autor", "partido", "assunto" ou "projeto"
+    private String categoria;
+    // Número de projetos associados, usado para ordenar as sugestões
+    private int frequencia;
+}
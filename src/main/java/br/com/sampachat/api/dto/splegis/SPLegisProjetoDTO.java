@@ -1,39 +1,27 @@
 package br.com.sampachat.api.dto.splegis;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 
 import java.util.List;
 
 /**
  * DTO para representar a estrutura de resposta da API do SPLegis
+ * Apenas os campos gravados: os demais (texto, natodigital, norma...) são pulados na leitura
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class SPLegisProjetoDTO {
     private Long codigo;
-    private Boolean natodigital;
-    private Integer tipo;
     private Integer numero;
     private Integer ano;
-    private String sigla;
-    private String texto;
     private String ementa;
-    private NormaDTO norma;
     private List<ItemDTO> promoventes;
     private List<ItemDTO> assuntos;
-    
-    @JsonProperty("dT_RowId")
-    private Long dtRowId;
-
-    @Data
-    public static class NormaDTO {
-        private Integer numero;
-        private Integer ano;
-    }
 
     @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class ItemDTO {
-        private Long codigo;
         private String texto;
     }
 }
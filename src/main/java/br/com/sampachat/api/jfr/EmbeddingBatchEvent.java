@@ -0,0 +1,31 @@
+package br.com.sampachat.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de uma chamada ao modelo de embeddings (query de busca ou lote da sincronização)
+ */
+@Name("br.com.sampachat.EmbeddingBatch")
+@Label("Lote de embeddings")
+@Category({"SampaChat", "Embeddings"})
+@Description("Inferência de um lote de textos no modelo de embeddings")
+@StackTrace(false)
+public class EmbeddingBatchEvent extends jdk.jfr.Event {
+
+    @Label("Textos")
+    public int size;
+
+    @Label("Tokens")
+    @Description("Palavras separadas por espaço (aproximação dos tokens do modelo)")
+    public int tokens;
+
+    @Label("Maior texto (tokens)")
+    public int maxTokens;
+
+    @Label("Caracteres")
+    public long chars;
+}
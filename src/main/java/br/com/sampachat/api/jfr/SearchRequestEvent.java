@@ -0,0 +1,64 @@
+package br.com.sampachat.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento JFR de uma busca, do início ao resultado (paginada ou via SSE).
+ * A query não é gravada, apenas um hash para agrupar buscas iguais.
+ */
+@Name("br.com.sampachat.SearchRequest")
+@Label("Busca")
+@Category({"SampaChat", "Busca"})
+@Description("Execução de uma busca: plano, duração das etapas e tamanho dos conjuntos de candidatos")
+@StackTrace(false)
+public class SearchRequestEvent extends jdk.jfr.Event {
+
+    @Label("Hash da query")
+    public String queryHash;
+
+    @Label("Canal")
+    @Description("paged ou stream")
+    public String channel;
+
+    @Label("Plano")
+    @Description("empty, filter_only, hybrid ou cache")
+    public String plan;
+
+    @Label("Tipo de resultado")
+    public String resultType;
+
+    @Label("Filtro SQL")
+    @Timespan(Timespan.MILLISECONDS)
+    public long filterSqlDuration;
+
+    @Label("Busca exata")
+    @Timespan(Timespan.MILLISECONDS)
+    public long exactDuration;
+
+    @Label("Fase semântica")
+    @Description("Inferência da query e consulta vetorial")
+    @Timespan(Timespan.MILLISECONDS)
+    public long semanticDuration;
+
+    @Label("Ranking")
+    @Description("Combinação, ordenação e filtro de frases exatas")
+    @Timespan(Timespan.MILLISECONDS)
+    public long rankingDuration;
+
+    @Label("Candidatos filtrados")
+    public int filteredCandidates;
+
+    @Label("Matches exatos")
+    public int exactCandidates;
+
+    @Label("Matches semânticos")
+    public int semanticCandidates;
+
+    @Label("Resultados finais")
+    public int finalResults;
+}
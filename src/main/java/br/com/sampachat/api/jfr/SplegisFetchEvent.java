@@ -0,0 +1,43 @@
+package br.com.sampachat.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de uma requisição à API do SPLegis durante a sincronização
+ */
+@Name("br.com.sampachat.SplegisFetch")
+@Label("Requisição ao SPLegis")
+@Category({"SampaChat", "Sincronização"})
+@Description("Busca de uma janela de projetos (tipo, ano e faixa de números) na API do SPLegis")
+@StackTrace(false)
+public class SplegisFetchEvent extends jdk.jfr.Event {
+
+    @Label("Tipo")
+    @Description("Código do tipo de proposição no SPLegis")
+    public int tipo;
+
+    @Label("Ano")
+    public int ano;
+
+    @Label("Número inicial")
+    public int numeroInicio;
+
+    @Label("Número final")
+    public int numeroFim;
+
+    @Label("Tamanho da resposta")
+    @Description("Bytes lidos do corpo (já descompactado)")
+    @DataAmount(DataAmount.BYTES)
+    public long bytes;
+
+    @Label("Projetos")
+    public int items;
+
+    @Label("Sucesso")
+    public boolean success;
+}
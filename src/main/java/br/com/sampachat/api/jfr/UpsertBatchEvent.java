@@ -0,0 +1,34 @@
+package br.com.sampachat.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de um lote de upsert de projetos na sincronização
+ */
+@Name("br.com.sampachat.UpsertBatch")
+@Label("Lote de upsert")
+@Category({"SampaChat", "Sincronização"})
+@Description("Gravação de um lote de projetos vindos do SPLegis")
+@StackTrace(false)
+public class UpsertBatchEvent extends jdk.jfr.Event {
+
+    @Label("Tipo")
+    public String tipo;
+
+    @Label("Estratégia")
+    @Description("Estratégia de upsert em massa (ROW, BATCH, MULTI_ROW ou COPY)")
+    public String strategy;
+
+    @Label("Projetos no lote")
+    public int size;
+
+    @Label("Projetos gravados")
+    public int saved;
+
+    @Label("Falhas")
+    public int failures;
+}
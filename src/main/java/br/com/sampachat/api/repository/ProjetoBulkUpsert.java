@@ -0,0 +1,320 @@
+package br.com.sampachat.api.repository;
+
+import br.com.sampachat.api.model.Projeto;
+import br.com.sampachat.api.model.TipoProposicao;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Upsert em massa de projetos (INSERT ... ON CONFLICT (tipo, numero, ano) DO UPDATE).
+ * <p>
+ * Estratégias disponíveis (app.sync.upsert.strategy):
+ * ROW: um comando por projeto (o comportamento antigo, mantido para comparação);
+ * BATCH: lote JDBC (reescrito pelo driver em VALUES de várias linhas) para uma tabela temporária de preparo;
+ * MULTI_ROW: um único INSERT com várias linhas em VALUES por lote;
+ * COPY: COPY para a tabela temporária de preparo.
+ * Em todas, o upsert é um único comando por lote que devolve (RETURNING) o id de cada projeto, se ele
+ * foi inserido (xmax = 0) e se o conteúdo mudou em relação à versão anterior, lida no mesmo snapshot.
+ * <p>
+ * O content_hash (função projeto_content_hash, ver V8) é calculado na gravação a partir de autor, autor_search,
+ * ementa e palavras_chave: projetos sem mudança não são reescritos (sem tuplas mortas, WAL nem churn de índices).
+ * Quando a ementa ou as palavras-chave mudam, o embedding é apagado na mesma gravação, marcando o projeto para
+ * ser embeddado de novo (mesmo que a geração falhe agora, ele continua sem embedding até a próxima sincronização).
+ * Projetos repetidos (mesmo tipo, número e ano) na mesma chamada são gravados uma vez, com a última versão,
+ * pois o ON CONFLICT não pode atualizar a mesma linha duas vezes no mesmo comando.
+ */
+@Repository
+public class ProjetoBulkUpsert {
+
+    public enum Strategy { ROW, BATCH, MULTI_ROW, COPY }
+
+    /**
+     * Resultado do upsert de um projeto
+     *
+     * @param inserted               projeto novo
+     * @param changed                o content_hash mudou e a linha foi gravada (ou o projeto é novo)
+     * @param embeddingContentChanged ementa ou palavras-chave mudaram (ou o projeto é novo)
+     * @param missingEmbedding       o projeto está sem embedding (novo, alterado ou ainda não gerado)
+     */
+    public record UpsertResult(int id, TipoProposicao tipo, int numero, int ano, boolean inserted,
+                               boolean changed, boolean embeddingContentChanged, boolean missingEmbedding) {
+
+        /**
+         * O embedding precisa ser gerado (ou gerado de novo)
+         */
+        public boolean needsEmbedding() {
+            return missingEmbedding;
+        }
+    }
+
+    public static final String TABLE = "projetos";
+
+    private static final String COLUMNS = "tipo, numero, ano, autor, autor_search, ementa, palavras_chave";
+    private static final int COLUMN_COUNT = 7;
+    private static final String ROW_VALUES = "(CAST(? AS tp_proposicao), CAST(? AS integer), CAST(? AS integer), " +
+            "CAST(? AS text), CAST(? AS text), CAST(? AS text), CAST(? AS text))";
+    // "t" é o alias da tabela de destino no INSERT
+    private static final String ON_CONFLICT =
+            " ON CONFLICT (tipo, numero, ano) DO UPDATE SET " +
+            "autor = EXCLUDED.autor, " +
+            "autor_search = EXCLUDED.autor_search, " +
+            "ementa = EXCLUDED.ementa, " +
+            "palavras_chave = EXCLUDED.palavras_chave, " +
+            "content_hash = EXCLUDED.content_hash, " +
+            "embedding = CASE WHEN (t.ementa, t.palavras_chave) IS DISTINCT FROM (EXCLUDED.ementa, EXCLUDED.palavras_chave) " +
+            "THEN NULL ELSE t.embedding END " +
+            "WHERE t.content_hash IS DISTINCT FROM EXCLUDED.content_hash";
+    // Limite de parâmetros por comando no protocolo do PostgreSQL
+    private static final int MAX_PARAMETERS = 32767;
+    private static final String STAGING_TABLE = "projetos_staging";
+    private static final String FROM_STAGING = "SELECT CAST(tipo AS tp_proposicao) AS tipo, numero, ano, autor, autor_search, " +
+            "ementa, palavras_chave FROM " + STAGING_TABLE;
+
+    static final RowMapper<UpsertResult> RESULT_MAPPER = (rs, rowNum) -> new UpsertResult(
+            rs.getInt("id"),
+            TipoProposicao.valueOf(rs.getString("tipo")),
+            rs.getInt("numero"),
+            rs.getInt("ano"),
+            rs.getBoolean("inserted"),
+            rs.getBoolean("changed"),
+            rs.getBoolean("embedding_content_changed"),
+            rs.getBoolean("missing_embedding"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.sync.upsert.strategy:MULTI_ROW}")
+    private Strategy strategy;
+
+    @Value("${app.sync.upsert.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Grava os projetos na tabela de projetos com a estratégia e o tamanho de lote configurados
+     *
+     * @return resultado de cada projeto gravado (sem repetições)
+     */
+    public List<UpsertResult> upsert(List<Projeto> projetos) {
+        return upsert(TABLE, projetos, strategy, batchSize);
+    }
+
+    /**
+     * Grava os projetos em uma tabela com a mesma estrutura da de projetos (usado também pelo benchmark)
+     */
+    public List<UpsertResult> upsert(String table, List<Projeto> projetos, Strategy strategy, int batchSize) {
+        List<Projeto> unicos = deduplicate(projetos);
+        if (unicos.isEmpty()) {
+            return List.of();
+        }
+        int lote = Math.max(1, batchSize);
+        return switch (strategy) {
+            case ROW -> upsertValues(table, unicos, 1);
+            case MULTI_ROW -> upsertValues(table, unicos, Math.min(lote, MAX_PARAMETERS / COLUMN_COUNT));
+            case BATCH, COPY -> upsertStaged(table, unicos, lote, strategy);
+        };
+    }
+
+    /**
+     * Executa o trabalho em um savepoint da transação corrente. Se ele falhar, só o que foi feito no
+     * savepoint é desfeito e a transação continua utilizável (no PostgreSQL um erro aborta a transação
+     * inteira). Fora de uma transação o trabalho é executado diretamente.
+     */
+    public <T> T inSavepoint(Supplier<T> work) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        Savepoint savepoint = jdbcTemplate.execute((ConnectionCallback<Savepoint>) Connection::setSavepoint);
+        T result;
+        try {
+            result = work.get();
+        } catch (RuntimeException e) {
+            try {
+                jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+                    con.rollback(savepoint);
+                    return null;
+                });
+            } catch (RuntimeException rollbackError) {
+                e.addSuppressed(rollbackError);
+            }
+            throw e;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            con.releaseSavepoint(savepoint);
+            return null;
+        });
+        return result;
+    }
+
+    /**
+     * Grava os embeddings dos projetos (por id) em um lote JDBC, sem carregar as entidades
+     */
+    public void updateEmbeddings(List<Projeto> projetos) {
+        jdbcTemplate.batchUpdate("UPDATE " + TABLE + " SET embedding = CAST(? AS vector) WHERE id = ?",
+                projetos, projetos.size(), (ps, projeto) -> {
+                    ps.setString(1, Arrays.toString(projeto.getEmbedding()));
+                    ps.setInt(2, projeto.getId());
+                });
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    private List<UpsertResult> upsertValues(String table, List<Projeto> projetos, int lote) {
+        List<UpsertResult> resultados = new ArrayList<>(projetos.size());
+        for (int i = 0; i < projetos.size(); i += lote) {
+            List<Projeto> sublote = projetos.subList(i, Math.min(i + lote, projetos.size()));
+            String dados = "SELECT * FROM (VALUES " + String.join(", ", Collections.nCopies(sublote.size(), ROW_VALUES)) +
+                    ") AS v (" + COLUMNS + ")";
+            resultados.addAll(jdbcTemplate.query(upsertReturning(table, dados), ps -> {
+                int indice = 1;
+                for (Projeto projeto : sublote) {
+                    indice = bind(ps, indice, projeto);
+                }
+            }, RESULT_MAPPER));
+        }
+        return resultados;
+    }
+
+    private List<UpsertResult> upsertStaged(String table, List<Projeto> projetos, int lote, Strategy strategy) {
+        String upsert = upsertReturning(table, FROM_STAGING);
+        String insertStaging = "INSERT INTO " + STAGING_TABLE + " (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        // A tabela de preparo é temporária (por conexão) e só é usada dentro da transação
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.execute("CREATE TEMP TABLE IF NOT EXISTS " + STAGING_TABLE + " (" +
+                    "tipo text, numero integer, ano integer, autor text, autor_search text, " +
+                    "ementa text, palavras_chave text) ON COMMIT DELETE ROWS");
+            List<UpsertResult> resultados = new ArrayList<>(projetos.size());
+            for (int i = 0; i < projetos.size(); i += lote) {
+                List<Projeto> sublote = projetos.subList(i, Math.min(i + lote, projetos.size()));
+                jdbcTemplate.execute("TRUNCATE " + STAGING_TABLE);
+                if (strategy == Strategy.COPY) {
+                    copyToStaging(sublote);
+                } else {
+                    jdbcTemplate.batchUpdate(insertStaging, sublote, sublote.size(), (ps, projeto) -> bind(ps, 1, projeto));
+                }
+                resultados.addAll(jdbcTemplate.query(upsert, RESULT_MAPPER));
+            }
+            return resultados;
+        });
+    }
+
+    private void copyToStaging(List<Projeto> projetos) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            CopyManager copyManager = con.unwrap(PGConnection.class).getCopyAPI();
+            try {
+                copyManager.copyIn("COPY " + STAGING_TABLE + " (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)",
+                        new StringReader(toCsv(projetos)));
+            } catch (IOException e) {
+                throw new SQLException("Erro no COPY para " + STAGING_TABLE + ": " + e.getMessage(), e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Upsert dos dados (um SELECT com as colunas de projetos) que devolve o resultado de cada projeto.
+     * Todas as partes do WITH usam o mesmo snapshot: "anteriores" vê as linhas antes do upsert.
+     */
+    static String upsertReturning(String table, String dados) {
+        return "WITH dados AS (" +
+                "   SELECT s.*, projeto_content_hash(s.autor, s.autor_search, s.ementa, s.palavras_chave) AS content_hash " +
+                "   FROM (" + dados + ") s" +
+                "), " +
+                "anteriores AS (" +
+                "   SELECT p.id, p.tipo, p.numero, p.ano, p.ementa, p.palavras_chave, p.embedding IS NULL AS missing_embedding " +
+                "   FROM " + table + " p " +
+                "   JOIN dados d ON p.tipo = d.tipo AND p.numero = d.numero AND p.ano = d.ano" +
+                "), " +
+                "gravados AS (" +
+                "   INSERT INTO " + table + " AS t (" + COLUMNS + ", content_hash) " +
+                "   SELECT " + COLUMNS + ", content_hash FROM dados" + ON_CONFLICT +
+                "   RETURNING id, tipo, numero, ano, (xmax = 0) AS inserted, ementa, palavras_chave, " +
+                "   embedding IS NULL AS missing_embedding" +
+                ") " +
+                // Projetos com o mesmo content_hash não passam pelo RETURNING: o estado vem de "anteriores"
+                "SELECT COALESCE(g.id, a.id) AS id, d.tipo::text AS tipo, d.numero, d.ano, " +
+                "   COALESCE(g.inserted, false) AS inserted, " +
+                "   g.id IS NOT NULL AS changed, " +
+                "   g.id IS NOT NULL AND (g.inserted OR (a.ementa, a.palavras_chave) IS DISTINCT FROM (g.ementa, g.palavras_chave)) " +
+                "       AS embedding_content_changed, " +
+                "   CASE WHEN g.id IS NOT NULL THEN g.missing_embedding ELSE a.missing_embedding END AS missing_embedding " +
+                "FROM dados d " +
+                "LEFT JOIN anteriores a ON a.tipo = d.tipo AND a.numero = d.numero AND a.ano = d.ano " +
+                "LEFT JOIN gravados g ON g.tipo = d.tipo AND g.numero = d.numero AND g.ano = d.ano";
+    }
+
+    private static int bind(PreparedStatement ps, int indice, Projeto projeto) throws SQLException {
+        ps.setString(indice++, projeto.getTipo().name());
+        ps.setObject(indice++, projeto.getNumero());
+        ps.setObject(indice++, projeto.getAno());
+        ps.setString(indice++, projeto.getAutor());
+        ps.setString(indice++, projeto.getAutorSearch());
+        ps.setString(indice++, projeto.getEmenta());
+        ps.setString(indice++, projeto.getPalavrasChave());
+        return indice;
+    }
+
+    /**
+     * CSV do COPY: valores entre aspas (aspas internas duplicadas); campo vazio sem aspas é NULL
+     */
+    static String toCsv(List<Projeto> projetos) {
+        StringBuilder csv = new StringBuilder(projetos.size() * 256);
+        for (Projeto projeto : projetos) {
+            appendCsv(csv, projeto.getTipo().name()).append(',');
+            appendCsv(csv, projeto.getNumero()).append(',');
+            appendCsv(csv, projeto.getAno()).append(',');
+            appendCsv(csv, projeto.getAutor()).append(',');
+            appendCsv(csv, projeto.getAutorSearch()).append(',');
+            appendCsv(csv, projeto.getEmenta()).append(',');
+            appendCsv(csv, projeto.getPalavrasChave()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static StringBuilder appendCsv(StringBuilder csv, Object valor) {
+        if (valor == null) {
+            return csv;
+        }
+        return csv.append('"').append(valor.toString().replace("\"", "\"\"")).append('"');
+    }
+
+    static List<Projeto> deduplicate(List<Projeto> projetos) {
+        Map<String, Projeto> porChave = new LinkedHashMap<>();
+        for (Projeto projeto : projetos) {
+            porChave.put(projeto.getTipo() + "/" + projeto.getNumero() + "/" + projeto.getAno(), projeto);
+        }
+        return porChave.size() == projetos.size() ? projetos : new ArrayList<>(porChave.values());
+    }
+}
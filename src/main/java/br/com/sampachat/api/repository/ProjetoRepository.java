@@ -31,8 +31,24 @@ public interface ProjetoRepository extends JpaRepository<Projeto, Integer> {
     @Query(value = "SELECT * FROM projetos ORDER BY embedding <=> CAST(:queryVector AS vector) LIMIT 100", nativeQuery = true)
     List<Projeto> searchByEmbedding(@Param("queryVector") String queryVector);
 
+    // Projetos relacionados pré-computados (tabela projeto_vizinhos), na ordem de similaridade
+    @Query(value = "SELECT p.* FROM projeto_vizinhos v " +
+            "CROSS JOIN LATERAL unnest(v.vizinhos) WITH ORDINALITY AS u(vizinho_id, ordem) " +
+            "JOIN projetos p ON p.id = u.vizinho_id " +
+            "WHERE v.projeto_id = :projetoId " +
+            "ORDER BY u.ordem", nativeQuery = true)
+    List<Projeto> findRelacionados(@Param("projetoId") Integer projetoId);
+
     @Query("SELECT DISTINCT p.autor FROM Projeto p WHERE p.autor IS NOT NULL")
     List<String> findDistinctAutores();
+
+    // Dados leves de todos os projetos para os índices em memória (sem embedding e ementa)
+    @Query("SELECT p.tipo AS tipo, p.numero AS numero, p.ano AS ano, p.autor AS autor, " +
+            "p.palavrasChave AS palavrasChave FROM Projeto p")
+    List<ProjetoVocabulario> findAllVocabulario();
+
+    @Query("SELECT p.ementa FROM Projeto p WHERE p.ementa IS NOT NULL")
+    List<String> findAllEmentas();
     
     // Verifica se um projeto já existe no banco de dados
     boolean existsByTipoAndNumeroAndAno(TipoProposicao tipo, Integer numero, Integer ano);
@@ -50,6 +66,9 @@ public interface ProjetoRepository extends JpaRepository<Projeto, Integer> {
     @Query("SELECT MAX(p.numero) FROM Projeto p WHERE p.tipo = :tipo AND p.ano = :ano")
     Integer findMaxNumeroByTipoAndAno(@Param("tipo") TipoProposicao tipo, @Param("ano") Integer ano);
     
+    // Quantidade de projetos por tipo e ano (com o número máximo, é a marca d'água local da sonda de sincronização)
+    long countByTipoAndAno(TipoProposicao tipo, Integer ano);
+    
     // Encontra números faltantes na sequência de projetos
     @Query("SELECT p.numero FROM Projeto p WHERE p.tipo = :tipo AND p.ano = :ano ORDER BY p.numero")
     List<Integer> findAllNumerosByTipoAndAno(@Param("tipo") TipoProposicao tipo, @Param("ano") Integer ano);
@@ -73,7 +92,7 @@ public interface ProjetoRepository extends JpaRepository<Projeto, Integer> {
         "RETURNING id", nativeQuery = true)
     Integer upsertProjeto(@Param("projeto") Projeto projeto);
     
-    // Método Upsert em lote para melhor performance
+    // Upsert de um único projeto (a sincronização grava em massa com ProjetoBulkUpsert)
     @Modifying
     @Transactional
     @Query(value = 
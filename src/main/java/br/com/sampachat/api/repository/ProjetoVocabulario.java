@@ -0,0 +1,15 @@
+package br.com.sampachat.api.repository;
+
+import br.com.sampachat.api.model.TipoProposicao;
+
+/**
+ * Projeção leve de um projeto com apenas os campos usados para montar os
+ * índices em memória (sugestões, correção ortográfica), sem carregar o embedding.
+ */
+public interface ProjetoVocabulario {
+    TipoProposicao getTipo();
+    Integer getNumero();
+    Integer getAno();
+    String getAutor();
+    String getPalavrasChave();
+}
@@ -0,0 +1,75 @@
+package br.com.sampachat.api.repository;
+
+import br.com.sampachat.api.model.TipoProposicao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Checkpoints da sincronização completa (tabela sync_checkpoints, ver V9).
+ * <p>
+ * Gravados com o JdbcTemplate na transação em andamento: chamados junto com o upsert de uma janela,
+ * o checkpoint e os projetos são confirmados (ou desfeitos) juntos.
+ */
+@Repository
+public class SyncCheckpointRepository {
+
+    /**
+     * Progresso de um (tipo, ano)
+     *
+     * @param ultimoNumero fim da última janela concluída
+     * @param limite       maior número a buscar em janelas (null se desconhecido)
+     * @param restantes    projetos ainda não recebidos segundo o SPLegis (null se desconhecido)
+     * @param concluido    a busca do (tipo, ano) terminou sem janelas com falha
+     */
+    public record Checkpoint(TipoProposicao tipo, int ano, int ultimoNumero, Integer limite, Integer restantes,
+                             boolean concluido, LocalDateTime atualizadoEm) {
+    }
+
+    private static final RowMapper<Checkpoint> MAPPER = (rs, rowNum) -> new Checkpoint(
+            TipoProposicao.valueOf(rs.getString("tipo")),
+            rs.getInt("ano"),
+            rs.getInt("ultimo_numero"),
+            rs.getObject("limite", Integer.class),
+            rs.getObject("restantes", Integer.class),
+            rs.getBoolean("concluido"),
+            rs.getTimestamp("atualizado_em").toLocalDateTime());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public Optional<Checkpoint> find(TipoProposicao tipo, int ano) {
+        List<Checkpoint> checkpoints = jdbcTemplate.query(
+                "SELECT tipo::text AS tipo, ano, ultimo_numero, limite, restantes, concluido, atualizado_em " +
+                "FROM sync_checkpoints WHERE tipo = CAST(? AS tp_proposicao) AND ano = ?",
+                MAPPER, tipo.name(), ano);
+        return checkpoints.stream().findFirst();
+    }
+
+    /**
+     * Registra a última janela concluída (a busca do tipo e ano continua em andamento)
+     */
+    public void save(TipoProposicao tipo, int ano, int ultimoNumero, Integer limite, Integer restantes) {
+        jdbcTemplate.update(
+                "INSERT INTO sync_checkpoints (tipo, ano, ultimo_numero, limite, restantes, concluido, atualizado_em) " +
+                "VALUES (CAST(? AS tp_proposicao), ?, ?, ?, ?, FALSE, now()) " +
+                "ON CONFLICT (tipo, ano) DO UPDATE SET ultimo_numero = EXCLUDED.ultimo_numero, " +
+                "limite = EXCLUDED.limite, restantes = EXCLUDED.restantes, concluido = FALSE, atualizado_em = now()",
+                tipo.name(), ano, ultimoNumero, limite, restantes);
+    }
+
+    /**
+     * Marca a busca do tipo e ano como concluída: a próxima sincronização começa do zero (pela cabeça)
+     */
+    public void complete(TipoProposicao tipo, int ano) {
+        jdbcTemplate.update(
+                "UPDATE sync_checkpoints SET concluido = TRUE, atualizado_em = now() " +
+                "WHERE tipo = CAST(? AS tp_proposicao) AND ano = ?",
+                tipo.name(), ano);
+    }
+}
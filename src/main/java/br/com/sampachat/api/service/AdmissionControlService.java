@@ -0,0 +1,139 @@
+package br.com.sampachat.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Controle de admissão das buscas.
+ * <p>
+ * Dois portões limitam o trabalho concorrente: "search" (buscas em andamento, e portanto conexões
+ * do pool usadas por buscas) e "inference" (chamadas ao modelo de embeddings). Cada portão tem um
+ * número de permissões, uma fila limitada e um tempo máximo de espera; acima disso a requisição é
+ * recusada imediatamente com ServiceOverloadedException em vez de acumular threads bloqueadas.
+ */
+@Service
+public class AdmissionControlService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlService.class);
+
+    @Value("${app.admission.search.max-concurrent:8}")
+    private int searchMaxConcurrent;
+
+    @Value("${app.admission.search.max-queue:50}")
+    private int searchMaxQueue;
+
+    @Value("${app.admission.search.max-wait-ms:3000}")
+    private long searchMaxWaitMs;
+
+    @Value("${app.admission.inference.max-concurrent:2}")
+    private int inferenceMaxConcurrent;
+
+    @Value("${app.admission.inference.max-queue:20}")
+    private int inferenceMaxQueue;
+
+    @Value("${app.admission.inference.max-wait-ms:5000}")
+    private long inferenceMaxWaitMs;
+
+    @Value("${app.admission.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    private Gate searchGate;
+    private Gate inferenceGate;
+
+    @PostConstruct
+    public void init() {
+        searchGate = new Gate("search", searchMaxConcurrent, searchMaxQueue, searchMaxWaitMs);
+        inferenceGate = new Gate("inference", inferenceMaxConcurrent, inferenceMaxQueue, inferenceMaxWaitMs);
+        logger.info("Controle de admissão: {} buscas simultâneas (fila {}), {} inferências simultâneas (fila {})",
+                searchMaxConcurrent, searchMaxQueue, inferenceMaxConcurrent, inferenceMaxQueue);
+    }
+
+    /**
+     * Admite uma busca. A permissão deve ser liberada (close) quando a busca terminar.
+     */
+    public Permit admitSearch() {
+        return searchGate.acquire(searchGate.maxWaitMs);
+    }
+
+    /**
+     * Admite uma busca sem esperar na fila: sem permissão livre, recusa na hora.
+     * Usado onde a espera prenderia a thread do Tomcat (abertura do stream SSE).
+     */
+    public Permit tryAdmitSearch() {
+        return searchGate.acquire(0);
+    }
+
+    /**
+     * Admite uma chamada de inferência do modelo de embeddings feita por uma busca.
+     */
+    public Permit admitInference() {
+        return inferenceGate.acquire(inferenceGate.maxWaitMs);
+    }
+
+    /**
+     * Permissão obtida de um portão. Liberar mais de uma vez não tem efeito.
+     */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final class Gate {
+
+        private final String name;
+        private final Semaphore permits;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final int maxQueue;
+        private final long maxWaitMs;
+
+        Gate(String name, int maxConcurrent, int maxQueue, long maxWaitMs) {
+            this.name = name;
+            this.permits = new Semaphore(Math.max(1, maxConcurrent), true);
+            this.maxQueue = Math.max(0, maxQueue);
+            this.maxWaitMs = Math.max(0, maxWaitMs);
+        }
+
+        Permit acquire(long waitMs) {
+            if (!permits.tryAcquire()) {
+                if (waitMs <= 0) {
+                    throw overloaded("nenhuma permissão livre");
+                }
+                // Fila cheia: recusa sem esperar
+                if (waiting.incrementAndGet() > maxQueue) {
+                    waiting.decrementAndGet();
+                    throw overloaded("fila cheia");
+                }
+                try {
+                    if (!permits.tryAcquire(waitMs, TimeUnit.MILLISECONDS)) {
+                        throw overloaded("tempo de espera esgotado");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw overloaded("espera interrompida");
+                } finally {
+                    waiting.decrementAndGet();
+                }
+            }
+
+            AtomicInteger released = new AtomicInteger();
+            return () -> {
+                if (released.getAndIncrement() == 0) {
+                    permits.release();
+                }
+            };
+        }
+
+        private ServiceOverloadedException overloaded(String motivo) {
+            logger.warn("Admissão recusada no portão '{}': {} ({} em espera)", name, motivo, waiting.get());
+            return new ServiceOverloadedException(
+                    "Serviço sobrecarregado, tente novamente em instantes", retryAfterSeconds);
+        }
+    }
+}
@@ -38,6 +38,9 @@ public class CargaDadosService {
     // Não precisamos mais construir links manualmente
     @Autowired
     private LinkBuilderService linkBuilderService;
+    
+    @Autowired
+    private DataVersionService dataVersionService;
 
     // Padrão para extrair TIPO, NÚMERO e ANO da primeira coluna (ex: "PL 680/2025")
     private final Pattern padraoProjeto = Pattern.compile("(\\w+)\\s(\\d+)/(\\d{4})");
@@ -230,6 +233,8 @@ public class CargaDadosService {
             }
         }
 
+        // Invalida resultados de busca em cache calculados sem estes embeddings
+        dataVersionService.bump();
         System.out.println("Processamento de embeddings concluído.");
     }
 }
\ No newline at end of file
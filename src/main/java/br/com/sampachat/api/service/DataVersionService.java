@@ -0,0 +1,110 @@
+package br.com.sampachat.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão monotônica dos dados pesquisáveis.
+ * <p>
+ * A sincronização incrementa a versão sempre que projetos ou embeddings mudam. Entradas de cache
+ * marcadas com uma versão anterior deixam de valer, então a invalidação é exata e custa uma
+ * comparação de números. A versão fica no banco para ser compartilhada entre instâncias; cada
+ * instância a relê periodicamente e a incrementa localmente na hora em que sincroniza.
+ */
+@Service
+public class DataVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataVersionService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicLong current = new AtomicLong(0);
+    private TransactionTemplate novaTransacao;
+
+    @PostConstruct
+    public void init() {
+        novaTransacao = new TransactionTemplate(transactionManager);
+        novaTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        refresh();
+    }
+
+    /**
+     * Versão atual dos dados, sem acesso ao banco
+     */
+    public long current() {
+        return current.get();
+    }
+
+    /**
+     * Incrementa a versão após uma alteração nos dados e descarta o cache compartilhado antigo.
+     * Dentro de uma transação, o incremento acontece só após o commit: antes disso uma busca
+     * ainda veria os dados antigos e os gravaria no cache com a versão nova.
+     * <p>
+     * O incremento roda sempre em uma transação própria (REQUIRES_NEW). No afterCommit a conexão da
+     * transação que terminou ainda está associada à thread, sem autocommit: comandos executados nela
+     * nunca seriam confirmados e seriam desfeitos quando a conexão voltasse ao pool.
+     */
+    public void bump() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment();
+                }
+            });
+        } else {
+            increment();
+        }
+    }
+
+    private long increment() {
+        try {
+            long nova = novaTransacao.execute(status -> {
+                Long versao = jdbcTemplate.queryForObject(
+                        "UPDATE search_data_version SET versao = versao + 1, atualizado_em = now() WHERE id = 1 RETURNING versao",
+                        Long.class);
+                long valor = current.accumulateAndGet(versao != null ? versao : 0, Math::max);
+                jdbcTemplate.update("DELETE FROM search_result_cache WHERE data_version < ?", valor);
+                return valor;
+            });
+            logger.info("Versão dos dados de busca incrementada para {}", nova);
+            return nova;
+        } catch (Exception e) {
+            // Sem o banco, ao menos o cache local desta instância é invalidado
+            long nova = current.incrementAndGet();
+            logger.error("Erro ao incrementar a versão dos dados no banco, usando versão local {}: {}", nova, e.getMessage());
+            return nova;
+        }
+    }
+
+    /**
+     * Relê a versão do banco para enxergar sincronizações feitas por outras instâncias
+     */
+    @Scheduled(fixedDelayString = "${app.search.data-version.refresh-ms:5000}", initialDelayString = "${app.search.data-version.refresh-ms:5000}")
+    public void refresh() {
+        try {
+            Long versao = jdbcTemplate.queryForObject("SELECT versao FROM search_data_version WHERE id = 1", Long.class);
+            if (versao != null) {
+                current.accumulateAndGet(versao, Math::max);
+            }
+        } catch (Exception e) {
+            logger.warn("Não foi possível ler a versão dos dados de busca: {}", e.getMessage());
+        }
+    }
+}
@@ -4,18 +4,28 @@ import ai.djl.inference.Predictor;
 import ai.djl.repository.zoo.Criteria;
 import ai.djl.repository.zoo.ZooModel;
 import ai.djl.translate.TranslateException;
+import br.com.sampachat.api.jfr.EmbeddingBatchEvent;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 // Nenhum import da ProgressBar é mais necessário
 
 @Service
 public class EmbeddingService {
 
-    private Predictor<String[], float[][]> predictor;
+    // Predictor do DJL não é thread-safe: cada chamada empresta um predictor exclusivo deste pool
+    @Value("${app.embedding.predictors:2}")
+    private int predictorCount;
+
+    private final List<Predictor<String[], float[][]>> predictors = new ArrayList<>();
+    private BlockingQueue<Predictor<String[], float[][]>> availablePredictors;
     private ZooModel<String[], float[][]> model;
 
     @PostConstruct
@@ -32,23 +42,51 @@ public class EmbeddingService {
                 .build();
 
         this.model = criteria.loadModel();
-        this.predictor = model.newPredictor();
+        int count = Math.max(1, predictorCount);
+        this.availablePredictors = new ArrayBlockingQueue<>(count);
+        for (int i = 0; i < count; i++) {
+            Predictor<String[], float[][]> predictor = model.newPredictor();
+            predictors.add(predictor);
+            availablePredictors.add(predictor);
+        }
 
-        System.out.println("Modelo de embedding carregado com sucesso.");
+        System.out.println("Modelo de embedding carregado com sucesso (" + count + " predictors).");
     }
 
     public float[][] generateEmbeddings(List<String> texts) throws TranslateException {
         if (texts == null || texts.isEmpty()) {
             return new float[0][];
         }
-        return predictor.predict(texts.toArray(new String[0]));
+        Predictor<String[], float[][]> predictor;
+        try {
+            predictor = availablePredictors.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslateException("Interrompido aguardando um predictor livre", e);
+        }
+        EmbeddingBatchEvent event = new EmbeddingBatchEvent();
+        event.begin();
+        try {
+            return predictor.predict(texts.toArray(new String[0]));
+        } finally {
+            availablePredictors.add(predictor);
+            event.end();
+            if (event.shouldCommit()) {
+                event.size = texts.size();
+                for (String text : texts) {
+                    int tokens = text == null || text.isBlank() ? 0 : text.trim().split("\\s+").length;
+                    event.tokens += tokens;
+                    event.maxTokens = Math.max(event.maxTokens, tokens);
+                    event.chars += text == null ? 0 : text.length();
+                }
+                event.commit();
+            }
+        }
     }
 
     @PreDestroy
     public void destroy() {
-        if (predictor != null) {
-            predictor.close();
-        }
+        predictors.forEach(Predictor::close);
         if (model != null) {
             model.close();
         }
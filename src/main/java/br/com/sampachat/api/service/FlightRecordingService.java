@@ -0,0 +1,110 @@
+package br.com.sampachat.api.service;
+
+import br.com.sampachat.api.jfr.EmbeddingBatchEvent;
+import br.com.sampachat.api.jfr.SearchRequestEvent;
+import br.com.sampachat.api.jfr.SplegisFetchEvent;
+import br.com.sampachat.api.jfr.UpsertBatchEvent;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Gravações do Java Flight Recorder sob demanda (endpoints administrativos).
+ * <p>
+ * Cada gravação usa as configurações "profile" do JDK mais os eventos da aplicação (busca,
+ * lote de embeddings, requisição ao SPLegis e lote de upsert) e tem duração limitada: ao fim
+ * do prazo, ou quando parada antes, é gravada em um arquivo .jfr no diretório configurado.
+ * Apenas uma gravação por vez.
+ */
+@Service
+public class FlightRecordingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecordingService.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final List<Class<? extends Event>> APP_EVENTS = List.of(
+            SearchRequestEvent.class, EmbeddingBatchEvent.class, SplegisFetchEvent.class, UpsertBatchEvent.class);
+
+    @Value("${app.jfr.directory:${java.io.tmpdir}}")
+    private String directory;
+
+    @Value("${app.jfr.max-duration-seconds:600}")
+    private long maxDurationSeconds;
+
+    private Recording recording;
+
+    @PostConstruct
+    public void init() {
+        // Registra os eventos para que apareçam em gravações iniciadas por fora (ex: jcmd JFR.start)
+        APP_EVENTS.forEach(FlightRecorder::register);
+    }
+
+    /**
+     * Inicia uma gravação com duração limitada
+     *
+     * @return caminho do arquivo onde a gravação será escrita
+     * @throws IllegalStateException se já houver uma gravação em andamento
+     */
+    public synchronized Path start(long durationSeconds) throws IOException, ParseException {
+        if (isRecording()) {
+            throw new IllegalStateException("Já existe uma gravação JFR em andamento: " + recording.getDestination());
+        }
+        if (recording != null) {
+            // Gravação anterior já encerrada pelo prazo (e escrita no arquivo): libera os recursos
+            recording.close();
+        }
+        long duracao = Math.max(1, Math.min(durationSeconds, maxDurationSeconds));
+        Path destino = Path.of(directory).resolve("sampachat-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+        Files.createDirectories(destino.getParent());
+
+        Recording nova = new Recording(Configuration.getConfiguration("profile"));
+        nova.setName("sampachat-admin");
+        for (Class<? extends Event> evento : APP_EVENTS) {
+            nova.enable(evento).withoutThreshold();
+        }
+        nova.setToDisk(true);
+        nova.setDestination(destino);
+        nova.setDuration(Duration.ofSeconds(duracao));
+        nova.start();
+        recording = nova;
+        logger.info("Gravação JFR iniciada por {} s em {}", duracao, destino);
+        return destino;
+    }
+
+    /**
+     * Para a gravação em andamento, que é gravada no arquivo de destino
+     *
+     * @return caminho do arquivo gravado, ou null se não havia gravação em andamento
+     */
+    public synchronized Path stop() {
+        if (!isRecording()) {
+            return null;
+        }
+        Path destino = recording.getDestination();
+        // Com destino definido, stop() escreve o arquivo
+        recording.stop();
+        recording.close();
+        recording = null;
+        logger.info("Gravação JFR encerrada: {}", destino);
+        return destino;
+    }
+
+    public synchronized boolean isRecording() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.sampachat.api.service;
+
+/**
+ * Exceção lançada quando o cursor da paginação keyset é malformado ou não se aplica à busca.
+ * O controller a converte em 400 com a mensagem, que é sempre escrita aqui no serviço.
+ */
+public class InvalidCursorException extends RuntimeException {
+    
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+    
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,211 @@
+package br.com.sampachat.api.service;
+
+import br.com.sampachat.api.dto.ProjetoResponseDTO;
+import br.com.sampachat.api.model.Projeto;
+import br.com.sampachat.api.repository.ProjetoRepository;
+import br.com.sampachat.api.util.KnnGraph;
+import br.com.sampachat.api.util.KnnGraph.Neighbors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serviço que mantém o grafo pré-computado de "projetos relacionados" (k vizinhos mais próximos
+ * por similaridade de cosseno dos embeddings) na tabela {@code projeto_vizinhos}.
+ * <p>
+ * O cálculo é feito em memória, em lote, a partir dos embeddings já armazenados. A exibição de
+ * projetos relacionados vira então uma única consulta por chave primária, sem consulta vetorial
+ * por card exibido.
+ */
+@Service
+public class ProjetosRelacionadosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjetosRelacionadosService.class);
+    private static final int DIMENSION = 384;
+    private static final int WRITE_BATCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProjetoRepository projetoRepository;
+
+    @Value("${app.relacionados.k:10}")
+    private int k;
+
+    // Evita duas execuções simultâneas do cálculo, que é pesado em CPU e memória
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * Retorna os projetos relacionados a um projeto, em ordem decrescente de similaridade
+     */
+    public List<ProjetoResponseDTO> findRelacionados(Integer projetoId) {
+        return projetoRepository.findRelacionados(projetoId).stream()
+            .map(ProjetoResponseDTO::new)
+            .toList();
+    }
+
+    /**
+     * Após cada sincronização, calcula os vizinhos dos projetos recém-embeddados
+     */
+    @EventListener
+    public void onProjetosSincronizados(ProjetosSincronizadosEvent event) {
+        try {
+            rebuild(false);
+        } catch (Exception e) {
+            // Já registrado em rebuild; não deve impedir os demais ouvintes do evento
+        }
+    }
+
+    /**
+     * Remove os vizinhos calculados para projetos cujo embedding foi regerado, para que sejam
+     * recalculados na próxima execução incremental (junto com as listas de outros projetos que
+     * apontam para eles, ver {@link KnnGraph#updateIncremental})
+     */
+    public void invalidate(Collection<Integer> projetoIds) {
+        if (projetoIds.isEmpty()) return;
+        jdbcTemplate.batchUpdate("DELETE FROM projeto_vizinhos WHERE projeto_id = ?",
+                projetoIds.stream().map(id -> new Object[]{id}).toList());
+    }
+
+    /**
+     * Recalcula o grafo de vizinhos.
+     *
+     * @param full se true, recalcula todos os projetos; caso contrário, apenas os projetos que
+     *             ainda não têm vizinhos, atualizando as listas existentes afetadas por eles
+     * @return número de projetos cuja lista de vizinhos foi gravada, ou -1 se já havia uma execução em andamento
+     */
+    public int rebuild(boolean full) {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Cálculo de projetos relacionados já está em andamento. Ignorando nova solicitação.");
+            return -1;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            KnnGraph graph = loadEmbeddings();
+            if (graph.size() < 2) {
+                logger.info("Embeddings insuficientes para calcular projetos relacionados");
+                return 0;
+            }
+            long loaded = System.currentTimeMillis();
+
+            Map<Integer, Neighbors> existing = full ? Map.of() : loadExistingNeighbors();
+
+            // Novos e regerados contra todos; listas com arestas para embeddings antigos são recalculadas
+            Map<Integer, Neighbors> toWrite = graph.updateIncremental(existing, k);
+            if (toWrite.isEmpty()) {
+                logger.info("Nenhum projeto novo para calcular vizinhos");
+                return 0;
+            }
+            long computed = System.currentTimeMillis();
+
+            saveNeighbors(toWrite);
+
+            logger.info("Projetos relacionados ({}): {} projetos, {} listas gravadas | carga {} ms, cálculo {} ms, gravação {} ms",
+                    full ? "completo" : "incremental", graph.size(), toWrite.size(),
+                    loaded - start, computed - loaded, System.currentTimeMillis() - computed);
+            return toWrite.size();
+        } catch (Exception e) {
+            logger.error("Erro ao calcular projetos relacionados: {}", e.getMessage(), e);
+            throw e;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Carrega todos os embeddings em uma única matriz contígua
+     */
+    private KnnGraph loadEmbeddings() {
+        List<Integer> ids = new ArrayList<>();
+        List<float[]> vectors = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, embedding::text FROM projetos WHERE embedding IS NOT NULL ORDER BY id", rs -> {
+            float[] vector = parseVector(rs.getString(2));
+            if (vector.length == DIMENSION) {
+                ids.add(rs.getInt(1));
+                vectors.add(vector);
+            }
+        });
+
+        float[] matrix = new float[vectors.size() * DIMENSION];
+        for (int i = 0; i < vectors.size(); i++) {
+            System.arraycopy(vectors.get(i), 0, matrix, i * DIMENSION, DIMENSION);
+        }
+        return new KnnGraph(ids.stream().mapToInt(Integer::intValue).toArray(), matrix, DIMENSION);
+    }
+
+    private Map<Integer, Neighbors> loadExistingNeighbors() {
+        Map<Integer, Neighbors> existing = new HashMap<>();
+        jdbcTemplate.query("SELECT projeto_id, vizinhos, similaridades FROM projeto_vizinhos", rs -> {
+            Integer[] vizinhos = (Integer[]) rs.getArray(2).getArray();
+            Float[] similaridades = (Float[]) rs.getArray(3).getArray();
+            int[] ids = new int[vizinhos.length];
+            float[] sims = new float[similaridades.length];
+            for (int i = 0; i < ids.length; i++) ids[i] = vizinhos[i];
+            for (int i = 0; i < sims.length; i++) sims[i] = similaridades[i];
+            existing.put(rs.getInt(1), new Neighbors(ids, sims, k));
+        });
+        return existing;
+    }
+
+    private void saveNeighbors(Map<Integer, Neighbors> neighbors) {
+        List<Map.Entry<Integer, Neighbors>> entries = new ArrayList<>(neighbors.entrySet());
+        String sql = "INSERT INTO projeto_vizinhos (projeto_id, vizinhos, similaridades, atualizado_em) " +
+                "VALUES (?, ?, ?, now()) " +
+                "ON CONFLICT (projeto_id) DO UPDATE SET " +
+                "vizinhos = EXCLUDED.vizinhos, similaridades = EXCLUDED.similaridades, atualizado_em = EXCLUDED.atualizado_em";
+
+        for (int i = 0; i < entries.size(); i += WRITE_BATCH_SIZE) {
+            List<Map.Entry<Integer, Neighbors>> lote = entries.subList(i, Math.min(i + WRITE_BATCH_SIZE, entries.size()));
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int index) throws SQLException {
+                    Map.Entry<Integer, Neighbors> entry = lote.get(index);
+                    int[] ids = entry.getValue().getIds();
+                    float[] sims = entry.getValue().getSimilarities();
+                    Integer[] boxedIds = new Integer[ids.length];
+                    Float[] boxedSims = new Float[sims.length];
+                    for (int j = 0; j < ids.length; j++) boxedIds[j] = ids[j];
+                    for (int j = 0; j < sims.length; j++) boxedSims[j] = sims[j];
+
+                    Array idArray = ps.getConnection().createArrayOf("integer", boxedIds);
+                    Array simArray = ps.getConnection().createArrayOf("real", boxedSims);
+                    ps.setInt(1, entry.getKey());
+                    ps.setArray(2, idArray);
+                    ps.setArray(3, simArray);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return lote.size();
+                }
+            });
+        }
+    }
+
+    /**
+     * Converte a representação textual do pgvector ("[0.1,0.2,...]") em um array
+     */
+    private float[] parseVector(String text) {
+        if (text == null || text.length() < 2) return new float[0];
+        String body = text.substring(1, text.length() - 1);
+        if (body.isBlank()) return new float[0];
+        String[] parts = body.split(",");
+        float[] vector = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            vector[i] = Float.parseFloat(parts[i]);
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.sampachat.api.service;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento publicado ao final de uma sincronização bem-sucedida com o SPLegis.
+ * Componentes que mantêm dados derivados da tabela de projetos (índices em memória,
+ * caches) devem escutá-lo para se reconstruir.
+ */
+@Getter
+public class ProjetosSincronizadosEvent {
+
+    private final LocalDateTime timestamp;
+
+    public ProjetosSincronizadosEvent(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,121 @@
+package br.com.sampachat.api.service;
+
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sinal de cancelamento de uma busca em andamento.
+ * <p>
+ * O controller cancela o sinal quando o cliente SSE desconecta. A busca verifica o sinal entre
+ * as etapas (evitando inferência e consultas que ninguém vai receber) e registra a conexão JDBC
+ * enquanto uma consulta está em execução, para que o cancelamento interrompa a consulta no
+ * próprio PostgreSQL.
+ * <p>
+ * attach, detach e o cancelamento da consulta usam o mesmo lock: o cancelamento só é enviado enquanto
+ * a conexão está registrada, e o detach (feito antes de a conexão voltar ao pool) espera o envio
+ * terminar. Assim o cancelamento nunca atinge a consulta de outra requisição na mesma conexão.
+ */
+public class SearchCancellation {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchCancellation.class);
+
+    private static final SearchCancellation NONE = new SearchCancellation() {
+        @Override
+        public void cancel() {
+            // Buscas síncronas não são canceláveis
+        }
+
+        @Override
+        public void onCancel(Runnable listener) {
+            // Nunca é cancelado: não guarda ações
+        }
+    };
+
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private final Object connectionLock = new Object();
+    // Protegido por connectionLock
+    private Connection activeConnection;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Sinal que nunca é cancelado, para buscas sem cliente a ser monitorado
+     */
+    public static SearchCancellation none() {
+        return NONE;
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * Cancela a busca e interrompe a consulta SQL em execução, se houver
+     */
+    public void cancel() {
+        if (!cancelled.compareAndSet(false, true)) return;
+
+        listeners.forEach(Runnable::run);
+
+        synchronized (connectionLock) {
+            if (activeConnection == null) return;
+            try {
+                activeConnection.unwrap(PGConnection.class).cancelQuery();
+                logger.info("Consulta SQL cancelada após desconexão do cliente");
+            } catch (SQLException e) {
+                logger.debug("Não foi possível cancelar a consulta em andamento: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Registra uma ação executada no cancelamento (imediatamente, se já estiver cancelado)
+     */
+    public void onCancel(Runnable listener) {
+        AtomicBoolean ran = new AtomicBoolean(false);
+        Runnable once = () -> {
+            if (ran.compareAndSet(false, true)) listener.run();
+        };
+        listeners.add(once);
+        if (isCancelled()) {
+            once.run();
+        }
+    }
+
+    /**
+     * Interrompe a busca se ela já foi cancelada
+     */
+    public void throwIfCancelled() {
+        if (isCancelled()) {
+            throw new SearchCancelledException("Busca cancelada pelo cliente");
+        }
+    }
+
+    /**
+     * Registra a conexão que executará as próximas consultas da busca
+     */
+    void attach(Connection connection) {
+        if (this == NONE) return;
+        synchronized (connectionLock) {
+            // Já cancelada: não registra, a busca é interrompida antes da consulta
+            if (isCancelled()) return;
+            this.activeConnection = connection;
+        }
+    }
+
+    /**
+     * Libera a conexão; deve ser chamado antes de ela voltar ao pool
+     */
+    void detach() {
+        if (this == NONE) return;
+        synchronized (connectionLock) {
+            this.activeConnection = null;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.sampachat.api.service;
+
+/**
+ * Exceção lançada quando uma busca é abandonada pelo cliente (ex: conexão SSE encerrada)
+ */
+public class SearchCancelledException extends RuntimeException {
+    
+    public SearchCancelledException(String message) {
+        super(message);
+    }
+}
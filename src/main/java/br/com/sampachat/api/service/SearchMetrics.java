@@ -0,0 +1,139 @@
+package br.com.sampachat.api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Métricas (Micrometer) das etapas da busca, expostas em /prometheus.
+ * <p>
+ * sampachat.search.stage: duração de cada etapa (tag stage), com histograma para percentis.
+ * sampachat.search.candidates: tamanho dos conjuntos de candidatos (tag set).
+ * sampachat.search.results: resultados entregues por canal e tipo (tags channel e type).
+ * Todas as tags têm valores de um conjunto fixo, para manter a cardinalidade baixa.
+ */
+@Service
+public class SearchMetrics {
+
+    public enum Stage {
+        FILTER_EXTRACTION("filter_extraction"),
+        FILTER_SQL("filter_sql"),
+        EXACT_SQL("exact_sql"),
+        EMBEDDING("embedding"),
+        SEMANTIC_SQL("semantic_sql"),
+        RANKING("ranking"),
+        PHRASE_FILTER("phrase_filter"),
+        DTO_CONVERSION("dto_conversion");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    public enum CandidateSet {
+        FILTERED("filtered"),
+        EXACT("exact"),
+        SEMANTIC("semantic"),
+        FINAL("final");
+
+        private final String tag;
+
+        CandidateSet(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<CandidateSet, DistributionSummary> candidateSummaries = new EnumMap<>(CandidateSet.class);
+
+    @PostConstruct
+    public void init() {
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("sampachat.search.stage")
+                    .description("Duração de cada etapa da busca")
+                    .tag("stage", stage.tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        for (CandidateSet set : CandidateSet.values()) {
+            candidateSummaries.put(set, DistributionSummary.builder("sampachat.search.candidates")
+                    .description("Quantidade de projetos em cada conjunto de candidatos da busca")
+                    .baseUnit("projetos")
+                    .tag("set", set.tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Executa e cronometra uma etapa
+     */
+    public <T> T time(Stage stage, Supplier<T> work) {
+        Timer.Sample sample = start();
+        try {
+            return work.get();
+        } finally {
+            stop(sample, stage);
+        }
+    }
+
+    /**
+     * Início da medição de uma etapa que não cabe em um Supplier (ex: lança exceção verificada)
+     */
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stop(Timer.Sample sample, Stage stage) {
+        long nanos = sample.stop(stageTimers.get(stage));
+        // Em modo debug a duração também vai para o explain da busca
+        SearchTrace trace = SearchTrace.current();
+        if (trace != null) {
+            trace.stage(stage.tag, nanos);
+        }
+    }
+
+    public void recordCandidates(CandidateSet set, int size) {
+        candidateSummaries.get(set).record(size);
+        SearchTrace trace = SearchTrace.current();
+        if (trace != null) {
+            trace.candidates(set.tag, size);
+        }
+    }
+
+    /**
+     * Conta um resultado entregue
+     *
+     * @param channel    "paged", "stream" ou "cursor"
+     * @param resultType tipo do resultado (filter_only, exact, partial, complete, error)
+     */
+    public void recordResult(String channel, String resultType) {
+        Counter.builder("sampachat.search.results")
+                .description("Resultados de busca entregues, por canal e tipo")
+                .tag("channel", channel)
+                .tag("type", resultType)
+                .register(meterRegistry)
+                .increment();
+    }
+}
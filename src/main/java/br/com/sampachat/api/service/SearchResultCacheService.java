@@ -0,0 +1,121 @@
+package br.com.sampachat.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.sql.Array;
+import java.util.Arrays;
+
+/**
+ * Cache da lista ranqueada de ids de cada busca canônica.
+ * <p>
+ * Camada local com política W-TinyLFU (Caffeine), que mantém as buscas populares mesmo sob
+ * rajadas de buscas únicas, e camada compartilhada opcional em uma tabela UNLOGGED do
+ * PostgreSQL para implantações com várias instâncias. Cada entrada guarda a versão dos dados
+ * em que foi calculada e só é usada enquanto essa versão for a atual.
+ */
+@Service
+public class SearchResultCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchResultCacheService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.search.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search.cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${app.search.cache.shared.enabled:false}")
+    private boolean sharedEnabled;
+
+    private Cache<String, CachedRanking> local;
+
+    @PostConstruct
+    public void init() {
+        local = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Lista ranqueada de ids calculada na versão de dados informada, ou null se não houver
+     */
+    public int[] get(String key, long dataVersion) {
+        if (!enabled) return null;
+
+        CachedRanking cached = local.getIfPresent(key);
+        if (cached != null && cached.dataVersion() == dataVersion) {
+            return cached.rankedIds();
+        }
+        if (!sharedEnabled) return null;
+
+        int[] shared = getShared(key, dataVersion);
+        if (shared != null) {
+            local.put(key, new CachedRanking(dataVersion, shared));
+        }
+        return shared;
+    }
+
+    public void put(String key, long dataVersion, int[] rankedIds) {
+        if (!enabled) return;
+
+        // Uma entrada mais nova (de outra thread) não é sobrescrita por uma calculada em versão antiga
+        local.asMap().merge(key, new CachedRanking(dataVersion, rankedIds),
+                (atual, nova) -> nova.dataVersion() >= atual.dataVersion() ? nova : atual);
+        if (sharedEnabled) {
+            putShared(key, dataVersion, rankedIds);
+        }
+    }
+
+    public long size() {
+        return local.estimatedSize();
+    }
+
+    private int[] getShared(String key, long dataVersion) {
+        try {
+            return jdbcTemplate.query(
+                    "SELECT ranked_ids FROM search_result_cache WHERE cache_key = ? AND data_version = ?",
+                    rs -> {
+                        if (!rs.next()) return null;
+                        Integer[] ids = (Integer[]) rs.getArray(1).getArray();
+                        return Arrays.stream(ids).mapToInt(Integer::intValue).toArray();
+                    },
+                    key, dataVersion);
+        } catch (Exception e) {
+            logger.warn("Erro ao ler o cache compartilhado de busca: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void putShared(String key, long dataVersion, int[] rankedIds) {
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO search_result_cache (cache_key, data_version, ranked_ids, criado_em) VALUES (?, ?, ?, now()) " +
+                    "ON CONFLICT (cache_key) DO UPDATE SET data_version = EXCLUDED.data_version, " +
+                    "ranked_ids = EXCLUDED.ranked_ids, criado_em = now() " +
+                    "WHERE search_result_cache.data_version <= EXCLUDED.data_version",
+                    ps -> {
+                        Array ids = ps.getConnection().createArrayOf("integer",
+                                Arrays.stream(rankedIds).boxed().toArray(Integer[]::new));
+                        ps.setString(1, key);
+                        ps.setLong(2, dataVersion);
+                        ps.setArray(3, ids);
+                    });
+        } catch (Exception e) {
+            logger.warn("Erro ao gravar no cache compartilhado de busca: {}", e.getMessage());
+        }
+    }
+
+    private record CachedRanking(long dataVersion, int[] rankedIds) {
+    }
+}
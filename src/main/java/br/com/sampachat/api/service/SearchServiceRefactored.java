@@ -1,12 +1,19 @@
 package br.com.sampachat.api.service;
 
+import ai.djl.translate.TranslateException;
+import br.com.sampachat.api.dto.BatchSearchRequestDTO;
 import br.com.sampachat.api.dto.HybridSearchResultDTO;
 import br.com.sampachat.api.dto.ProjetoResponseDTO;
+import br.com.sampachat.api.dto.SearchExplainDTO;
+import br.com.sampachat.api.jfr.SearchRequestEvent;
 import br.com.sampachat.api.model.Projeto;
 import br.com.sampachat.api.model.TipoProposicao;
 import br.com.sampachat.api.repository.ProjetoRepository;
 import br.com.sampachat.api.util.AppConstants;
+import br.com.sampachat.api.util.SingleFlight;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
@@ -14,19 +21,41 @@ import jakarta.persistence.TypedQuery;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.ToString;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.Normalizer;
 import java.time.Year;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.io.IOException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
 public class SearchServiceRefactored {
@@ -36,11 +65,43 @@ public class SearchServiceRefactored {
     //<editor-fold desc="Injeção de Dependências e Constantes">
     @Autowired private EmbeddingService embeddingService;
     @Autowired private ProjetoRepository projetoRepository;
-    @Autowired private LinkBuilderService linkBuilderService;
+    @Autowired private SpellCheckService spellCheckService;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private AdmissionControlService admissionControlService;
+    @Autowired private DataVersionService dataVersionService;
+    @Autowired private SearchResultCacheService searchResultCache;
+    @Autowired private SearchMetrics searchMetrics;
     @PersistenceContext private EntityManager entityManager;
 
     private List<String> todosOsAutores;
     private Set<String> todosOsPartidos;
+    // Índice invertido: token normalizado do nome -> nomes limpos dos autores que o contêm
+    private volatile Map<String, Set<String>> autoresPorToken = Map.of();
+
+    // Limita quantas buscas de um lote consultam o banco ao mesmo tempo
+    @Value("${app.search.batch.parallelism:4}")
+    private int batchParallelism;
+    @Value("${app.search.batch.max-queue:40}")
+    private int batchMaxQueue;
+    private ExecutorService searchBatchExecutor;
+
+    // Orçamento de latência por busca: se a fase semântica não ficar pronta a tempo, devolve só os exatos
+    @Value("${app.search.latency-budget-ms:2500}")
+    private long latencyBudgetMs;
+    @Value("${app.search.semantic.parallelism:8}")
+    private int semanticParallelism;
+    @Value("${app.search.semantic.max-queue:32}")
+    private int semanticMaxQueue;
+    private ExecutorService semanticPhaseExecutor;
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    // Ordenação das buscas apenas por filtros; (ano, numero, id) é também a chave da paginação por cursor
+    private static final String KEYSET_ORDER = "ORDER BY p.ano DESC, p.numero DESC, p.id DESC";
+
+    // Coalescência de buscas idênticas e concorrentes (ex: link compartilhado acessado em rajada)
+    private final SingleFlight<PageWindowKey, HybridSearchResultDTO> pagedSearchFlights = new SingleFlight<>();
+    private final SingleFlight<PageWindowKey, HybridSearchResultDTO> streamingSearchFlights = new SingleFlight<>();
+    private static final long FOLLOWER_POLL_MS = 500;
 
     // Constantes para extração de filtros
     private static final Pattern QUOTE_PATTERN = Pattern.compile("\"([^\"]*)\"");
@@ -51,6 +112,8 @@ public class SearchServiceRefactored {
     private static final Pattern ANO_PATTERN = Pattern.compile("\\b((?:199|20[0-2])\\d)\\b");
     private static final Pattern ANOS_RECENTES_PATTERN = Pattern.compile("últimos (\\d+) anos");
     private static final Pattern NUMERO_PATTERN = Pattern.compile("\\b(\\d{1,4})\\b");
+    // Palavras da consulta como a extração de autores as separa (por espaços)
+    private static final Pattern PALAVRA_PATTERN = Pattern.compile("\\S+");
 
     // Constantes para lógica de negócio
     private static final Set<String> STOPWORDS = Set.of(
@@ -94,6 +157,52 @@ public class SearchServiceRefactored {
     );
     //</editor-fold>
 
+    // Tempo máximo de cada consulta SQL das buscas canceláveis (statement_timeout do PostgreSQL)
+    @Value("${app.search.query-timeout-ms:15000}")
+    private long queryTimeoutMs;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void initSearchExecution() {
+        // Lote com fila cheia: a própria thread da requisição executa a busca (contrapressão)
+        searchBatchExecutor = boundedExecutor("search-batch-", batchParallelism, batchMaxQueue,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        // Fase semântica com fila cheia: a submissão é recusada e a busca devolve só os exatos
+        semanticPhaseExecutor = boundedExecutor("search-semantic-", semanticParallelism, semanticMaxQueue,
+                new ThreadPoolExecutor.AbortPolicy());
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    private static ExecutorService boundedExecutor(String threadPrefix, int threads, int maxQueue,
+                                                   RejectedExecutionHandler rejectionPolicy) {
+        int size = Math.max(threads, 1);
+        return new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(maxQueue, 1)), new CustomizableThreadFactory(threadPrefix), rejectionPolicy);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        shutdownExecutor(searchBatchExecutor);
+        shutdownExecutor(semanticPhaseExecutor);
+    }
+
+    private void shutdownExecutor(ExecutorService executor) {
+        if (executor == null) {
+            return;
+        }
+        // Buscas em andamento têm um instante para terminar; depois são interrompidas
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @PostConstruct
     public void init() {
         todosOsAutores = projetoRepository.findDistinctAutores();
@@ -104,40 +213,307 @@ public class SearchServiceRefactored {
             .filter(Matcher::find)
             .map(matcher -> matcher.group(1).toLowerCase())
             .collect(Collectors.toSet());
-        
+
+        Map<String, Set<String>> indice = new HashMap<>();
+        for (String autorCompleto : todosOsAutores) {
+            // Limpa o nome do autor, removendo o partido. Ex: "Keit Lima (PODE)" -> "Keit Lima"
+            String nomeLimpo = autorCompleto.replaceAll("\\s*\\(.*\\)", "").trim();
+            for (String token : normalizeText(nomeLimpo).split("\\s+")) {
+                indice.computeIfAbsent(token, k -> new LinkedHashSet<>()).add(nomeLimpo);
+            }
+        }
+        autoresPorToken = indice;
+    }
+
+    /**
+     * Recarrega a lista de autores após uma sincronização, para reconhecer autores novos
+     */
+    @EventListener
+    public void onProjetosSincronizados(ProjetosSincronizadosEvent event) {
+        init();
     }
 
     /**
      * Realiza uma busca híbrida (semântica + por filtros) de forma paginada.
      */
     public HybridSearchResultDTO searchHybridPaged(String userQuery, int page, int size, Map<String, List<String>> excludedFilters) {
+        return searchHybridPaged(userQuery, parseFilters(userQuery, excludedFilters), page, size);
+    }
+
+    /**
+     * Extrai os filtros (autor, ano, etc.) e a query semântica da busca do usuário.
+     * Feito em memória; o resultado pode ser reaproveitado no ETag e na busca da mesma requisição.
+     */
+    public SearchFilter parseFilters(String userQuery, Map<String, List<String>> excludedFilters) {
+        return extractFilters(userQuery, excludedFilters);
+    }
+
+    /**
+     * Busca híbrida paginada com os filtros já extraídos por {@link #parseFilters}
+     */
+    public HybridSearchResultDTO searchHybridPaged(String userQuery, SearchFilter filter, int page, int size) {
+        long deadlineNanos = deadlineFromNow();
         try {
-            logger.info("Iniciando busca híbrida. Query: '{}', Page: {}, Size: {}, Exclusions: {}", userQuery, page, size, excludedFilters);
-            
+            logger.info("Iniciando busca híbrida. Query: '{}', Page: {}, Size: {}", userQuery, page, size);
+            logger.info("Filtros extraídos: {}", filter);
 
-            // 1. Extrai filtros (autor, ano, etc.) e a query semântica da busca do usuário.
+            // Buscas idênticas em andamento compartilham a mesma execução
+            SingleFlight.Membership<HybridSearchResultDTO> membership =
+                    pagedSearchFlights.join(new PageWindowKey(canonicalKey(filter, false), page, size));
+            if (!membership.leader()) {
+                logger.info("Busca idêntica em andamento, aguardando o resultado compartilhado. Query: '{}'", userQuery);
+                try {
+                    return copyForRequest(membership.flight().awaitLast(followerWaitNanos(deadlineNanos), TimeUnit.NANOSECONDS),
+                            userQuery, filter);
+                } catch (TimeoutException e) {
+                    // O líder não terminou dentro do prazo desta requisição: executa a busca por conta
+                    // própria, já com o orçamento esgotado (apenas matches exatos)
+                    membership.flight().leave();
+                    logger.info("⏱️ ORÇAMENTO ESGOTADO: busca compartilhada não concluída a tempo, executando sem coalescência. Query: '{}'", userQuery);
+                    return executeSearch(userQuery, filter, page, size, null, deadlineNanos);
+                }
+            }
+            try {
+                HybridSearchResultDTO result = executeSearch(userQuery, filter, page, size, null, deadlineNanos);
+                membership.flight().publish(result);
+                membership.flight().complete();
+                return result;
+            } catch (RuntimeException | Error e) {
+                membership.flight().fail(e);
+                throw e;
+            }
+
+        } catch (Exception e) {
+            logger.error("Erro fatal durante a busca híbrida para a query: '{}'", userQuery, e);
+            HybridSearchResultDTO errorResult = createEmptyResult(new SearchFilter(new ArrayList<>(), new ArrayList<>(), null, null, "", new ArrayList<>(), new LinkedHashMap<>()), page, size);
+            errorResult.setResultType("error");
+            searchMetrics.recordResult("paged", "error");
+            return errorResult;
+        }
+    }
+
+    /**
+     * ETag forte da resposta de searchHybridPaged para a versão atual dos dados.
+     * Deriva da versão, da busca canônica, da query digitada (que define destaques e "você quis dizer")
+     * e da página; é calculado só com a extração de filtros em memória, sem banco nem modelo.
+     */
+    public String searchETag(String userQuery, SearchFilter filter, int page, int size) {
+        long dataVersion = dataVersionService.current();
+        String base = dataVersion + "|" + canonicalKey(filter, false).encode() + "|" + userQuery.trim() + "|" + page + "|" + size;
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(base.getBytes(StandardCharsets.UTF_8));
+            return "\"" + dataVersion + "-" + HexFormat.of().formatHex(hash, 0, 12) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Executa a busca em modo debug e anexa o explain ao resultado: filtros extraídos, plano,
+     * candidatos, tempo de cada etapa, consultas ao cache e as consultas SQL com o plano de
+     * EXPLAIN (ANALYZE, BUFFERS).
+     * <p>
+     * Roda sem orçamento de latência e sem coalescência, na thread da requisição, para que todas as
+     * etapas sejam registradas. As consultas são reexecutadas com EXPLAIN ANALYZE depois da busca,
+     * então o tempo das etapas não inclui o explain. Uso administrativo.
+     */
+    public HybridSearchResultDTO explainSearch(String userQuery, int page, int size, Map<String, List<String>> excludedFilters) {
+        SearchTrace trace = SearchTrace.start();
+        try {
+            long start = System.nanoTime();
             SearchFilter filter = extractFilters(userQuery, excludedFilters);
-            logger.info("Filtros extraídos: {}", filter);
+            HybridSearchResultDTO result = executeSearch(userQuery, filter, page, size, null, NO_DEADLINE);
+            double totalMillis = (System.nanoTime() - start) / 1_000_000.0;
+            SearchTrace.clear();
+
+            SearchExplainDTO explain = new SearchExplainDTO();
+            Map<String, Object> filterMap = new LinkedHashMap<>();
+            filterMap.put("autores", filter.getAutores());
+            filterMap.put("anos", filter.getAnos());
+            filterMap.put("numeroProjeto", filter.getNumeroProjeto());
+            filterMap.put("tipoProjeto", filter.getTipoProjeto());
+            filterMap.put("semanticQuery", filter.getSemanticQuery());
+            filterMap.put("exactPhrases", filter.getExactPhrases());
+            filterMap.put("corrections", filter.getCorrections());
+            explain.setFilter(filterMap);
+            explain.setPlan(trace.plan);
+            explain.setRelevantIds(trace.candidates.getOrDefault(SearchMetrics.CandidateSet.FILTERED.tag(), 0));
+            explain.setCandidates(trace.candidates);
+            explain.setStageMillis(trace.stageMillis);
+            explain.setTotalMillis(totalMillis);
+            explain.setCacheLookups(trace.cacheLookups.stream()
+                    .map(lookup -> new SearchExplainDTO.CacheLookup(lookup.key(), lookup.dataVersion(), lookup.hit()))
+                    .toList());
+            explain.setStatements(trace.statements.stream().map(this::explainStatement).toList());
+            result.setExplain(explain);
+            return result;
+        } finally {
+            SearchTrace.clear();
+        }
+    }
 
-            // 2. Busca IDs de projetos que correspondem aos filtros.
-            List<Integer> relevantIds = findRelevantIdsByFilters(filter);
-            if (relevantIds.isEmpty()) {
-                logger.info("Nenhum projeto encontrado para os filtros aplicados.");
-                return createEmptyResult(filter, page, size);
+    /**
+     * Executa várias buscas de uma vez (ex: newsletters, dashboards), devolvendo os resultados na mesma ordem.
+     * <p>
+     * Os filtros de todas as buscas são extraídos primeiro, as queries semânticas são
+     * embeddadas em uma única chamada ao modelo e as fases SQL rodam em paralelo no
+     * executor dedicado, com paralelismo limitado.
+     */
+    public List<HybridSearchResultDTO> searchHybridBatch(List<BatchSearchRequestDTO> requests) {
+        long start = System.currentTimeMillis();
+        int total = requests.size();
+
+        // 1. Extrai os filtros de todas as buscas
+        List<SearchFilter> filters = new ArrayList<>(total);
+        for (BatchSearchRequestDTO request : requests) {
+            try {
+                filters.add(request.getQ() == null || request.getQ().isBlank()
+                        ? null
+                        : extractFilters(request.getQ(), Optional.ofNullable(request.getExcludedFilters()).orElseGet(HashMap::new)));
+            } catch (Exception e) {
+                logger.error("Erro ao extrair filtros da busca em lote '{}'", request.getQ(), e);
+                filters.add(null);
             }
-            logger.info("{} projetos encontrados após filtragem inicial.", relevantIds.size());
+        }
 
-            // 3. Se não há query semântica, retorna apenas os resultados filtrados e paginados.
-            if (filter.getSemanticQuery().isBlank()) {
-                return performFilterOnlySearch(relevantIds, userQuery, filter, page, size);
+        // 2. Gera os embeddings de todas as queries semânticas distintas em uma única chamada
+        Map<String, float[]> embeddings = new HashMap<>();
+        List<String> semanticQueries = filters.stream()
+                .filter(Objects::nonNull)
+                .map(SearchFilter::getSemanticQuery)
+                .filter(q -> !q.isBlank())
+                .distinct()
+                .toList();
+        if (!semanticQueries.isEmpty()) {
+            try {
+                float[][] vectors;
+                try (AdmissionControlService.Permit ignored = admissionControlService.admitInference()) {
+                    Timer.Sample sample = searchMetrics.start();
+                    try {
+                        vectors = embeddingService.generateEmbeddings(semanticQueries);
+                    } finally {
+                        searchMetrics.stop(sample, SearchMetrics.Stage.EMBEDDING);
+                    }
+                }
+                for (int i = 0; i < semanticQueries.size(); i++) {
+                    embeddings.put(semanticQueries.get(i), vectors[i]);
+                }
+            } catch (Exception e) {
+                // Cada busca tentará gerar o próprio embedding em findSemanticMatches
+                logger.error("Erro ao gerar embeddings da busca em lote: {}", e.getMessage(), e);
+            }
+        }
+
+        // 3. Executa as fases SQL em paralelo, preservando a ordem das requisições
+        List<CompletableFuture<HybridSearchResultDTO>> futures = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            BatchSearchRequestDTO request = requests.get(i);
+            SearchFilter filter = filters.get(i);
+            int page = Math.max(request.getPage(), 0);
+            int size = request.getSize() > 0 ? request.getSize() : AppConstants.DEFAULT_PAGE_SIZE;
+
+            if (filter == null) {
+                futures.add(CompletableFuture.completedFuture(createEmptyResult(
+                        new SearchFilter(new ArrayList<>(), new ArrayList<>(), null, null, "", new ArrayList<>(), new LinkedHashMap<>()), page, size)));
+                continue;
             }
 
+            futures.add(CompletableFuture
+                    .supplyAsync(() -> executeSearch(request.getQ(), filter, page, size,
+                            embeddings.get(filter.getSemanticQuery()), NO_DEADLINE), searchBatchExecutor)
+                    .exceptionally(e -> {
+                        logger.error("Erro fatal durante a busca em lote para a query: '{}'", request.getQ(), e);
+                        return createEmptyResult(filter, page, size);
+                    }));
+        }
+
+        List<HybridSearchResultDTO> results = futures.stream().map(CompletableFuture::join).toList();
+        logger.info("⏱️ BUSCA EM LOTE: {} ms | {} buscas | {} embeddings", 
+                System.currentTimeMillis() - start, total, semanticQueries.size());
+        return results;
+    }
+
+    /**
+     * Executa a busca a partir dos filtros já extraídos.
+     *
+     * @param queryEmbedding embedding da query semântica já calculado, ou null para gerá-lo sob demanda
+     * @param deadlineNanos  prazo (System.nanoTime) para a fase semântica, ou NO_DEADLINE
+     */
+    private HybridSearchResultDTO executeSearch(String userQuery, SearchFilter filter, int page, int size, float[] queryEmbedding,
+                                                long deadlineNanos) {
+        // A versão é lida antes de consultar o banco: um resultado calculado durante uma sincronização
+        // fica marcado com a versão anterior e é descartado logo em seguida
+        SearchRequestEvent event = new SearchRequestEvent();
+        event.begin();
+        event.channel = "paged";
+        long dataVersion = dataVersionService.current();
+        if (!filter.getSemanticQuery().isBlank()) {
+            String cacheKey = canonicalKey(filter, false).encode();
+            int[] cachedRanking = searchResultCache.get(cacheKey, dataVersion);
+            SearchTrace trace = SearchTrace.current();
+            if (trace != null) {
+                // Em modo debug o cache é consultado e reportado, mas a busca roda de qualquer forma
+                // para que as consultas SQL e seus planos apareçam no explain
+                trace.cacheLookup(cacheKey, dataVersion, cachedRanking != null);
+                cachedRanking = null;
+            }
+            if (cachedRanking != null) {
+                logger.info("⏱️ CACHE: ranking de {} resultados reaproveitado (versão {})", cachedRanking.length, dataVersion);
+                HybridSearchResultDTO cached = buildFromRanking(cachedRanking, userQuery, filter, page, size);
+                cached.setDidYouMean(buildDidYouMean(userQuery, filter));
+                searchMetrics.recordResult("paged", "complete");
+                event.plan = "cache";
+                event.finalResults = cachedRanking.length;
+                commitSearchEvent(event, userQuery, "complete");
+                return cached;
+            }
+        }
+
+        // 2. Busca IDs de projetos que correspondem aos filtros.
+        long startFilter = System.currentTimeMillis();
+        List<Integer> relevantIds = findRelevantIdsByFilters(filter);
+        event.filterSqlDuration = System.currentTimeMillis() - startFilter;
+        event.filteredCandidates = relevantIds.size();
+        searchMetrics.recordCandidates(SearchMetrics.CandidateSet.FILTERED, relevantIds.size());
+        HybridSearchResultDTO result;
+        if (relevantIds.isEmpty()) {
+            logger.info("Nenhum projeto encontrado para os filtros aplicados.");
+            event.plan = "empty";
+            result = createEmptyResult(filter, page, size);
+        } else if (filter.getSemanticQuery().isBlank()) {
+            logger.info("{} projetos encontrados após filtragem inicial.", relevantIds.size());
+            // 3. Se não há query semântica, retorna apenas os resultados filtrados e paginados.
+            event.plan = "filter_only";
+            result = performFilterOnlySearch(relevantIds, userQuery, filter, page, size);
+        } else {
+            logger.info("{} projetos encontrados após filtragem inicial.", relevantIds.size());
             // 4. Realiza a busca híbrida (exata + semântica) e retorna os resultados.
-            return performHybridSearch(relevantIds, userQuery, filter, page, size);
+            event.plan = "hybrid";
+            result = performHybridSearch(relevantIds, userQuery, filter, page, size, queryEmbedding, deadlineNanos, dataVersion, event);
+        }
 
-        } catch (Exception e) {
-            logger.error("Erro fatal durante a busca híbrida para a query: '{}'", userQuery, e);
-            return createEmptyResult(new SearchFilter(new ArrayList<>(), new ArrayList<>(), null, null, "", new ArrayList<>()), page, size);
+        result.setDidYouMean(buildDidYouMean(userQuery, filter));
+        String resultType = result.getResultType() != null ? result.getResultType()
+                : filter.getSemanticQuery().isBlank() ? "filter_only" : "complete";
+        searchMetrics.recordResult("paged", resultType);
+        event.finalResults = Math.max(event.finalResults, result.getTotalElements());
+        commitSearchEvent(event, userQuery, resultType);
+        return result;
+    }
+
+    /**
+     * Encerra e grava o evento JFR da busca; o hash da query só é calculado se o evento estiver habilitado
+     */
+    private void commitSearchEvent(SearchRequestEvent event, String userQuery, String resultType) {
+        SearchTrace trace = SearchTrace.current();
+        if (trace != null) {
+            trace.plan = event.plan;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.queryHash = Integer.toHexString(userQuery.trim().toLowerCase().hashCode());
+            event.resultType = resultType;
+            event.commit();
         }
     }
 
@@ -149,17 +525,41 @@ public class SearchServiceRefactored {
     private List<Integer> findRelevantIdsByFilters(SearchFilter filter) {
         StringBuilder jpql = new StringBuilder("SELECT p.id FROM Projeto p WHERE 1=1");
         Map<String, Object> parameters = new HashMap<>();
+        appendFilterPredicates(filter, jpql, parameters, false);
+        if (SearchTrace.current() != null) {
+            // O explain precisa de SQL nativo: a mesma consulta escrita sobre a tabela
+            StringBuilder sql = new StringBuilder("SELECT p.id FROM projetos p WHERE 1=1");
+            Map<String, Object> nativeParameters = new LinkedHashMap<>();
+            appendFilterPredicates(filter, sql, nativeParameters, true);
+            traceStatement(SearchMetrics.Stage.FILTER_SQL, sql.toString(), nativeParameters);
+        }
+        
+        TypedQuery<Integer> idQuery = entityManager.createQuery(jpql.toString(), Integer.class);
+        parameters.forEach(idQuery::setParameter);
+        return searchMetrics.time(SearchMetrics.Stage.FILTER_SQL, idQuery::getResultList);
+    }
 
+    /**
+     * Acrescenta à consulta os predicados dos filtros de metadados (tipo, número, anos e autores).
+     * Entidade e tabela usam os mesmos nomes de colunas com o alias p, então os predicados servem
+     * para JPQL e, com {@code nativeSql}, para SQL nativo (onde o tipo é o ENUM do PostgreSQL).
+     */
+    private void appendFilterPredicates(SearchFilter filter, StringBuilder jpql, Map<String, Object> parameters, boolean nativeSql) {
         if (filter.getTipoProjeto() != null) {
-            jpql.append(" AND p.tipo = :tipo");
-            parameters.put("tipo", TipoProposicao.valueOf(filter.getTipoProjeto()));
+            if (nativeSql) {
+                jpql.append(" AND p.tipo = CAST(:tipo AS tp_proposicao)");
+                parameters.put("tipo", filter.getTipoProjeto());
+            } else {
+                jpql.append(" AND p.tipo = :tipo");
+                parameters.put("tipo", TipoProposicao.valueOf(filter.getTipoProjeto()));
+            }
         }
         if (filter.getNumeroProjeto() != null) {
             jpql.append(" AND p.numero = :numero");
             parameters.put("numero", filter.getNumeroProjeto());
         }
         if (!filter.getAnos().isEmpty()) {
-            jpql.append(" AND p.ano IN :anos");
+            jpql.append(" AND p.ano IN (:anos)");
             parameters.put("anos", filter.getAnos());
         }
         if (!filter.getAutores().isEmpty()) {
@@ -173,10 +573,6 @@ public class SearchServiceRefactored {
             }
             jpql.append(")");
         }
-        
-        TypedQuery<Integer> idQuery = entityManager.createQuery(jpql.toString(), Integer.class);
-        parameters.forEach(idQuery::setParameter);
-        return idQuery.getResultList();
     }
 
     /**
@@ -185,12 +581,11 @@ public class SearchServiceRefactored {
     private HybridSearchResultDTO performFilterOnlySearch(List<Integer> relevantIds, String originalQuery, SearchFilter filter, int page, int size) {
         logger.info("Executando busca apenas por filtros.");
 
-        String countJpql = "SELECT COUNT(p) FROM Projeto p WHERE p.id IN (:ids)";
-        TypedQuery<Long> countQuery = entityManager.createQuery(countJpql, Long.class);
-        countQuery.setParameter("ids", relevantIds);
-        long total = countQuery.getSingleResult();
+        // Os IDs já são distintos: o total é o tamanho da lista, sem um COUNT extra
+        long total = relevantIds.size();
 
-        String finalJpql = "SELECT p FROM Projeto p WHERE p.id IN (:ids) ORDER BY p.ano DESC, p.numero DESC";
+        // O id desempata a ordenação, que assim coincide com a da paginação por cursor
+        String finalJpql = "SELECT p FROM Projeto p WHERE p.id IN (:ids) " + KEYSET_ORDER;
         TypedQuery<Projeto> finalFilterQuery = entityManager.createQuery(finalJpql, Projeto.class);
         finalFilterQuery.setParameter("ids", relevantIds);
         finalFilterQuery.setFirstResult(page * size);
@@ -200,13 +595,67 @@ public class SearchServiceRefactored {
         List<String> termsForHighlight = getTermsForHighlight(originalQuery, filter.getExactPhrases());
         List<ProjetoResponseDTO> dtos = convertToDto(projetosFiltrados);
         
-        return new HybridSearchResultDTO(dtos, buildAppliedFiltersMap(filter), page, size, (int) total, termsForHighlight);
+        HybridSearchResultDTO result = new HybridSearchResultDTO(dtos, buildAppliedFiltersMap(filter), page, size, (int) total, termsForHighlight);
+        if (result.isHasMore() && !projetosFiltrados.isEmpty()) {
+            result.setNextCursor(KeysetCursor.after(projetosFiltrados.get(projetosFiltrados.size() - 1)).encode());
+        }
+        return result;
+    }
+
+    /**
+     * Paginação por cursor (keyset) das buscas apenas por filtros.
+     * <p>
+     * Em vez de descartar page * size linhas com OFFSET, a consulta parte da chave (ano, numero, id)
+     * do último item já entregue e percorre o índice idx_projetos_keyset, então o custo de cada página
+     * independe da profundidade da rolagem. O total não é recalculado nas páginas por cursor
+     * (totalElements = -1): o cliente usa o valor da primeira página e o campo hasMore.
+     *
+     * @param cursor valor de nextCursor devolvido pela página anterior
+     * @throws InvalidCursorException se o cursor for inválido ou a busca tiver query semântica
+     */
+    public HybridSearchResultDTO searchFilterOnlyAfter(String userQuery, SearchFilter filter, String cursor, int size) {
+        long start = System.currentTimeMillis();
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        if (!filter.getSemanticQuery().isBlank()) {
+            throw new InvalidCursorException("Paginação por cursor disponível apenas para buscas só com filtros (tipo, número, ano, autor)");
+        }
+
+        StringBuilder jpql = new StringBuilder("SELECT p FROM Projeto p WHERE 1=1");
+        Map<String, Object> parameters = new HashMap<>();
+        appendFilterPredicates(filter, jpql, parameters, false);
+        jpql.append(" AND (p.ano, p.numero, p.id) < (:cursorAno, :cursorNumero, :cursorId) ").append(KEYSET_ORDER);
+        parameters.put("cursorAno", after.ano());
+        parameters.put("cursorNumero", after.numero());
+        parameters.put("cursorId", after.id());
+
+        TypedQuery<Projeto> query = entityManager.createQuery(jpql.toString(), Projeto.class);
+        parameters.forEach(query::setParameter);
+        // Um item a mais indica se há próxima página
+        query.setMaxResults(size + 1);
+        List<Projeto> projetos = query.getResultList();
+        boolean hasMore = projetos.size() > size;
+        if (hasMore) {
+            projetos = projetos.subList(0, size);
+        }
+
+        HybridSearchResultDTO result = new HybridSearchResultDTO(convertToDto(projetos), buildAppliedFiltersMap(filter),
+                -1, size, -1, getTermsForHighlight(userQuery, filter.getExactPhrases()));
+        result.setHasMore(hasMore);
+        if (hasMore) {
+            result.setNextCursor(KeysetCursor.after(projetos.get(projetos.size() - 1)).encode());
+        }
+        result.setDidYouMean(buildDidYouMean(userQuery, filter));
+        searchMetrics.recordResult("cursor", "filter_only");
+        logger.info("⏱️ PÁGINA POR CURSOR: {} ms | {} resultados", System.currentTimeMillis() - start, projetos.size());
+        return result;
     }
 
     /**
      * Executa a busca híbrida combinando resultados de match exato e busca semântica.
      */
-    private HybridSearchResultDTO performHybridSearch(List<Integer> relevantIds, String originalQuery, SearchFilter filter, int page, int size) {
+    private HybridSearchResultDTO performHybridSearch(List<Integer> relevantIds, String originalQuery, SearchFilter filter, int page, int size,
+                                                      float[] queryEmbedding, long deadlineNanos, long dataVersion,
+                                                      SearchRequestEvent event) {
         logger.info("Executando busca híbrida com query semântica: '{}'", filter.getSemanticQuery());
 
         // Prepara os termos da query para busca e ranking
@@ -215,31 +664,63 @@ public class SearchServiceRefactored {
         long startExact = System.currentTimeMillis();
         // 1. Busca por correspondências exatas dos termos da query.
         List<Projeto> exactMatches = findExactMatches(relevantIds, queryTerms);
+        searchMetrics.recordCandidates(SearchMetrics.CandidateSet.EXACT, exactMatches.size());
         logger.info("Encontrados {} matches exatos.", exactMatches.size());
         long timeExact = System.currentTimeMillis() - startExact;
         logger.info("⏱️ BUSCA EXATA: {} ms | Encontrados {} resultados | IDs filtrados: {}",
                 timeExact, exactMatches.size(), relevantIds.size());
+        event.exactDuration = timeExact;
+        event.exactCandidates = exactMatches.size();
 
         // 2. Se necessário, complementa com busca semântica.
         long startSemantic = System.currentTimeMillis();
         List<Projeto> semanticMatches = new ArrayList<>();
+        boolean partial = false;
         if (exactMatches.size() < AppConstants.MAX_RESULTS_LIMIT) {
             List<Integer> exactMatchIds = exactMatches.stream().map(Projeto::getId).toList();
             int limit = AppConstants.MAX_RESULTS_LIMIT - exactMatches.size();
-            semanticMatches = findSemanticMatches(relevantIds, filter.getSemanticQuery(), exactMatchIds, limit);
+            if (deadlineNanos == NO_DEADLINE) {
+                semanticMatches = findSemanticMatches(relevantIds, filter.getSemanticQuery(), queryEmbedding, exactMatchIds, limit);
+            } else {
+                SearchCancellation semanticCancellation = new SearchCancellation();
+                Future<List<Projeto>> semanticPhase = startSemanticPhase(relevantIds, filter.getSemanticQuery(), queryEmbedding,
+                        exactMatchIds, limit, semanticCancellation);
+                List<Projeto> withinBudget = awaitSemanticPhase(semanticPhase, deadlineNanos);
+                if (withinBudget == null) {
+                    // Ninguém vai esperar pelo restante da fase: tira a tarefa da fila ou interrompe a
+                    // inferência, e interrompe a consulta SQL se ela chegar a rodar
+                    semanticPhase.cancel(true);
+                    semanticCancellation.cancel();
+                    partial = true;
+                } else {
+                    semanticMatches = withinBudget;
+                }
+            }
+            searchMetrics.recordCandidates(SearchMetrics.CandidateSet.SEMANTIC, semanticMatches.size());
             logger.info("Encontrados {} matches semânticos.", semanticMatches.size());
         }
         long timeSemantic = System.currentTimeMillis() - startSemantic;
         logger.info("⏱️ BUSCA SEMÂNTICA: {} ms | Encontrados {} resultados",
                 timeSemantic, semanticMatches.size());
+        event.semanticDuration = timeSemantic;
+        event.semanticCandidates = semanticMatches.size();
 
         // 3. Combina e ordena os resultados (exatos primeiro, depois semânticos, ambos por relevância e data).
+        long startRanking = System.currentTimeMillis();
         List<Projeto> finalRankedResults = combineAndRankResults(exactMatches, semanticMatches, queryTerms);
 
         // 4. Aplica o filtro de "frases exatas" (termos entre aspas).
         List<Projeto> finalFilteredResults = applyExactPhraseFilter(finalRankedResults, filter.getExactPhrases());
+        event.rankingDuration = System.currentTimeMillis() - startRanking;
+        event.finalResults = finalFilteredResults.size();
+        searchMetrics.recordCandidates(SearchMetrics.CandidateSet.FINAL, finalFilteredResults.size());
         logger.info("Total de resultados após filtro de frases exatas: {}", finalFilteredResults.size());
 
+        // Resultados parciais não entram no cache: a próxima busca deve tentar a fase semântica
+        if (!partial) {
+            searchResultCache.put(canonicalKey(filter, false).encode(), dataVersion, toRanking(finalFilteredResults));
+        }
+
         // 5. Pagina os resultados finais.
         List<Projeto> pagedResults = paginateResults(finalFilteredResults, page, size);
         
@@ -247,7 +728,13 @@ public class SearchServiceRefactored {
         List<String> termsForHighlight = getTermsForHighlight(originalQuery, filter.getExactPhrases());
         List<ProjetoResponseDTO> dtos = convertToDto(pagedResults);
 
-        return new HybridSearchResultDTO(dtos, buildAppliedFiltersMap(filter), page, size, finalFilteredResults.size(), termsForHighlight);
+        HybridSearchResultDTO result = new HybridSearchResultDTO(dtos, buildAppliedFiltersMap(filter), page, size, finalFilteredResults.size(), termsForHighlight);
+        if (partial) {
+            logger.info("⏱️ ORÇAMENTO ESGOTADO: fase semântica não concluída em {} ms, devolvendo apenas matches exatos", latencyBudgetMs);
+            result.setResultType("partial");
+            result.setPartial(true);
+        }
+        return result;
     }
 
     //</editor-fold>
@@ -266,14 +753,18 @@ public class SearchServiceRefactored {
         }
         sql.append(") ORDER BY ano DESC, numero DESC");
 
-        Query exactMatchQuery = entityManager.createNativeQuery(sql.toString(), Projeto.class);
-        exactMatchQuery.setParameter("ids", relevantIds);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("ids", relevantIds);
         for (int i = 0; i < queryTerms.size(); i++) {
-            exactMatchQuery.setParameter("term" + i, "%" + queryTerms.get(i) + "%");
+            parameters.put("term" + i, "%" + queryTerms.get(i) + "%");
         }
+        traceStatement(SearchMetrics.Stage.EXACT_SQL, sql.toString(), parameters);
+
+        Query exactMatchQuery = entityManager.createNativeQuery(sql.toString(), Projeto.class);
+        parameters.forEach(exactMatchQuery::setParameter);
         
         @SuppressWarnings("unchecked")
-        List<Projeto> results = exactMatchQuery.getResultList();
+        List<Projeto> results = searchMetrics.time(SearchMetrics.Stage.EXACT_SQL, exactMatchQuery::getResultList);
 
         // Validação adicional para remover falsos positivos do LIKE
         return results.stream()
@@ -288,37 +779,116 @@ public class SearchServiceRefactored {
             .toList();
     }
 
-    private List<Projeto> findSemanticMatches(List<Integer> relevantIds, String semanticQuery, List<Integer> idsToExclude, int limit) {
+    private List<Projeto> findSemanticMatches(List<Integer> relevantIds, String semanticQuery, float[] precomputedEmbedding,
+                                              List<Integer> idsToExclude, int limit) {
         if (limit <= 0) return Collections.emptyList();
 
         try {
-            float[] queryEmbedding = embeddingService.generateEmbeddings(List.of(semanticQuery))[0];
-            String vectorString = Arrays.toString(queryEmbedding);
+            float[] queryEmbedding = precomputedEmbedding != null
+                    ? precomputedEmbedding
+                    : embedQuery(semanticQuery);
+            return querySemanticMatches(relevantIds, queryEmbedding, idsToExclude, limit);
+        } catch (ServiceOverloadedException e) {
+            logger.warn("Inferência recusada por sobrecarga, busca semântica ignorada: '{}'", semanticQuery);
+            return Collections.emptyList();
+        } catch (Exception e) {
+            logger.error("Erro ao buscar matches semânticos: {}", e.getMessage(), e);
+            return Collections.emptyList();
+        }
+    }
 
-            StringBuilder sql = new StringBuilder("SELECT * FROM projetos WHERE id IN (:ids) ");
-            if (!idsToExclude.isEmpty()) {
-                sql.append("AND id NOT IN (:excludeIds) ");
-            }
-            sql.append("ORDER BY embedding <=> CAST(:queryVector AS vector) LIMIT :limit");
+    private List<Projeto> querySemanticMatches(List<Integer> relevantIds, float[] queryEmbedding, List<Integer> idsToExclude, int limit) {
+        String vectorString = Arrays.toString(queryEmbedding);
 
-            Query semanticQueryObj = entityManager.createNativeQuery(sql.toString(), Projeto.class);
-            semanticQueryObj.setParameter("ids", relevantIds);
-            semanticQueryObj.setParameter("queryVector", vectorString);
-            semanticQueryObj.setParameter("limit", limit);
-            if (!idsToExclude.isEmpty()) {
-                semanticQueryObj.setParameter("excludeIds", idsToExclude);
-            }
+        StringBuilder sql = new StringBuilder("SELECT * FROM projetos WHERE id IN (:ids) ");
+        if (!idsToExclude.isEmpty()) {
+            sql.append("AND id NOT IN (:excludeIds) ");
+        }
+        sql.append("ORDER BY embedding <=> CAST(:queryVector AS vector) LIMIT :limit");
+
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("ids", relevantIds);
+        parameters.put("queryVector", vectorString);
+        parameters.put("limit", limit);
+        if (!idsToExclude.isEmpty()) {
+            parameters.put("excludeIds", idsToExclude);
+        }
+        traceStatement(SearchMetrics.Stage.SEMANTIC_SQL, sql.toString(), parameters);
 
-            @SuppressWarnings("unchecked")
-            List<Projeto> results = semanticQueryObj.getResultList();
-            return results;
-        } catch (Exception e) {
-            logger.error("Erro ao buscar matches semânticos: {}", e.getMessage(), e);
+        Query semanticQueryObj = entityManager.createNativeQuery(sql.toString(), Projeto.class);
+        parameters.forEach(semanticQueryObj::setParameter);
+
+        @SuppressWarnings("unchecked")
+        List<Projeto> results = searchMetrics.time(SearchMetrics.Stage.SEMANTIC_SQL, semanticQueryObj::getResultList);
+        return results;
+    }
+
+    /**
+     * Inicia a fase semântica (inferência + SQL) no executor dedicado, para que a busca espere
+     * por ela só até o prazo. O sinal de cancelamento interrompe a consulta SQL quando o
+     * resultado deixa de interessar.
+     */
+    private Future<List<Projeto>> startSemanticPhase(List<Integer> relevantIds, String semanticQuery, float[] precomputedEmbedding,
+                                                     List<Integer> idsToExclude, int limit, SearchCancellation cancellation) {
+        try {
+            return semanticPhaseExecutor.submit(() -> {
+                cancellation.throwIfCancelled();
+                float[] queryEmbedding = precomputedEmbedding != null ? precomputedEmbedding : embedQuery(semanticQuery);
+                return runCancellableQuery(cancellation, () -> querySemanticMatches(relevantIds, queryEmbedding, idsToExclude, limit));
+            });
+        } catch (RejectedExecutionException e) {
+            // Fila da fase semântica cheia: tratado como sobrecarga (resultado parcial com os exatos)
+            return CompletableFuture.failedFuture(new ServiceOverloadedException("Fase semântica sobrecarregada", 0));
+        }
+    }
+
+    /**
+     * Aguarda a fase semântica até o prazo. Retorna null quando ela não fica pronta a tempo ou o
+     * modelo recusou a inferência por sobrecarga, indicando que o resultado é parcial.
+     */
+    private List<Projeto> awaitSemanticPhase(Future<List<Projeto>> semanticPhase, long deadlineNanos) {
+        try {
+            if (deadlineNanos == NO_DEADLINE) {
+                return semanticPhase.get();
+            }
+            return semanticPhase.get(Math.max(deadlineNanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            semanticPhase.cancel(true);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SearchCancelledException cancelled) {
+                throw cancelled;
+            }
+            if (cause instanceof ServiceOverloadedException) {
+                logger.warn("Inferência recusada por sobrecarga, busca semântica ignorada");
+                return null;
+            }
+            logger.error("Erro ao buscar matches semânticos: {}", cause.getMessage(), cause);
             return Collections.emptyList();
         }
     }
+
+    private long deadlineFromNow() {
+        return latencyBudgetMs > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(latencyBudgetMs) : NO_DEADLINE;
+    }
+
+    /**
+     * Quanto um seguidor espera pelo líder: até o prazo da requisição ou, sem orçamento de
+     * latência, até o tempo máximo de uma consulta SQL
+     */
+    private long followerWaitNanos(long deadlineNanos) {
+        if (deadlineNanos == NO_DEADLINE) {
+            return TimeUnit.MILLISECONDS.toNanos(queryTimeoutMs);
+        }
+        return Math.max(deadlineNanos - System.nanoTime(), 0);
+    }
     
     private List<Projeto> combineAndRankResults(List<Projeto> exactMatches, List<Projeto> semanticMatches, List<String> queryTerms) {
+        Timer.Sample sample = searchMetrics.start();
         List<Projeto> combined = new ArrayList<>(exactMatches);
         combined.addAll(semanticMatches);
 
@@ -394,6 +964,7 @@ public class SearchServiceRefactored {
             return Integer.compare(p2.getNumero(), p1.getNumero());
         });
 
+        searchMetrics.stop(sample, SearchMetrics.Stage.RANKING);
         return combined;
     }
     
@@ -402,11 +973,12 @@ public class SearchServiceRefactored {
             return projects;
         }
         
+        Timer.Sample sample = searchMetrics.start();
         List<String> normalizedPhrases = exactPhrases.stream()
             .map(this::normalizeText)
             .collect(Collectors.toList());
         
-        return projects.stream()
+        List<Projeto> filtered = projects.stream()
             .filter(projeto -> {
                 String textoCompleto = normalizeText(
                     String.join(" ", 
@@ -421,6 +993,8 @@ public class SearchServiceRefactored {
                 return normalizedPhrases.stream().allMatch(textoCompleto::contains);
             })
             .collect(Collectors.toList()); // Usando Collectors.toList() para obter lista mutável
+        searchMetrics.stop(sample, SearchMetrics.Stage.PHRASE_FILTER);
+        return filtered;
     }
     
     private List<Projeto> paginateResults(List<Projeto> results, int page, int size) {
@@ -439,8 +1013,9 @@ public class SearchServiceRefactored {
 
     private SearchFilter extractFilters(String query, Map<String, List<String>> excludedFilters) {
         if (query == null || query.trim().length() <= 1) {
-            return new SearchFilter(new ArrayList<>(), new ArrayList<>(), null, null, query != null ? query.trim() : "", new ArrayList<>());
+            return new SearchFilter(new ArrayList<>(), new ArrayList<>(), null, null, query != null ? query.trim() : "", new ArrayList<>(), new LinkedHashMap<>());
         }
+        Timer.Sample sample = searchMetrics.start();
     
         // 1. Extrai frases exatas (entre aspas)
         Matcher quoteMatcher = QUOTE_PATTERN.matcher(query);
@@ -456,14 +1031,17 @@ public class SearchServiceRefactored {
         // 3. Aplica exclusões e reincorpora termos à query semântica
         String finalSemanticQuery = applyExclusionsAndReincorporateTerms(extractionResult, excludedFilters);
     
-        return new SearchFilter(
+        SearchFilter filter = new SearchFilter(
             new ArrayList<>(extractionResult.autores),
             extractionResult.anos,
             extractionResult.numero,
             extractionResult.tipo,
             finalSemanticQuery,
-            exactPhrases
+            exactPhrases,
+            extractionResult.corrections
         );
+        searchMetrics.stop(sample, SearchMetrics.Stage.FILTER_EXTRACTION);
+        return filter;
     }
     
     private FilterExtractionResult extractStructuredFilters(String query) {
@@ -578,30 +1156,35 @@ public class SearchServiceRefactored {
 
         // Conjunto para armazenar os tokens da query que foram identificados como parte de um nome de autor.
         Set<String> tokensParaRemover = new HashSet<>();
+        // Autores já associados a um token anterior da query
+        Set<String> autoresEncontrados = new HashSet<>();
+
+        // 2. Consulta o índice invertido de tokens de autores, sem percorrer a lista completa de autores.
+        Map<String, Set<String>> indice = autoresPorToken;
+        for (String queryToken : queryTokens) {
+            // Verifica se uma palavra da query corresponde EXATAMENTE a uma palavra do nome do autor.
+            // Ex: "keit" -> {"Keit Lima"}; "keit" não corresponde a "Keity Souza".
+            Set<String> autores = indice.get(queryToken);
+
+            // 3. Sem correspondência exata, tenta a correção ortográfica (ex: "keyt" -> "keit").
+            if (autores == null) {
+                Optional<String> autorCorrigido = spellCheckService.correctAutorToken(queryToken);
+                if (autorCorrigido.isPresent() && indice.containsKey(autorCorrigido.get())) {
+                    autores = indice.get(autorCorrigido.get());
+                    result.corrections.put(queryToken, autorCorrigido.get());
+                } else {
+                    // Correções de termos comuns são apenas sugeridas ("você quis dizer"), não aplicadas
+                    spellCheckService.correctTermo(queryToken)
+                            .ifPresent(termo -> result.corrections.put(queryToken, termo));
+                    continue;
+                }
+            }
 
-        // 2. Itera sobre cada autor conhecido no sistema.
-        for (String autorCompleto : todosOsAutores) {
-            // Limpa o nome do autor, removendo o partido. Ex: "Keit Lima (PODE)" -> "Keit Lima"
-            String nomeLimpo = autorCompleto.replaceAll("\\s*\\(.*\\)", "").trim();
-            String nomeNormalizado = normalizeText(nomeLimpo);
-
-            // Quebra o nome do autor em palavras. Ex: "keit lima" -> {"keit", "lima"}
-            Set<String> autorTokens = new HashSet<>(Arrays.asList(nomeNormalizado.split("\\s+")));
-
-            // 3. Compara os tokens da query com os tokens do nome do autor.
-            for (String queryToken : queryTokens) {
-                // A MÁGICA ACONTECE AQUI:
-                // Verifica se uma palavra da query corresponde EXATAMENTE a uma palavra do nome do autor.
-                // Ex: queryToken "keit" está contido em autorTokens {"keit", "lima"} -> true
-                // Ex: queryToken "keit" está contido em autorTokens {"keity", "souza"} -> false
-                if (autorTokens.contains(queryToken)) {
-                    // Se encontrou uma correspondência, adiciona o autor aos filtros.
+            for (String nomeLimpo : autores) {
+                // Cada autor marca para remoção apenas o primeiro token da query que o identificou.
+                if (autoresEncontrados.add(nomeLimpo)) {
                     result.autores.add(nomeLimpo);
-                    // E marca o token da query para ser removido da busca semântica.
                     tokensParaRemover.add(queryToken);
-                    // Otimização: Uma vez que encontramos uma correspondência para este autor,
-                    // podemos parar de verificar outros tokens da query para ele.
-                    break;
                 }
             }
         }
@@ -673,15 +1256,49 @@ public class SearchServiceRefactored {
                          .replaceAll("\\p{M}", "");
     }
 
+    /**
+     * Registra uma consulta SQL no rastro da busca, quando em modo debug
+     */
+    private void traceStatement(SearchMetrics.Stage stage, String sql, Map<String, Object> parameters) {
+        SearchTrace trace = SearchTrace.current();
+        if (trace != null) {
+            trace.statement(stage.tag(), sql, parameters);
+        }
+    }
+
+    /**
+     * Reexecuta uma consulta registrada com EXPLAIN (ANALYZE, BUFFERS) e devolve o plano
+     */
+    private SearchExplainDTO.Statement explainStatement(SearchTrace.TracedStatement statement) {
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        statement.parameters().forEach((nome, valor) -> resumo.put(nome, summarizeParameter(valor)));
+        try {
+            Query explainQuery = entityManager.createNativeQuery("EXPLAIN (ANALYZE, BUFFERS) " + statement.sql());
+            statement.parameters().forEach(explainQuery::setParameter);
+            List<String> plano = ((List<?>) explainQuery.getResultList()).stream().map(String::valueOf).toList();
+            return new SearchExplainDTO.Statement(statement.stage(), statement.sql(), resumo, plano, null);
+        } catch (Exception e) {
+            logger.warn("Erro ao executar EXPLAIN da etapa {}: {}", statement.stage(), e.getMessage());
+            return new SearchExplainDTO.Statement(statement.stage(), statement.sql(), resumo, List.of(), e.getMessage());
+        }
+    }
+
+    private Object summarizeParameter(Object valor) {
+        if (valor instanceof Collection<?> colecao && colecao.size() > 20) {
+            return colecao.size() + " valores";
+        }
+        if (valor instanceof String texto && texto.length() > 200) {
+            // Ex: o vetor da query semântica
+            return texto.substring(0, 200) + "... (" + texto.length() + " caracteres)";
+        }
+        return valor;
+    }
+
     private List<ProjetoResponseDTO> convertToDto(List<Projeto> projetos) {
-        return projetos.stream()
-            .map(p -> new ProjetoResponseDTO(
-                p,
-                linkBuilderService.buildSpLegisLink(p.getTipo(), p.getNumero(), p.getAno()),
-                linkBuilderService.buildPortalLink(p.getTipo(), p.getNumero(), p.getAno()),
-                linkBuilderService.buildPdfLink(p.getTipo(), p.getNumero(), p.getAno())
-            ))
-            .toList();
+        // Os links são montados na serialização, e só quando o cliente os pede (fields=)
+        return searchMetrics.time(SearchMetrics.Stage.DTO_CONVERSION, () -> projetos.stream()
+            .map(ProjetoResponseDTO::new)
+            .toList());
     }
 
     private List<String> getTermsForHighlight(String originalQuery, List<String> exactPhrases) {
@@ -715,6 +1332,123 @@ public class SearchServiceRefactored {
         return terms;
     }
 
+    /**
+     * Executa uma etapa SQL da busca em uma transação somente leitura, registrando a conexão
+     * no sinal de cancelamento para que a consulta possa ser interrompida no banco.
+     * Cada etapa recebe também um statement_timeout local, como proteção adicional.
+     */
+    private <T> T runCancellableQuery(SearchCancellation cancellation, Supplier<T> query) {
+        cancellation.throwIfCancelled();
+        return readOnlyTransaction.execute(status -> {
+            entityManager.unwrap(Session.class).doWork(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET LOCAL statement_timeout = " + queryTimeoutMs);
+                }
+                cancellation.attach(connection);
+            });
+            try {
+                cancellation.throwIfCancelled();
+                T result = query.get();
+                cancellation.throwIfCancelled();
+                return result;
+            } catch (RuntimeException e) {
+                if (cancellation.isCancelled()) {
+                    throw new SearchCancelledException("Consulta interrompida pelo cancelamento da busca");
+                }
+                throw e;
+            } finally {
+                cancellation.detach();
+            }
+        });
+    }
+
+    /**
+     * Gera o embedding de uma query passando pelo controle de admissão de inferência
+     */
+    private float[] embedQuery(String semanticQuery) throws TranslateException {
+        try (AdmissionControlService.Permit ignored = admissionControlService.admitInference()) {
+            Timer.Sample sample = searchMetrics.start();
+            try {
+                return embeddingService.generateEmbeddings(List.of(semanticQuery))[0];
+            } finally {
+                searchMetrics.stop(sample, SearchMetrics.Stage.EMBEDDING);
+            }
+        }
+    }
+
+    /**
+     * Monta a consulta sugerida substituindo os tokens corrigidos na consulta original
+     */
+    private String buildDidYouMean(String originalQuery, SearchFilter filter) {
+        if (filter.getCorrections() == null || filter.getCorrections().isEmpty()) {
+            return null;
+        }
+        // As chaves das correções são os tokens normalizados (minúsculas, sem acentos, separados por espaço):
+        // cada palavra da consulta original é normalizada do mesmo jeito antes da comparação,
+        // para que "JOSÉ" ou "Jose" encontrem a correção de "jose"
+        Matcher palavras = PALAVRA_PATTERN.matcher(originalQuery);
+        StringBuilder sugestao = new StringBuilder();
+        while (palavras.find()) {
+            String correcao = filter.getCorrections().get(normalizeText(palavras.group()));
+            palavras.appendReplacement(sugestao, Matcher.quoteReplacement(correcao != null ? correcao : palavras.group()));
+        }
+        palavras.appendTail(sugestao);
+        return sugestao.toString().equals(originalQuery) ? null : sugestao.toString();
+    }
+
+    /**
+     * Chave canônica da busca: filtros, query semântica e frases exatas.
+     * Grafias diferentes da mesma busca (ordem dos autores, maiúsculas, espaços) caem na mesma chave.
+     */
+    private SearchKey canonicalKey(SearchFilter filter, boolean staged) {
+        return new SearchKey(
+                staged,
+                filter.getAutores().stream().map(String::toLowerCase).distinct().sorted().toList(),
+                filter.getAnos().stream().distinct().sorted().toList(),
+                filter.getNumeroProjeto(),
+                filter.getTipoProjeto(),
+                filter.getSemanticQuery().trim().toLowerCase().replaceAll("\\s+", " "),
+                filter.getExactPhrases().stream().map(this::normalizeText).distinct().sorted().toList());
+    }
+
+    private int[] toRanking(List<Projeto> rankedResults) {
+        return rankedResults.stream().mapToInt(Projeto::getId).toArray();
+    }
+
+    /**
+     * Monta a página a partir de uma lista ranqueada de ids (cache), carregando só os projetos da página
+     */
+    private HybridSearchResultDTO buildFromRanking(int[] rankedIds, String userQuery, SearchFilter filter, int page, int size) {
+        int from = Math.min(page * size, rankedIds.length);
+        int to = Math.min(from + size, rankedIds.length);
+        List<Integer> pageIds = Arrays.stream(rankedIds, from, to).boxed().toList();
+
+        Map<Integer, Projeto> porId = projetoRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Projeto::getId, p -> p));
+        List<Projeto> pageProjetos = pageIds.stream()
+                .map(porId::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new HybridSearchResultDTO(convertToDto(pageProjetos), buildAppliedFiltersMap(filter), page, size,
+                rankedIds.length, getTermsForHighlight(userQuery, filter.getExactPhrases()));
+    }
+
+    /**
+     * Cópia de um resultado compartilhado com os campos que dependem da query digitada
+     * (termos de destaque e "você quis dizer") recalculados para esta requisição
+     */
+    private HybridSearchResultDTO copyForRequest(HybridSearchResultDTO shared, String userQuery, SearchFilter filter) {
+        HybridSearchResultDTO copy = new HybridSearchResultDTO(shared.getProjetos(), shared.getAppliedFilters(),
+                shared.getCurrentPage(), shared.getPageSize(), shared.getTotalElements(),
+                getTermsForHighlight(userQuery, filter.getExactPhrases()));
+        copy.setResultType(shared.getResultType());
+        copy.setPartial(shared.isPartial());
+        copy.setNextCursor(shared.getNextCursor());
+        copy.setDidYouMean(buildDidYouMean(userQuery, filter));
+        return copy;
+    }
+
     private HybridSearchResultDTO createEmptyResult(SearchFilter filter, int page, int size) {
         return new HybridSearchResultDTO(Collections.emptyList(), buildAppliedFiltersMap(filter), page, size, 0, filter.getExactPhrases());
     }
@@ -758,6 +1492,17 @@ public class SearchServiceRefactored {
     public void searchHybridPagedWithSSE(String userQuery, int page, int size, 
                                       Map<String, List<String>> excludedFilters, 
                                       SseEmitter emitter) {
+        searchHybridPagedWithSSE(userQuery, page, size, excludedFilters, emitter, SearchCancellation.none());
+    }
+    
+    /**
+     * Versão cancelável da busca via SSE. Quando o cliente desconecta, o sinal de cancelamento
+     * interrompe a consulta SQL em andamento e as etapas seguintes (inclusive a inferência) são puladas.
+     */
+    public void searchHybridPagedWithSSE(String userQuery, int page, int size, 
+                                      Map<String, List<String>> excludedFilters, 
+                                      SseEmitter emitter, SearchCancellation cancellation) {
+        long deadlineNanos = deadlineFromNow();
         try {
             logger.info("Iniciando busca híbrida com SSE. Query: '{}', Page: {}, Size: {}, Exclusions: {}", 
                         userQuery, page, size, excludedFilters);
@@ -766,114 +1511,63 @@ public class SearchServiceRefactored {
             SearchFilter filter = extractFilters(userQuery, excludedFilters);
             logger.info("Filtros extraídos: {}", filter);
 
-            // 2. Busca IDs de projetos que correspondem aos filtros.
-            List<Integer> relevantIds = findRelevantIdsByFilters(filter);
-            if (relevantIds.isEmpty()) {
-                logger.info("Nenhum projeto encontrado para os filtros aplicados.");
-                HybridSearchResultDTO emptyResult = createEmptyResult(filter, page, size);
-                emptyResult.setResultType("exact");
-                emitter.send(emptyResult);
-                emitter.complete();
-                return;
-            }
-            logger.info("{} projetos encontrados após filtragem inicial.", relevantIds.size());
+            // Buscas idênticas em andamento compartilham a mesma execução: o líder executa as etapas
+            // e os seguidores recebem cada estágio publicado
+            SingleFlight.Membership<HybridSearchResultDTO> membership =
+                    streamingSearchFlights.join(new PageWindowKey(canonicalKey(filter, true), page, size));
+            SingleFlight.Flight<HybridSearchResultDTO> flight = membership.flight();
 
-            // 3. Se não há query semântica, retorna apenas os resultados filtrados e paginados.
-            if (filter.getSemanticQuery().isBlank()) {
-                HybridSearchResultDTO filterOnlyResult = performFilterOnlySearch(relevantIds, userQuery, filter, page, size);
-                filterOnlyResult.setResultType("exact");
-                emitter.send(filterOnlyResult);
-                emitter.complete();
+            if (!membership.leader()) {
+                logger.info("Busca SSE idêntica em andamento, acompanhando os resultados do líder. Query: '{}'", userQuery);
+                cancellation.onCancel(flight::leave);
+                followStages(flight, userQuery, filter, emitter, cancellation);
                 return;
             }
 
-            // 4. Prepara os termos da query para busca e ranking
-            List<String> queryTerms = getQueryTermsForSearch(filter);
-
-            long startExact = System.currentTimeMillis();
-            // 5. Busca por correspondências exatas dos termos da query.
-            List<Projeto> exactMatches = findExactMatches(relevantIds, queryTerms);
-            logger.info("Encontrados {} matches exatos.", exactMatches.size());
-            long timeExact = System.currentTimeMillis() - startExact;
-            logger.info("⏱️ BUSCA EXATA: {} ms | Encontrados {} resultados | IDs filtrados: {}",
-                    timeExact, exactMatches.size(), relevantIds.size());
-                    
-            // 6. Aplica o filtro de "frases exatas" (termos entre aspas) aos resultados exatos.
-            List<Projeto> filteredExactMatches = applyExactPhraseFilter(exactMatches, filter.getExactPhrases());
-            
-            // 7. Rankeia os resultados exatos para envio parcial
-            // Cria uma nova lista mutável a partir da lista imutável para poder ordenar
-            List<Projeto> sortedExactMatches = new ArrayList<>(filteredExactMatches);
-            sortedExactMatches.sort((p1, p2) -> {
-                // Ordenação por ano e número
-                int compareByAno = Integer.compare(p2.getAno(), p1.getAno());
-                if (compareByAno != 0) return compareByAno;
-                return Integer.compare(p2.getNumero(), p1.getNumero());
-            });
-            
-            List<Projeto> pagedExactMatches = paginateResults(sortedExactMatches, page, size);
-            List<String> termsForHighlight = getTermsForHighlight(userQuery, filter.getExactPhrases());
-            
-            // 8. Cria o DTO com resultados parciais (apenas exatos)
-            HybridSearchResultDTO exactResultDTO = new HybridSearchResultDTO(
-                convertToDto(pagedExactMatches),
-                buildAppliedFiltersMap(filter),
-                page, size, sortedExactMatches.size(),
-                termsForHighlight
-            );
-            exactResultDTO.setResultType("exact");
-            
-            // 9. Envia os resultados parciais
-            emitter.send(exactResultDTO);
-
-            // 10. Se necessário, complementa com busca semântica.
-            long startSemantic = System.currentTimeMillis();
-            List<Projeto> semanticMatches = new ArrayList<>();
-            if (sortedExactMatches.size() < AppConstants.MAX_RESULTS_LIMIT) {
-                List<Integer> exactMatchIds = sortedExactMatches.stream()
-                    .map(Projeto::getId)
-                    .collect(Collectors.toList()); // Usando Collectors.toList() para obter lista mutável
-                int limit = AppConstants.MAX_RESULTS_LIMIT - sortedExactMatches.size();
-                semanticMatches = findSemanticMatches(relevantIds, filter.getSemanticQuery(), exactMatchIds, limit);
-                logger.info("Encontrados {} matches semânticos.", semanticMatches.size());
-            }
-            long timeSemantic = System.currentTimeMillis() - startSemantic;
-            logger.info("⏱️ BUSCA SEMÂNTICA: {} ms | Encontrados {} resultados",
-                    timeSemantic, semanticMatches.size());
-
-            // 11. Combina os resultados (exatos primeiro, depois semânticos).
-            // Como especificado pelo requisito, os resultados exatos sempre vêm primeiro
-            List<Projeto> finalResults = new ArrayList<>(sortedExactMatches);
-            finalResults.addAll(semanticMatches);
-
-            // 12. Aplica o filtro de "frases exatas" (termos entre aspas) novamente.
-            List<Projeto> finalFilteredResults = applyExactPhraseFilter(finalResults, filter.getExactPhrases());
-            logger.info("Total de resultados após filtro de frases exatas: {}", finalFilteredResults.size());
-
-            // 13. Pagina os resultados finais.
-            List<Projeto> pagedResults = paginateResults(finalFilteredResults, page, size);
-            
-            // 14. Prepara o DTO de resposta final.
-            List<ProjetoResponseDTO> dtos = convertToDto(pagedResults);
-
-            HybridSearchResultDTO finalResultDTO = new HybridSearchResultDTO(
-                dtos, buildAppliedFiltersMap(filter), page, size, finalFilteredResults.size(), termsForHighlight
-            );
-            finalResultDTO.setResultType("complete");
-            
-            // 15. Envia os resultados finais
-            emitter.send(finalResultDTO);
-            
-            // 16. Completa o emitter
+            // O trabalho do líder só é abandonado quando todos os participantes desconectam
+            SearchCancellation flightCancellation = new SearchCancellation();
+            flight.onAbandoned(flightCancellation::cancel);
+            cancellation.onCancel(flight::leave);
+            Consumer<HybridSearchResultDTO> stageSink = stage -> {
+                flight.publish(stage);
+                if (cancellation.isCancelled()) return;
+                try {
+                    emitter.send(stage);
+                } catch (Exception e) {
+                    // O cliente do líder desconectou; os seguidores ainda podem querer os resultados
+                    cancellation.cancel();
+                }
+            };
+            SearchRequestEvent event = new SearchRequestEvent();
+            event.begin();
+            event.channel = "stream";
+            try {
+                streamSearchStages(userQuery, filter, page, size, deadlineNanos, flightCancellation, stageSink, event);
+                flight.complete();
+            } catch (RuntimeException | Error e) {
+                flight.fail(e);
+                throw e;
+            } finally {
+                commitSearchEvent(event, userQuery, event.resultType);
+            }
+            cancellation.throwIfCancelled();
             emitter.complete();
 
+        } catch (SearchCancelledException e) {
+            // O cliente já desconectou: não há para quem enviar resultado ou erro
+            logger.info("Busca SSE cancelada pelo cliente. Query: '{}'", userQuery);
         } catch (Exception e) {
+            if (cancellation.isCancelled()) {
+                logger.info("Busca SSE interrompida após cancelamento pelo cliente. Query: '{}'", userQuery);
+                return;
+            }
             logger.error("Erro fatal durante a busca híbrida para a query: '{}'", userQuery, e);
             try {
                 HybridSearchResultDTO errorResult = createEmptyResult(
-                    new SearchFilter(new ArrayList<>(), new ArrayList<>(), null, null, "", new ArrayList<>()), page, size
+                    new SearchFilter(new ArrayList<>(), new ArrayList<>(), null, null, "", new ArrayList<>(), new LinkedHashMap<>()), page, size
                 );
                 errorResult.setResultType("error");
+                searchMetrics.recordResult("stream", "error");
                 emitter.send(errorResult);
                 emitter.complete();
             } catch (Exception ex) {
@@ -882,19 +1576,290 @@ public class SearchServiceRefactored {
         }
     }
 
+    /**
+     * Repassa ao cliente de um seguidor os estágios publicados pelo líder, na ordem
+     */
+    private void followStages(SingleFlight.Flight<HybridSearchResultDTO> flight, String userQuery, SearchFilter filter,
+                              SseEmitter emitter, SearchCancellation cancellation) throws IOException, InterruptedException {
+        int next = 0;
+        while (true) {
+            cancellation.throwIfCancelled();
+            HybridSearchResultDTO stage = flight.awaitStage(next, FOLLOWER_POLL_MS, TimeUnit.MILLISECONDS);
+            if (stage != null) {
+                emitter.send(copyForRequest(stage, userQuery, filter));
+                next++;
+            } else if (flight.isExhausted(next)) {
+                break;
+            }
+        }
+        emitter.complete();
+    }
+
+    /**
+     * Etapas da busca via SSE: resultados exatos, parcial (se o orçamento esgotar) e completos.
+     * Cada estágio é entregue ao {@code sink}.
+     */
+    private void streamSearchStages(String userQuery, SearchFilter filter, int page, int size, long deadlineNanos,
+                                    SearchCancellation cancellation, Consumer<HybridSearchResultDTO> sink,
+                                    SearchRequestEvent event) {
+        Consumer<HybridSearchResultDTO> stageSink = stage -> {
+            searchMetrics.recordResult("stream", stage.getResultType());
+            event.resultType = stage.getResultType();
+            sink.accept(stage);
+        };
+        String didYouMean = buildDidYouMean(userQuery, filter);
+        long dataVersion = dataVersionService.current();
+        String cacheKey = canonicalKey(filter, true).encode();
+        if (!filter.getSemanticQuery().isBlank()) {
+            int[] cachedRanking = searchResultCache.get(cacheKey, dataVersion);
+            if (cachedRanking != null) {
+                logger.info("⏱️ CACHE: ranking de {} resultados reaproveitado (versão {})", cachedRanking.length, dataVersion);
+                HybridSearchResultDTO cached = runCancellableQuery(cancellation,
+                        () -> buildFromRanking(cachedRanking, userQuery, filter, page, size));
+                cached.setResultType("complete");
+                cached.setDidYouMean(didYouMean);
+                event.plan = "cache";
+                event.finalResults = cachedRanking.length;
+                stageSink.accept(cached);
+                return;
+            }
+        }
+
+        // 2. Busca IDs de projetos que correspondem aos filtros.
+        long startFilter = System.currentTimeMillis();
+        List<Integer> relevantIds = runCancellableQuery(cancellation, () -> findRelevantIdsByFilters(filter));
+        event.filterSqlDuration = System.currentTimeMillis() - startFilter;
+        event.filteredCandidates = relevantIds.size();
+        searchMetrics.recordCandidates(SearchMetrics.CandidateSet.FILTERED, relevantIds.size());
+        if (relevantIds.isEmpty()) {
+            logger.info("Nenhum projeto encontrado para os filtros aplicados.");
+            event.plan = "empty";
+            HybridSearchResultDTO emptyResult = createEmptyResult(filter, page, size);
+            emptyResult.setResultType("exact");
+            emptyResult.setDidYouMean(didYouMean);
+            stageSink.accept(emptyResult);
+            return;
+        }
+        logger.info("{} projetos encontrados após filtragem inicial.", relevantIds.size());
+
+        // 3. Se não há query semântica, retorna apenas os resultados filtrados e paginados.
+        if (filter.getSemanticQuery().isBlank()) {
+            event.plan = "filter_only";
+            HybridSearchResultDTO filterOnlyResult = runCancellableQuery(cancellation,
+                    () -> performFilterOnlySearch(relevantIds, userQuery, filter, page, size));
+            filterOnlyResult.setResultType("exact");
+            filterOnlyResult.setDidYouMean(didYouMean);
+            event.finalResults = filterOnlyResult.getTotalElements();
+            stageSink.accept(filterOnlyResult);
+            return;
+        }
+
+        // 4. Prepara os termos da query para busca e ranking
+        event.plan = "hybrid";
+        List<String> queryTerms = getQueryTermsForSearch(filter);
+
+        long startExact = System.currentTimeMillis();
+        // 5. Busca por correspondências exatas dos termos da query.
+        List<Projeto> exactMatches = runCancellableQuery(cancellation, () -> findExactMatches(relevantIds, queryTerms));
+        searchMetrics.recordCandidates(SearchMetrics.CandidateSet.EXACT, exactMatches.size());
+        logger.info("Encontrados {} matches exatos.", exactMatches.size());
+        long timeExact = System.currentTimeMillis() - startExact;
+        logger.info("⏱️ BUSCA EXATA: {} ms | Encontrados {} resultados | IDs filtrados: {}",
+                timeExact, exactMatches.size(), relevantIds.size());
+        event.exactDuration = timeExact;
+        event.exactCandidates = exactMatches.size();
+                
+        // 6. Aplica o filtro de "frases exatas" (termos entre aspas) aos resultados exatos.
+        List<Projeto> filteredExactMatches = applyExactPhraseFilter(exactMatches, filter.getExactPhrases());
+        
+        // 7. Rankeia os resultados exatos para envio parcial
+        // Cria uma nova lista mutável a partir da lista imutável para poder ordenar
+        Timer.Sample rankingSample = searchMetrics.start();
+        List<Projeto> sortedExactMatches = new ArrayList<>(filteredExactMatches);
+        sortedExactMatches.sort((p1, p2) -> {
+            // Ordenação por ano e número
+            int compareByAno = Integer.compare(p2.getAno(), p1.getAno());
+            if (compareByAno != 0) return compareByAno;
+            return Integer.compare(p2.getNumero(), p1.getNumero());
+        });
+        searchMetrics.stop(rankingSample, SearchMetrics.Stage.RANKING);
+        
+        List<Projeto> pagedExactMatches = paginateResults(sortedExactMatches, page, size);
+        List<String> termsForHighlight = getTermsForHighlight(userQuery, filter.getExactPhrases());
+        
+        // 8. Cria o DTO com resultados parciais (apenas exatos)
+        HybridSearchResultDTO exactResultDTO = new HybridSearchResultDTO(
+            convertToDto(pagedExactMatches),
+            buildAppliedFiltersMap(filter),
+            page, size, sortedExactMatches.size(),
+            termsForHighlight
+        );
+        exactResultDTO.setResultType("exact");
+        exactResultDTO.setDidYouMean(didYouMean);
+        
+        // 9. Envia os resultados parciais
+        cancellation.throwIfCancelled();
+        stageSink.accept(exactResultDTO);
+
+        // 10. Se necessário, complementa com busca semântica.
+        long startSemantic = System.currentTimeMillis();
+        List<Projeto> semanticMatches = new ArrayList<>();
+        boolean partial = false;
+        if (sortedExactMatches.size() < AppConstants.MAX_RESULTS_LIMIT) {
+            List<Integer> exactMatchIds = sortedExactMatches.stream()
+                .map(Projeto::getId)
+                .collect(Collectors.toList()); // Usando Collectors.toList() para obter lista mutável
+            int limit = AppConstants.MAX_RESULTS_LIMIT - sortedExactMatches.size();
+            
+            // A inferência só roda se o cliente ainda estiver conectado
+            cancellation.throwIfCancelled();
+            Future<List<Projeto>> semanticPhase = startSemanticPhase(relevantIds, filter.getSemanticQuery(), null,
+                    exactMatchIds, limit, cancellation);
+            List<Projeto> withinBudget = awaitSemanticPhase(semanticPhase, deadlineNanos);
+            if (withinBudget == null && !semanticPhase.isDone()) {
+                // Orçamento esgotado: os exatos viram o resultado parcial e a fase semântica
+                // continua apenas enquanto o cliente estiver conectado
+                logger.info("⏱️ ORÇAMENTO ESGOTADO: fase semântica não concluída em {} ms, enviando resultado parcial", latencyBudgetMs);
+                HybridSearchResultDTO partialResultDTO = new HybridSearchResultDTO(
+                    exactResultDTO.getProjetos(), exactResultDTO.getAppliedFilters(),
+                    page, size, exactResultDTO.getTotalElements(), termsForHighlight
+                );
+                partialResultDTO.setResultType("partial");
+                partialResultDTO.setPartial(true);
+                partialResultDTO.setDidYouMean(didYouMean);
+                cancellation.throwIfCancelled();
+                stageSink.accept(partialResultDTO);
+                withinBudget = awaitSemanticPhase(semanticPhase, NO_DEADLINE);
+            }
+            if (withinBudget != null) {
+                semanticMatches = withinBudget;
+            } else {
+                partial = true;
+            }
+            searchMetrics.recordCandidates(SearchMetrics.CandidateSet.SEMANTIC, semanticMatches.size());
+            logger.info("Encontrados {} matches semânticos.", semanticMatches.size());
+        }
+        long timeSemantic = System.currentTimeMillis() - startSemantic;
+        logger.info("⏱️ BUSCA SEMÂNTICA: {} ms | Encontrados {} resultados",
+                timeSemantic, semanticMatches.size());
+        event.semanticDuration = timeSemantic;
+        event.semanticCandidates = semanticMatches.size();
+
+        // 11. Combina os resultados (exatos primeiro, depois semânticos).
+        // Como especificado pelo requisito, os resultados exatos sempre vêm primeiro
+        long startRanking = System.currentTimeMillis();
+        List<Projeto> finalResults = new ArrayList<>(sortedExactMatches);
+        finalResults.addAll(semanticMatches);
+
+        // 12. Aplica o filtro de "frases exatas" (termos entre aspas) novamente.
+        List<Projeto> finalFilteredResults = applyExactPhraseFilter(finalResults, filter.getExactPhrases());
+        searchMetrics.recordCandidates(SearchMetrics.CandidateSet.FINAL, finalFilteredResults.size());
+        event.rankingDuration = System.currentTimeMillis() - startRanking;
+        event.finalResults = finalFilteredResults.size();
+        logger.info("Total de resultados após filtro de frases exatas: {}", finalFilteredResults.size());
+        if (!partial) {
+            searchResultCache.put(cacheKey, dataVersion, toRanking(finalFilteredResults));
+        }
+
+        // 13. Pagina os resultados finais.
+        List<Projeto> pagedResults = paginateResults(finalFilteredResults, page, size);
+        
+        // 14. Prepara o DTO de resposta final.
+        List<ProjetoResponseDTO> dtos = convertToDto(pagedResults);
+
+        HybridSearchResultDTO finalResultDTO = new HybridSearchResultDTO(
+            dtos, buildAppliedFiltersMap(filter), page, size, finalFilteredResults.size(), termsForHighlight
+        );
+        finalResultDTO.setResultType(partial ? "partial" : "complete");
+        finalResultDTO.setPartial(partial);
+        finalResultDTO.setDidYouMean(didYouMean);
+        
+        // 15. Envia os resultados finais
+        cancellation.throwIfCancelled();
+        stageSink.accept(finalResultDTO);
+    }
+
     // Estruturas de dados auxiliares
     @Getter @AllArgsConstructor @ToString
-    private static class SearchFilter {
+    public static class SearchFilter {
         private final List<String> autores;
         private final List<Integer> anos;
         private final Integer numeroProjeto;
         private final String tipoProjeto;
         private final String semanticQuery;
         private final List<String> exactPhrases;
+        // Correções ortográficas aplicadas ou sugeridas (token digitado -> token corrigido)
+        private final Map<String, String> corrections;
     }
     
+    // Chave canônica da busca (cache de ranking); "staged" separa as buscas SSE das paginadas, que ranqueiam diferente
+    private record SearchKey(boolean staged, List<String> autores, List<Integer> anos, Integer numeroProjeto,
+                             String tipoProjeto, String semanticQuery, List<String> exactPhrases) {
+
+        /**
+         * Representação textual sem ambiguidade, usada como chave do cache (também na tabela compartilhada).
+         * Cada valor é prefixado pelo tamanho e cada lista pela quantidade de itens, então separadores
+         * dentro da query ou das frases não fazem buscas diferentes colidirem (o toString() do record não garante isso).
+         */
+        String encode() {
+            StringBuilder key = new StringBuilder(staged ? "s" : "p");
+            appendList(key, autores);
+            appendList(key, anos);
+            appendValue(key, numeroProjeto);
+            appendValue(key, tipoProjeto);
+            appendValue(key, semanticQuery);
+            appendList(key, exactPhrases);
+            return key.toString();
+        }
+
+        private static void appendList(StringBuilder key, List<?> values) {
+            key.append('[').append(values.size());
+            values.forEach(value -> appendValue(key, value));
+        }
+
+        private static void appendValue(StringBuilder key, Object value) {
+            if (value == null) {
+                key.append("|-");
+                return;
+            }
+            String text = value.toString();
+            key.append('|').append(text.length()).append(':').append(text);
+        }
+    }
+
+    // Chave de coalescência: a mesma busca na mesma janela de página
+    private record PageWindowKey(SearchKey search, int page, int size) {
+    }
+
+    // Chave de busca (seek) da paginação por cursor, na ordem de KEYSET_ORDER
+    private record KeysetCursor(int ano, int numero, int id) {
+
+        static KeysetCursor after(Projeto projeto) {
+            return new KeysetCursor(projeto.getAno(), projeto.getNumero(), projeto.getId());
+        }
+
+        String encode() {
+            String chave = ano + "." + numero + "." + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(chave.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static KeysetCursor decode(String cursor) {
+            try {
+                String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\.");
+                if (partes.length != 3) {
+                    throw new InvalidCursorException("Cursor inválido");
+                }
+                return new KeysetCursor(Integer.parseInt(partes[0]), Integer.parseInt(partes[1]), Integer.parseInt(partes[2]));
+            } catch (IllegalArgumentException e) {
+                // Inclui NumberFormatException e erros de Base64
+                throw new InvalidCursorException("Cursor inválido", e);
+            }
+        }
+    }
+
     private static class FilterExtractionResult {
         Set<String> autores = new HashSet<>();
+        Map<String, String> corrections = new LinkedHashMap<>();
         List<Integer> anos = new ArrayList<>();
         Integer numero;
         String tipo;
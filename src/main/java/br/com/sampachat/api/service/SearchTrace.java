@@ -0,0 +1,67 @@
+package br.com.sampachat.api.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rastro de uma busca executada em modo debug (explain).
+ * <p>
+ * Fica associado à thread da requisição enquanto a busca roda: as etapas instrumentadas pelo
+ * SearchMetrics registram aqui a duração e os candidatos, e as consultas SQL registram o texto e os
+ * parâmetros para serem reexecutadas depois com EXPLAIN. Fora do modo debug não há rastro e o
+ * custo é uma leitura de ThreadLocal.
+ */
+final class SearchTrace {
+
+    private static final ThreadLocal<SearchTrace> CURRENT = new ThreadLocal<>();
+
+    final Map<String, Double> stageMillis = new LinkedHashMap<>();
+    final Map<String, Integer> candidates = new LinkedHashMap<>();
+    final List<CacheLookup> cacheLookups = new ArrayList<>();
+    final List<TracedStatement> statements = new ArrayList<>();
+    String plan;
+
+    private SearchTrace() {
+    }
+
+    static SearchTrace start() {
+        SearchTrace trace = new SearchTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * Rastro da busca em andamento nesta thread, ou null fora do modo debug
+     */
+    static SearchTrace current() {
+        return CURRENT.get();
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    void stage(String stage, long nanos) {
+        stageMillis.merge(stage, nanos / 1_000_000.0, Double::sum);
+    }
+
+    void candidates(String set, int size) {
+        candidates.put(set, size);
+    }
+
+    void cacheLookup(String key, long dataVersion, boolean hit) {
+        cacheLookups.add(new CacheLookup(key, dataVersion, hit));
+    }
+
+    void statement(String stage, String sql, Map<String, Object> parameters) {
+        statements.add(new TracedStatement(stage, sql, new LinkedHashMap<>(parameters)));
+    }
+
+    record CacheLookup(String key, long dataVersion, boolean hit) {
+    }
+
+    record TracedStatement(String stage, String sql, Map<String, Object> parameters) {
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.sampachat.api.service;
+
+/**
+ * Exceção lançada quando o controle de admissão recusa um trabalho por sobrecarga.
+ * O controller a converte em 503 com o cabeçalho Retry-After.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,154 @@
+package br.com.sampachat.api.service;
+
+import br.com.sampachat.api.repository.ProjetoRepository;
+import br.com.sampachat.api.repository.ProjetoVocabulario;
+import br.com.sampachat.api.util.SymSpellIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Serviço de correção ortográfica para nomes de autores e termos do vocabulário de palavras-chave.
+ * <p>
+ * Os dicionários de deleções ({@link SymSpellIndex}) são montados na inicialização e após cada
+ * sincronização, de modo que uma consulta custa apenas algumas buscas em mapa,
+ * sem percorrer a lista de autores.
+ */
+@Service
+public class SpellCheckService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpellCheckService.class);
+
+    // Palavras menores que isso são ambíguas demais para correção automática
+    private static final int MIN_TOKEN_LENGTH = 4;
+    private static final int MAX_EDIT_DISTANCE = 2;
+    private static final int PREFIX_LENGTH = 7;
+
+    @Autowired
+    private ProjetoRepository projetoRepository;
+
+    private volatile Dictionaries dictionaries = new Dictionaries(
+            SymSpellIndex.build(Map.of(), MAX_EDIT_DISTANCE, PREFIX_LENGTH),
+            SymSpellIndex.build(Map.of(), MAX_EDIT_DISTANCE, PREFIX_LENGTH),
+            Set.of());
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    @EventListener
+    public void onProjetosSincronizados(ProjetosSincronizadosEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Sugere o token de autor mais próximo para uma palavra normalizada que não corresponde
+     * exatamente a nenhum autor. Palavras conhecidas do vocabulário (ementas, palavras-chave)
+     * nunca são corrigidas para autor.
+     */
+    public Optional<String> correctAutorToken(String token) {
+        Dictionaries current = dictionaries;
+        if (!isCorrectable(token, current)) return Optional.empty();
+        return current.autores.lookup(token, maxDistanceFor(token))
+                .filter(s -> s.getDistance() > 0)
+                .map(SymSpellIndex.Suggestion::getTerm);
+    }
+
+    /**
+     * Sugere o termo de palavra-chave mais próximo para uma palavra normalizada desconhecida
+     */
+    public Optional<String> correctTermo(String token) {
+        Dictionaries current = dictionaries;
+        if (!isCorrectable(token, current)) return Optional.empty();
+        return current.termos.lookup(token, maxDistanceFor(token))
+                .filter(s -> s.getDistance() > 0)
+                .map(SymSpellIndex.Suggestion::getTerm);
+    }
+
+    /**
+     * Reconstrói os dicionários a partir do estado atual da tabela de projetos
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            // Tokens de autores: mesma limpeza usada na extração de filtros da busca
+            Map<String, Integer> autorTokens = new HashMap<>();
+            for (String autorCompleto : projetoRepository.findDistinctAutores()) {
+                String nomeLimpo = autorCompleto.replaceAll("\\s*\\(.*\\)", "").trim();
+                for (String token : tokenize(nomeLimpo)) {
+                    autorTokens.merge(token, 1, Integer::sum);
+                }
+            }
+
+            // Vocabulário de palavras-chave, com frequência por projeto
+            Map<String, Integer> termos = new HashMap<>();
+            for (ProjetoVocabulario projeto : projetoRepository.findAllVocabulario()) {
+                if (projeto.getPalavrasChave() == null) continue;
+                for (String token : new HashSet<>(tokenize(projeto.getPalavrasChave().replace("|", " ")))) {
+                    termos.merge(token, 1, Integer::sum);
+                }
+            }
+
+            // Palavras que aparecem nas ementas são consideradas corretas e não são corrigidas
+            Set<String> conhecidas = new HashSet<>(termos.keySet());
+            for (String ementa : projetoRepository.findAllEmentas()) {
+                conhecidas.addAll(tokenize(ementa));
+            }
+
+            this.dictionaries = new Dictionaries(
+                    SymSpellIndex.build(autorTokens, MAX_EDIT_DISTANCE, PREFIX_LENGTH),
+                    SymSpellIndex.build(termos, MAX_EDIT_DISTANCE, PREFIX_LENGTH),
+                    conhecidas);
+
+            logger.info("Dicionários de correção reconstruídos em {} ms: {} tokens de autores, {} termos, {} palavras conhecidas",
+                    System.currentTimeMillis() - start, autorTokens.size(), termos.size(), conhecidas.size());
+        } catch (Exception e) {
+            // Mantém os dicionários anteriores em caso de falha
+            logger.error("Erro ao reconstruir dicionários de correção: {}", e.getMessage(), e);
+        }
+    }
+
+    private boolean isCorrectable(String token, Dictionaries current) {
+        return token != null
+                && token.length() >= MIN_TOKEN_LENGTH
+                && token.chars().allMatch(Character::isLetter)
+                && !current.conhecidas.contains(token);
+    }
+
+    private int maxDistanceFor(String token) {
+        return token.length() <= 5 ? 1 : MAX_EDIT_DISTANCE;
+    }
+
+    private List<String> tokenize(String texto) {
+        String normalizado = normalizeText(texto);
+        if (normalizado.isEmpty()) return Collections.emptyList();
+        return Arrays.stream(normalizado.split("[^\\p{L}]+"))
+                .filter(token -> token.length() > 2)
+                .toList();
+    }
+
+    private String normalizeText(String texto) {
+        if (texto == null || texto.isBlank()) return "";
+        return Normalizer.normalize(texto.toLowerCase(), Normalizer.Form.NFD)
+                         .replaceAll("\\p{M}", "");
+    }
+
+    private static final class Dictionaries {
+        private final SymSpellIndex autores;
+        private final SymSpellIndex termos;
+        private final Set<String> conhecidas;
+
+        private Dictionaries(SymSpellIndex autores, SymSpellIndex termos, Set<String> conhecidas) {
+            this.autores = autores;
+            this.termos = termos;
+            this.conhecidas = conhecidas;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.sampachat.api.service;
+
+import br.com.sampachat.api.dto.splegis.SPLegisProjetoDTO;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Leitura incremental (streaming) das páginas da API do SPLegis.
+ * <p>
+ * O corpo da resposta é lido direto do InputStream com a API de streaming do Jackson: cada item do
+ * array "data" é convertido assim que lido e entregue ao consumidor, sem montar a árvore JSON da
+ * resposta inteira em memória. Os campos que não são gravados (texto, natodigital, norma...) são
+ * pulados sem serem convertidos. Quem guarda os itens é o consumidor: a sincronização mantém os
+ * DTOs de cada janela até gravá-la (ver SyncProjetosService).
+ */
+@Component
+public class SplegisPageParser {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Metadados da página lida
+     *
+     * @param recordsTotal    total de projetos informado pelo SPLegis (pode ser null)
+     * @param recordsFiltered total de projetos que atendem aos filtros (pode ser null)
+     * @param items           projetos lidos do array "data"
+     * @param bytes           bytes lidos do corpo
+     * @param error           mensagem de erro informada pelo SPLegis (ou null)
+     */
+    public record PageSummary(Integer recordsTotal, Integer recordsFiltered, int items, long bytes, String error) {
+    }
+
+    /**
+     * Lê a página, entregando cada projeto ao consumidor assim que é convertido
+     */
+    public PageSummary parse(InputStream body, Consumer<SPLegisProjetoDTO> itemConsumer) throws IOException {
+        ObjectReader itemReader = objectMapper.readerFor(SPLegisProjetoDTO.class);
+        Integer recordsTotal = null;
+        Integer recordsFiltered = null;
+        String error = null;
+        int items = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Resposta do SPLegis não é um objeto JSON");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.currentName();
+                JsonToken valor = parser.nextToken();
+                switch (campo) {
+                    case "recordsTotal" -> recordsTotal = intOrNull(parser);
+                    case "recordsFiltered" -> recordsFiltered = intOrNull(parser);
+                    case "error" -> error = parser.getValueAsString();
+                    case "data" -> {
+                        if (valor != JsonToken.START_ARRAY) {
+                            parser.skipChildren();
+                            break;
+                        }
+                        JsonToken token;
+                        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                            if (token != JsonToken.START_OBJECT) {
+                                parser.skipChildren();
+                                continue;
+                            }
+                            itemConsumer.accept(itemReader.readValue(parser));
+                            items++;
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            return new PageSummary(recordsTotal, recordsFiltered, items,
+                    parser.currentLocation().getByteOffset(), error);
+        }
+    }
+
+    private static Integer intOrNull(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsInt();
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.sampachat.api.service;
+
+import br.com.sampachat.api.util.TokenBucket;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limites das requisições da sincronização aos sistemas da Câmara (SPLegis).
+ * <p>
+ * Toda requisição passa por um limitador de taxa global (token bucket) e por um limite de
+ * requisições simultâneas por host, ambos configuráveis. Assim a sincronização pode buscar
+ * várias janelas em paralelo sem exceder o que o servidor de origem tolera.
+ */
+@Service
+public class SplegisThrottle {
+
+    @Value("${app.sync.splegis.rate-per-second:2}")
+    private double ratePerSecond;
+
+    @Value("${app.sync.splegis.burst:4}")
+    private int burst;
+
+    @Value("${app.sync.splegis.max-concurrent-per-host:4}")
+    private int maxConcurrentPerHost;
+
+    private TokenBucket rateLimiter;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        rateLimiter = new TokenBucket(ratePerSecond, burst);
+    }
+
+    /**
+     * Aguarda uma vaga no host e uma ficha do limitador de taxa. A vaga é devolvida ao fechar a permissão.
+     */
+    public Permit acquire(String url) throws InterruptedException {
+        String host = URI.create(url).getHost();
+        Semaphore permits = hostPermits.computeIfAbsent(host, h -> new Semaphore(Math.max(1, maxConcurrentPerHost), true));
+        permits.acquire();
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            permits.release();
+            throw e;
+        }
+        return permits::release;
+    }
+
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
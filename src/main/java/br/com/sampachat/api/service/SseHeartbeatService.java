@@ -0,0 +1,61 @@
+package br.com.sampachat.api.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heartbeats das buscas SSE em um agendador próprio.
+ * <p>
+ * O envio ao cliente é bloqueante: um cliente lento prende a thread até a escrita terminar. Com um
+ * agendador dedicado (app.search.sse.heartbeat-threads), isso não atrasa o agendador padrão do Spring,
+ * que roda os jobs @Scheduled. O agendador não é exposto como bean TaskScheduler para que o
+ * auto-configurado continue existindo.
+ */
+@Service
+public class SseHeartbeatService {
+
+    @Value("${app.search.sse.heartbeat-threads:4}")
+    private int threads;
+
+    private ScheduledThreadPoolExecutor scheduler;
+
+    @PostConstruct
+    public void init() {
+        scheduler = new ScheduledThreadPoolExecutor(Math.max(1, threads), new CustomizableThreadFactory("sse-heartbeat-"));
+        // Heartbeats cancelados saem da fila na hora, sem esperar o próximo disparo
+        scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Envia um comentário SSE a cada intervalo até o futuro ser cancelado.
+     * Se o envio falhar (cliente desconectado), chama {@code onFailure} e para de enviar.
+     */
+    public ScheduledFuture<?> start(SseEmitter emitter, Duration interval, Runnable onFailure) {
+        long millis = interval.toMillis();
+        ScheduledFuture<?>[] self = new ScheduledFuture<?>[1];
+        self[0] = scheduler.scheduleAtFixedRate(() -> {
+            try {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (Exception e) {
+                onFailure.run();
+                // Lançar a exceção encerra as execuções periódicas
+                throw new IllegalStateException("Cliente SSE desconectado", e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+        return self[0];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
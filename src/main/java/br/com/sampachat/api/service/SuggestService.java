@@ -0,0 +1,150 @@
+package br.com.sampachat.api.service;
+
+import br.com.sampachat.api.dto.SuggestionDTO;
+import br.com.sampachat.api.repository.ProjetoRepository;
+import br.com.sampachat.api.repository.ProjetoVocabulario;
+import br.com.sampachat.api.util.PrefixIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serviço de autocompletar (typeahead) para a caixa de busca.
+ * <p>
+ * Mantém em memória um {@link PrefixIndex} com autores, partidos, assuntos e
+ * identificadores de projetos, ordenados pela quantidade de projetos associados.
+ * Nenhuma consulta ao banco ou ao modelo é feita por tecla digitada; o índice é
+ * reconstruído na inicialização e após cada sincronização.
+ */
+@Service
+public class SuggestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestService.class);
+
+    public static final int MIN_PREFIX_LENGTH = 2;
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final Pattern PARTIDO_PATTERN = Pattern.compile("\\((.*?)\\)");
+
+    @Autowired
+    private ProjetoRepository projetoRepository;
+
+    // Substituído atomicamente a cada reconstrução
+    private volatile PrefixIndex<SuggestionDTO> index = PrefixIndex.<SuggestionDTO>builder().build();
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    @EventListener
+    public void onProjetosSincronizados(ProjetosSincronizadosEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Retorna sugestões cujo texto (ou alguma de suas palavras) começa com o prefixo digitado
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String normalized = normalizeText(prefix).trim().replaceAll("\\s+", " ");
+        if (normalized.length() < MIN_PREFIX_LENGTH) {
+            return Collections.emptyList();
+        }
+        return index.search(normalized, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS));
+    }
+
+    /**
+     * Reconstrói o índice a partir do estado atual da tabela de projetos
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            List<ProjetoVocabulario> projetos = projetoRepository.findAllVocabulario();
+
+            Map<String, Integer> autores = new HashMap<>();
+            Map<String, Integer> partidos = new HashMap<>();
+            Map<String, Integer> assuntos = new HashMap<>();
+            List<ProjetoVocabulario> identificadores = new ArrayList<>(projetos.size());
+
+            for (ProjetoVocabulario projeto : projetos) {
+                if (projeto.getAutor() != null && !projeto.getAutor().isBlank()) {
+                    for (String autorCompleto : projeto.getAutor().split(",")) {
+                        Matcher partidoMatcher = PARTIDO_PATTERN.matcher(autorCompleto);
+                        if (partidoMatcher.find() && !partidoMatcher.group(1).isBlank()) {
+                            partidos.merge(partidoMatcher.group(1).trim(), 1, Integer::sum);
+                        }
+                        String nomeLimpo = autorCompleto.replaceAll("\\s*\\(.*\\)", "").trim();
+                        if (!nomeLimpo.isEmpty()) {
+                            autores.merge(nomeLimpo, 1, Integer::sum);
+                        }
+                    }
+                }
+                if (projeto.getPalavrasChave() != null && !projeto.getPalavrasChave().isBlank()) {
+                    for (String assunto : projeto.getPalavrasChave().split("\\|")) {
+                        if (!assunto.isBlank()) {
+                            assuntos.merge(assunto.trim(), 1, Integer::sum);
+                        }
+                    }
+                }
+                if (projeto.getTipo() != null && projeto.getNumero() != null && projeto.getAno() != null) {
+                    identificadores.add(projeto);
+                }
+            }
+
+            PrefixIndex.Builder<SuggestionDTO> builder = PrefixIndex.<SuggestionDTO>builder().topK(MAX_SUGGESTIONS);
+            addWithTokenKeys(builder, autores, "autor");
+            addWithTokenKeys(builder, partidos, "partido");
+            addWithTokenKeys(builder, assuntos, "assunto");
+
+            // Identificadores: peso 1, sempre atrás de autores e assuntos com o mesmo prefixo
+            identificadores.sort(Comparator.comparing(ProjetoVocabulario::getAno)
+                    .thenComparing(ProjetoVocabulario::getNumero).reversed());
+            for (ProjetoVocabulario projeto : identificadores) {
+                String texto = projeto.getTipo().name() + " " + projeto.getNumero() + "/" + projeto.getAno();
+                String numeroAno = projeto.getNumero() + "/" + projeto.getAno();
+                builder.add(new SuggestionDTO(texto, "projeto", 1), 1,
+                        List.of(normalizeText(texto), normalizeText(projeto.getTipo().name() + projeto.getNumero() + "/" + projeto.getAno()), numeroAno));
+            }
+
+            PrefixIndex<SuggestionDTO> novoIndex = builder.build();
+            this.index = novoIndex;
+
+            logger.info("Índice de sugestões reconstruído em {} ms: {} autores, {} partidos, {} assuntos, {} projetos",
+                    System.currentTimeMillis() - start, autores.size(), partidos.size(), assuntos.size(), identificadores.size());
+        } catch (Exception e) {
+            // Mantém o índice anterior em caso de falha
+            logger.error("Erro ao reconstruir índice de sugestões: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Indexa cada termo pelo texto completo e por cada palavra a partir da segunda,
+     * para que "lima" encontre "Keit Lima"
+     */
+    private void addWithTokenKeys(PrefixIndex.Builder<SuggestionDTO> builder, Map<String, Integer> termos, String categoria) {
+        termos.forEach((texto, frequencia) -> {
+            String normalizado = normalizeText(texto).trim().replaceAll("\\s+", " ");
+            List<String> keys = new ArrayList<>();
+            keys.add(normalizado);
+            String[] tokens = normalizado.split(" ");
+            for (int i = 1; i < tokens.length; i++) {
+                keys.add(String.join(" ", Arrays.copyOfRange(tokens, i, tokens.length)));
+            }
+            builder.add(new SuggestionDTO(texto, categoria, frequencia), frequencia, keys);
+        });
+    }
+
+    private String normalizeText(String texto) {
+        if (texto == null || texto.isBlank()) return "";
+        return Normalizer.normalize(texto.toLowerCase(), Normalizer.Form.NFD)
+                         .replaceAll("\\p{M}", "");
+    }
+}
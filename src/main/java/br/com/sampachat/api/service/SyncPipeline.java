@@ -0,0 +1,305 @@
+package br.com.sampachat.api.service;
+
+import br.com.sampachat.api.config.AsyncConfig;
+import br.com.sampachat.api.model.Projeto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estágios da sincronização completa ligados por filas limitadas.
+ * <p>
+ * Busca + leitura (streaming) das janelas rodam no executor de busca; o upsert em lote roda na thread
+ * da sincronização, em ordem; a geração de embeddings roda em workers próprios, que consomem lotes de
+ * uma fila limitada. Quando a fila enche, o upsert espera (e, com ele, a antecipação de janelas), então
+ * a memória fica limitada e HTTP, banco e modelo trabalham ao mesmo tempo.
+ * <p>
+ * Erros são isolados por lote: um lote de embeddings que falha é registrado e os demais continuam.
+ * No desligamento da aplicação a sincronização para de buscar janelas novas e os lotes já na fila são
+ * processados até app.sync.pipeline.drain-timeout-seconds. A drenagem roda na parada do ciclo de vida
+ * (SmartLifecycle), que acontece antes da destruição de qualquer bean: o modelo de embeddings e o
+ * DataSource usados pelos workers ainda estão disponíveis.
+ * <p>
+ * sampachat.sync.pipeline.items: projetos por estágio (fetch, upsert, embedding) e resultado (success, failure).
+ * sampachat.sync.pipeline.embedding.queue: lotes aguardando os workers de embedding.
+ */
+@Service
+public class SyncPipeline implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncPipeline.class);
+    // Projetos por lote entregue aos workers (uma inferência em lote do modelo)
+    public static final int EMBEDDING_BATCH_SIZE = 64;
+
+    public enum Stage {
+        FETCH("fetch"),
+        UPSERT("upsert"),
+        EMBEDDING("embedding");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    /**
+     * Geração e gravação dos embeddings de um lote
+     */
+    @FunctionalInterface
+    public interface Embedder {
+        void embed(List<Projeto> lote) throws Exception;
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier(AsyncConfig.SYNC_EMBEDDING_EXECUTOR)
+    private TaskExecutor embeddingExecutor;
+
+    @Value("${app.sync.pipeline.embedding-workers:2}")
+    private int embeddingWorkers;
+
+    @Value("${app.sync.pipeline.embedding-queue-capacity:8}")
+    private int embeddingQueueCapacity;
+
+    @Value("${app.sync.pipeline.drain-timeout-seconds:120}")
+    private long drainTimeoutSeconds;
+
+    @Value("${app.sync.pipeline.completion-timeout-minutes:60}")
+    private long completionTimeoutMinutes;
+
+    private final Set<EmbeddingStage> activeStages = ConcurrentHashMap.newKeySet();
+    private volatile boolean shuttingDown;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("sampachat.sync.pipeline.embedding.queue", activeStages,
+                        stages -> stages.stream().mapToInt(EmbeddingStage::queued).sum())
+                .description("Lotes aguardando os workers de embedding da sincronização")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Conta projetos que passaram (ou falharam) em um estágio
+     */
+    public void record(Stage stage, int projetos, boolean success) {
+        if (projetos <= 0) {
+            return;
+        }
+        Counter.builder("sampachat.sync.pipeline.items")
+                .description("Projetos processados por estágio da sincronização")
+                .tag("stage", stage.tag)
+                .tag("outcome", success ? "success" : "failure")
+                .register(meterRegistry)
+                .increment(projetos);
+    }
+
+    /**
+     * A aplicação está desligando: a sincronização não deve buscar janelas novas
+     */
+    public boolean isShuttingDown() {
+        return shuttingDown;
+    }
+
+    /**
+     * Inicia os workers de embedding de uma sincronização
+     */
+    public EmbeddingStage startEmbeddingStage(Embedder embedder, SyncStatusService.SyncProgress progress) {
+        if (shuttingDown) {
+            throw new IllegalStateException("Pipeline de sincronização encerrado");
+        }
+        int workers = Math.max(1, embeddingWorkers);
+        EmbeddingStage stage = new EmbeddingStage(embedder, progress, Math.max(1, embeddingQueueCapacity), workers);
+        activeStages.add(stage);
+        for (int i = 0; i < workers; i++) {
+            embeddingExecutor.execute(stage::work);
+        }
+        return stage;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Parada no desligamento da aplicação: drena os embeddings na fila antes de os beans serem destruídos
+     */
+    @Override
+    public void stop() {
+        try {
+            shutdown();
+        } finally {
+            running = false;
+        }
+    }
+
+    @Override
+    public int getPhase() {
+        // Fase mais alta: para entre os primeiros, antes do servidor web; os workers já em execução
+        // continuam mesmo que o executor seja pausado na mesma fase
+        return SmartLifecycle.DEFAULT_PHASE;
+    }
+
+    private void shutdown() {
+        shuttingDown = true;
+        if (activeStages.isEmpty()) {
+            return;
+        }
+        logger.info("Desligando: aguardando até {} s para processar os embeddings na fila da sincronização",
+                drainTimeoutSeconds);
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(drainTimeoutSeconds);
+        for (EmbeddingStage stage : activeStages) {
+            stage.close();
+        }
+        try {
+            for (EmbeddingStage stage : activeStages) {
+                long restante = limite - System.nanoTime();
+                if (restante <= 0 || !stage.done.await(restante, TimeUnit.NANOSECONDS)) {
+                    logger.warn("Embeddings da sincronização não terminaram no prazo; {} projetos ficam sem embedding "
+                            + "até a próxima sincronização", stage.pending());
+                    stage.abandon();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Fila limitada de lotes para embedding e os workers que a consomem
+     */
+    public final class EmbeddingStage {
+
+        private final Embedder embedder;
+        private final SyncStatusService.SyncProgress progress;
+        private final BlockingQueue<List<Projeto>> queue;
+        private final CountDownLatch done;
+        private final AtomicInteger embedded = new AtomicInteger();
+        // Projetos enfileirados que ainda não foram processados (com sucesso ou falha)
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean closed;
+        private volatile boolean abandoned;
+
+        private EmbeddingStage(Embedder embedder, SyncStatusService.SyncProgress progress, int capacity, int workers) {
+            this.embedder = embedder;
+            this.progress = progress;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.done = new CountDownLatch(workers);
+        }
+
+        /**
+         * Enfileira os projetos em lotes; espera enquanto a fila estiver cheia (contrapressão)
+         */
+        public void submit(List<Projeto> projetos) throws InterruptedException {
+            for (int i = 0; i < projetos.size(); i += EMBEDDING_BATCH_SIZE) {
+                if (closed) {
+                    throw new IllegalStateException("Pipeline de sincronização encerrado");
+                }
+                List<Projeto> lote = List.copyOf(projetos.subList(i, Math.min(i + EMBEDDING_BATCH_SIZE, projetos.size())));
+                queue.put(lote);
+                pending.addAndGet(lote.size());
+            }
+        }
+
+        /**
+         * Não aceita mais lotes; os workers terminam depois de esvaziar a fila
+         */
+        public void close() {
+            closed = true;
+        }
+
+        /**
+         * Fecha a fila e espera os workers processarem tudo o que foi enfileirado, por até
+         * app.sync.pipeline.completion-timeout-minutes. No fim do prazo os lotes restantes são
+         * descartados e registrados; esses projetos continuam sem embedding e entram na próxima sincronização.
+         *
+         * @return projetos com embedding gerado e gravado
+         */
+        public int awaitCompletion() throws InterruptedException {
+            close();
+            try {
+                if (!done.await(completionTimeoutMinutes, TimeUnit.MINUTES)) {
+                    int restantes = pending.get();
+                    logger.error("Embeddings da sincronização não terminaram em {} min; {} projetos ({} lotes na fila) "
+                            + "ficam sem embedding até a próxima sincronização", completionTimeoutMinutes, restantes, queued());
+                    abandon();
+                    progress.embeddingFailed(restantes);
+                    record(Stage.EMBEDDING, restantes, false);
+                }
+            } finally {
+                activeStages.remove(this);
+            }
+            return embedded.get();
+        }
+
+        int queued() {
+            return queue.size();
+        }
+
+        int pending() {
+            return pending.get();
+        }
+
+        private void abandon() {
+            abandoned = true;
+            queue.clear();
+        }
+
+        private void work() {
+            try {
+                while (!abandoned && !(closed && queue.isEmpty())) {
+                    List<Projeto> lote = queue.poll(200, TimeUnit.MILLISECONDS);
+                    if (lote == null) {
+                        continue;
+                    }
+                    try {
+                        embedder.embed(lote);
+                        embedded.addAndGet(lote.size());
+                        progress.projetosEmbedded(lote.size());
+                        record(Stage.EMBEDDING, lote.size(), true);
+                    } catch (Exception e) {
+                        logger.error("Erro ao gerar embeddings para um lote de {} projetos: {}", lote.size(), e.getMessage(), e);
+                        progress.embeddingFailed(lote.size());
+                        record(Stage.EMBEDDING, lote.size(), false);
+                    } finally {
+                        pending.addAndGet(-lote.size());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+}
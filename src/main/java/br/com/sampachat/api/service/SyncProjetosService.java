@@ -1,20 +1,32 @@
 package br.com.sampachat.api.service;
 
+import br.com.sampachat.api.config.AsyncConfig;
 import br.com.sampachat.api.dto.splegis.SPLegisProjetoDTO;
-import br.com.sampachat.api.dto.splegis.SPLegisResponseDTO;
+import br.com.sampachat.api.jfr.SplegisFetchEvent;
+import br.com.sampachat.api.jfr.UpsertBatchEvent;
 import br.com.sampachat.api.model.Projeto;
 import br.com.sampachat.api.model.TipoProposicao;
+import br.com.sampachat.api.repository.ProjetoBulkUpsert;
 import br.com.sampachat.api.repository.ProjetoRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import br.com.sampachat.api.repository.SyncCheckpointRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.text.Normalizer;
 import java.time.Duration;
@@ -22,7 +34,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -33,8 +49,14 @@ import java.util.stream.Collectors;
 public class SyncProjetosService {
     
     private static final Logger logger = LoggerFactory.getLogger(SyncProjetosService.class);
-    private static final String BASE_URL = "https://splegisconsulta.saopaulo.sp.leg.br/Pesquisa/PageDataProjeto";
+    private static final String PAGE_DATA_PATH = "/Pesquisa/PageDataProjeto";
     public static final Map<Integer, TipoProposicao> TIPO_MAP = new HashMap<>();
+    // Projetos por página pedidos ao SPLegis (parâmetro length). Como o número é único por tipo e ano,
+    // uma janela de até PAGE_LENGTH números nunca é truncada
+    static final int PAGE_LENGTH = 1000;
+    static final int MAX_NUMERO = 9999;
+    private static final int WINDOW_ATTEMPTS = 3;
+    private static final long WINDOW_RETRY_BASE_MS = 2000L;
     
     static {
         // Mapeamento entre o tipo da API SPLegis e nosso enum TipoProposicao
@@ -56,15 +78,79 @@ public class SyncProjetosService {
     @Autowired
     private RestTemplate restTemplate;
     
-    @Autowired
-    private ObjectMapper objectMapper;
-    
     @Autowired
     private SyncStatusService syncStatusService;
     
     @Autowired
     private AlertService alertService;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private ProjetosRelacionadosService projetosRelacionadosService;
+    
+    @Autowired
+    private DataVersionService dataVersionService;
+    
+    @Autowired
+    @Qualifier(AsyncConfig.SYNC_EXECUTOR)
+    private TaskExecutor syncTaskExecutor;
+    
+    @Autowired
+    @Qualifier(AsyncConfig.SYNC_FETCH_EXECUTOR)
+    private AsyncTaskExecutor syncFetchExecutor;
+    
+    @Autowired
+    private SplegisThrottle splegisThrottle;
+    
+    @Autowired
+    private SplegisPageParser splegisPageParser;
+    
+    @Autowired
+    private ProjetoBulkUpsert projetoBulkUpsert;
+    
+    @Autowired
+    private SyncPipeline syncPipeline;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private SyncCheckpointRepository syncCheckpointRepository;
+    
+    // Projetos por bloco entregue pela leitura em streaming das páginas do SPLegis
+    
+    // Endereço do SPLegis (configurável para apontar testes e benchmarks para um servidor local)
+    @Value("${app.splegis.base-url:https://splegisconsulta.saopaulo.sp.leg.br}")
+    private String splegisBaseUrl;
+    
+    // Janelas buscadas antecipadamente por unidade (tipo, ano) na sincronização paralela
+    @Value("${app.sync.parallel.window-lookahead:3}")
+    private int windowLookahead;
+    
+    // Largura das janelas de números: inicial e mínima (a máxima é PAGE_LENGTH), ajustadas pela
+    // densidade de projetos e pelo tempo de resposta em relação ao alvo
+    @Value("${app.sync.window.initial-size:500}")
+    private int windowInitialSize;
+    
+    @Value("${app.sync.window.min-size:100}")
+    private int windowMinSize;
+    
+    @Value("${app.sync.window.target-latency-ms:3000}")
+    private long windowTargetLatencyMs;
+    
+    // Checkpoints por (tipo, ano) para retomar sincronizações interrompidas; mais antigos que o prazo são ignorados
+    @Value("${app.sync.checkpoint.enabled:true}")
+    private boolean checkpointsEnabled;
+    
+    @Value("${app.sync.checkpoint.max-age-hours:48}")
+    private long checkpointMaxAgeHours;
+    
+    // Sonda (um projeto por tipo e ano) antes de buscar páginas completas
+    @Value("${app.sync.probe.enabled:true}")
+    private boolean probeEnabled;
+    
     @Value("${app.sync.retry.max-attempts:3}")
     private int maxRetryAttempts;
     
@@ -160,15 +246,16 @@ public class SyncProjetosService {
     public void startAsyncSync() {
         logger.info("Iniciando sincronização assíncrona");
         
-        // Executa a sincronização em uma thread separada
-        asyncSync();
+        // Submete diretamente ao executor: chamar asyncSync() a partir desta classe ignoraria o proxy do @Async
+        // e a sincronização rodaria na thread da requisição
+        syncTaskExecutor.execute(this::asyncSync);
     }
     
     /**
      * Método assíncrono que executa a sincronização em segundo plano
      * A anotação @Async faz com que este método seja executado em uma thread separada
      */
-    @Async
+    @Async(AsyncConfig.SYNC_EXECUTOR)
     public void asyncSync() {
         logger.info("=== INÍCIO DA SINCRONIZAÇÃO ASSÍNCRONA ===");
         logger.info("Sincronização assíncrona iniciada em {}", 
@@ -217,7 +304,8 @@ public class SyncProjetosService {
     }
     
     /**
-     * Sincroniza projetos a partir do mais recente de cada tipo
+     * Sincroniza projetos a partir do mais recente de cada tipo (ou do checkpoint de uma execução
+     * interrompida)
      * Usa uma lógica mais direta e eficiente
      */
     @Transactional
@@ -244,7 +332,8 @@ public class SyncProjetosService {
                 }
             }
             
-            // Para cada tipo de proposição, busca projetos mais recentes
+            // Para cada tipo de proposição, define o intervalo de busca dos projetos mais recentes
+            List<SyncUnit> units = new ArrayList<>();
             for (Map.Entry<Integer, TipoProposicao> entry : TIPO_MAP.entrySet()) {
                 Integer spLegisTipo = entry.getKey();
                 TipoProposicao tipo = entry.getValue();
@@ -253,7 +342,6 @@ public class SyncProjetosService {
                 
                 // Número inicial para busca
                 int startNumero = 1;  // Por padrão, começa do 1
-                int endNumero = 1500; // Número máximo arbitrário para busca
                 int year = currentYear;
                 
                 // Se existe um projeto mais recente, começa a partir do próximo número
@@ -270,26 +358,28 @@ public class SyncProjetosService {
                     }
                 }
                 
-                logger.info("Buscando projetos do tipo {} de {} até {} do ano {}", 
-                        tipo, startNumero, endNumero, year);
-                
-                // Busca novos projetos na API
-                List<SPLegisProjetoDTO> novoProjetos = fetchProjetosFromSPLegis(spLegisTipo, startNumero, endNumero, year);
-                
-                if (novoProjetos.isEmpty()) {
-                    logger.info("Nenhum novo projeto do tipo {} encontrado", tipo);
-                } else {
-                    logger.info("Encontrados {} novos projetos do tipo {}", novoProjetos.size(), tipo);
-                    
-                    // Salva os novos projetos
-                    saveNewProjetos(novoProjetos, tipo);
-                }
+                units.add(new SyncUnit(spLegisTipo, tipo, startNumero, year));
             }
             
+            // Só os tipos que mudaram no SPLegis são buscados
+            units = changedUnits(units);
+            if (units.isEmpty()) {
+                syncStatusService.registerSyncSuccess();
+                logger.info("Nenhuma mudança no SPLegis: sincronização concluída sem buscar páginas");
+                return;
+            }
+            
+            // Busca pela cabeça e janelas, com checkpoints: uma execução interrompida é retomada
+            // de onde parou, e não do projeto mais recente gravado
+            crawlUnits(units);
+            
             // Registra o sucesso da sincronização
             syncStatusService.registerSyncSuccess();
             logger.info("Sincronização de projetos mais recentes concluída com sucesso");
             
+            // Notifica os índices em memória (sugestões etc.) para que sejam reconstruídos
+            publishSyncCompleted();
+            
         } catch (Exception e) {
             String mensagem = "Erro durante a sincronização de projetos: " + e.getMessage();
             logger.error(mensagem, e);
@@ -367,6 +457,8 @@ public class SyncProjetosService {
         // Ano atual
         int currentYear = Calendar.getInstance().get(Calendar.YEAR);
         
+        // Cada (tipo, ano) é uma unidade independente; todas são buscadas em paralelo
+        List<SyncUnit> units = new ArrayList<>();
         for (Map.Entry<Integer, TipoProposicao> entry : TIPO_MAP.entrySet()) {
             Integer spLegisTipo = entry.getKey();
             TipoProposicao tipo = entry.getValue();
@@ -377,14 +469,84 @@ public class SyncProjetosService {
             int startNumero = latestProjeto != null ? latestProjeto.getNumero() + 1 : 1;
             
             // Sincroniza projetos do ano atual
-            syncProjetosByTipoAndYear(spLegisTipo, tipo, startNumero, currentYear);
+            units.add(new SyncUnit(spLegisTipo, tipo, startNumero, currentYear));
             
             // Se estamos no início do ano (Janeiro-Março), sincroniza também o ano anterior
             // para garantir que pegamos projetos de fim de ano
             if (Calendar.getInstance().get(Calendar.MONTH) < 3) {
-                syncProjetosByTipoAndYear(spLegisTipo, tipo, 1, currentYear - 1);
+                units.add(new SyncUnit(spLegisTipo, tipo, 1, currentYear - 1));
             }
         }
+        
+        // Só as unidades que mudaram no SPLegis são buscadas
+        units = changedUnits(units);
+        if (units.isEmpty()) {
+            logger.info("Nenhuma mudança no SPLegis: sincronização concluída sem buscar páginas");
+            return;
+        }
+        crawlUnits(units);
+    }
+    
+    /**
+     * Sonda as unidades em paralelo e devolve só as que mudaram no SPLegis.
+     * <p>
+     * Para cada (tipo, ano) é pedido um único projeto (o de maior número) de todo o intervalo de números:
+     * a resposta traz recordsFiltered (quantos projetos o SPLegis tem) e o maior número, comparados
+     * à marca d'água local, a quantidade e o maior número gravados. A unidade é buscada se o SPLegis
+     * tem mais projetos ou um número maior, ou se a sonda falhou. O resultado fica no status da sincronização.
+     */
+    private List<SyncUnit> changedUnits(List<SyncUnit> units) {
+        if (!probeEnabled || units.isEmpty()) {
+            return units;
+        }
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<SyncStatusService.SyncProbe>> sondas = units.stream()
+                .map(unit -> CompletableFuture.supplyAsync(() -> probe(unit), syncFetchExecutor))
+                .toList();
+        List<SyncStatusService.SyncProbe> resultados = sondas.stream().map(CompletableFuture::join).toList();
+        syncStatusService.recordProbes(resultados);
+        
+        List<SyncUnit> alteradas = new ArrayList<>();
+        for (int i = 0; i < units.size(); i++) {
+            if (resultados.get(i).changed()) {
+                alteradas.add(units.get(i));
+            }
+        }
+        logger.info("⏱️ SONDA SPLEGIS: {} ms | {} unidades | {} com mudanças",
+                System.currentTimeMillis() - start, units.size(), alteradas.size());
+        return alteradas;
+    }
+    
+    private SyncStatusService.SyncProbe probe(SyncUnit unit) {
+        TipoProposicao tipo = unit.tipo();
+        long localTotal = 0;
+        Integer localMaxNumero = null;
+        try {
+            localTotal = projetoRepository.countByTipoAndAno(tipo, unit.year());
+            localMaxNumero = projetoRepository.findMaxNumeroByTipoAndAno(tipo, unit.year());
+            
+            // Os projetos vêm em ordem decrescente de número: o único item é o maior
+            List<SPLegisProjetoDTO> topo = new ArrayList<>(1);
+            SplegisPageParser.PageSummary page = requestProjetosFromSPLegis(
+                    unit.spLegisTipo(), 1, MAX_NUMERO, unit.year(), 1, topo::add);
+            Integer upstreamTotal = page != null ? page.recordsFiltered() : null;
+            Integer upstreamMaxNumero = topo.isEmpty() ? null : topo.get(0).getNumero();
+            
+            boolean changed = (upstreamTotal != null && upstreamTotal > localTotal)
+                    || (upstreamMaxNumero != null && (localMaxNumero == null || upstreamMaxNumero > localMaxNumero));
+            logger.info("Sonda {}/{}: SPLegis {} projetos (maior {}), local {} (maior {}){}", tipo, unit.year(),
+                    upstreamTotal, upstreamMaxNumero, localTotal, localMaxNumero, changed ? "" : " - sem mudanças");
+            return new SyncStatusService.SyncProbe(tipo.name(), unit.year(), upstreamTotal, upstreamMaxNumero,
+                    localTotal, localMaxNumero, changed, null);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // Na dúvida, a unidade é buscada
+            logger.warn("Falha na sonda {}/{}: {}", tipo, unit.year(), e.getMessage());
+            return new SyncStatusService.SyncProbe(tipo.name(), unit.year(), null, null,
+                    localTotal, localMaxNumero, true, e.getMessage());
+        }
     }
     
     /**
@@ -392,104 +554,367 @@ public class SyncProjetosService {
      */
     @Transactional
     public void syncProjetosByTipoAndYear(Integer spLegisTipo, TipoProposicao tipo, int startNumero, int year) {
-        logger.info("Sincronizando projetos do tipo {} a partir do número {} do ano {}", 
-                tipo, startNumero, year);
-        
-        // Número máximo para busca (limite arbitrário grande o suficiente)
-        int endNumero = 9999;
-        
-        // Faz a busca em lotes menores para melhor controle e resiliência
-        int batchSize = 500; // Tamanho reduzido para melhor performance
+        crawlUnits(List.of(new SyncUnit(spLegisTipo, tipo, startNumero, year)));
+    }
+    
+    /**
+     * Busca as unidades (tipo, ano) em paralelo.
+     * <p>
+     * A primeira requisição de cada unidade (cabeça) cobre todo o intervalo do número inicial até
+     * {@value #MAX_NUMERO}. O SPLegis devolve os {@value #PAGE_LENGTH} maiores números e, em
+     * recordsFiltered, quantos projetos existem no intervalo: se vieram todos (o caso comum da
+     * sincronização diária), a unidade termina com uma única requisição. Senão, o menor número
+     * recebido passa a ser o limite superior e só o que está abaixo dele é buscado em janelas, até
+     * completar a quantidade informada.
+     * <p>
+     * As janelas têm largura adaptativa (ver {@link UnitCrawl#adapt}). Cada unidade mantém até
+     * {@code windowLookahead} janelas em busca no executor de sincronização, sob o limite de taxa e de
+     * conexões por host do SplegisThrottle. As respostas de cada unidade são processadas em ordem nesta
+     * thread (que também grava os projetos). Cada janela tem até {@value #WINDOW_ATTEMPTS} tentativas;
+     * se todas falharem a janela é pulada. Se a cabeça falhar, a unidade volta à busca sem limite
+     * conhecido, que termina na primeira janela vazia ou incompleta.
+     * <p>
+     * Os embeddings não são gerados aqui: os projetos gravados vão para a fila limitada do SyncPipeline,
+     * consumida pelos workers de embedding enquanto as próximas janelas são buscadas e gravadas.
+     */
+    private void crawlUnits(List<SyncUnit> units) {
+        SyncStatusService.SyncProgress progress = syncStatusService.startProgress(units.size());
+        BlockingQueue<UnitCrawl> completions = new LinkedBlockingQueue<>();
+        List<UnitCrawl> active = new ArrayList<>();
+        for (SyncUnit unit : units) {
+            UnitCrawl crawl = new UnitCrawl(unit, windowInitialSize, windowMinSize);
+            resumeFromCheckpoint(crawl);
+            active.add(crawl);
+        }
+        long start = System.currentTimeMillis();
+        SyncPipeline.EmbeddingStage embedding = syncPipeline.startEmbeddingStage(this::embedAndSave, progress);
         
         try {
-            for (int i = startNumero; i <= endNumero; i += batchSize) {
-                int batchEnd = Math.min(i + batchSize - 1, endNumero);
-                
-                logger.info("Buscando lote de projetos {} a {} do tipo {} do ano {}", 
-                        i, batchEnd, tipo, year);
-                
-                // Implementação de retry para a busca na API
-                List<SPLegisProjetoDTO> projetos = null;
-                int retryAttempts = 0;
-                boolean success = false;
-                
-                while (!success && retryAttempts < 3) {
-                    try {
-                        projetos = fetchProjetosFromSPLegis(spLegisTipo, i, batchEnd, year);
-                        success = true;
-                    } catch (Exception e) {
-                        retryAttempts++;
-                        logger.warn("Falha na tentativa {} de buscar projetos {}-{}/{}: {}", 
-                                retryAttempts, i, batchEnd, year, e.getMessage());
-                        
-                        if (retryAttempts < 3) {
-                            // Aguarda antes de tentar novamente (com backoff exponencial)
-                            try {
-                                Thread.sleep(2000 * retryAttempts);
-                            } catch (InterruptedException ie) {
-                                Thread.currentThread().interrupt();
-                            }
-                        }
-                    }
+            while (true) {
+                if (syncPipeline.isShuttingDown()) {
+                    logger.warn("Aplicação desligando: sincronização encerrada antes de buscar todas as janelas");
+                    active.forEach(UnitCrawl::cancelPending);
+                    break;
                 }
-                
-                if (!success) {
-                    logger.error("Falha em todas as tentativas de buscar projetos {}-{}/{}. Pulando este lote.", 
-                            i, batchEnd, year);
-                    continue; // Pula para o próximo lote
+                for (UnitCrawl crawl : active) {
+                    submitWindows(crawl, completions);
                 }
-                
-                if (projetos == null || projetos.isEmpty()) {
-                    logger.info("Nenhum projeto encontrado no intervalo {} a {} do tipo {} do ano {}", 
-                            i, batchEnd, tipo, year);
-                    // Se não há projetos neste lote, provavelmente chegamos ao fim dos projetos disponíveis
+                removeFinished(active, progress);
+                if (active.isEmpty()) {
                     break;
                 }
                 
-                logger.info("Encontrados {} projetos no intervalo {} a {} do tipo {} do ano {}", 
-                        projetos.size(), i, batchEnd, tipo, year);
-                
-                // Converte e salva os projetos com tratamento de exceção
-                try {
-                    saveNewProjetos(projetos, tipo);
-                } catch (Exception e) {
-                    logger.error("Erro ao salvar lote de projetos {}-{}/{}: {}", 
-                            i, batchEnd, year, e.getMessage(), e);
-                    
-                    // Notifica sobre o erro mas continua com o próximo lote
-                    alertService.sendSyncFailureAlert(
-                            String.format("Erro ao salvar lote %d-%d/%d do tipo %s: %s", 
-                                    i, batchEnd, year, tipo, e.getMessage()));
+                // Aguarda qualquer janela terminar e processa, em ordem, as que já estão prontas
+                completions.take();
+                for (UnitCrawl crawl : active) {
+                    processCompletedWindows(crawl, progress, embedding);
                 }
-                
-                // Se não chegamos ao fim do lote, provavelmente chegamos ao fim dos projetos disponíveis
-                if (projetos.size() < batchSize) {
+                removeFinished(active, progress);
+                if (active.isEmpty()) {
                     break;
                 }
-                
-                // Pausa entre lotes para não sobrecarregar o sistema
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
             }
-        } catch (Exception e) {
-            String mensagem = String.format("Erro fatal ao sincronizar projetos do tipo %s do ano %d: %s", 
-                    tipo, year, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            active.forEach(UnitCrawl::cancelPending);
+            throw new SyncProjetosException("Sincronização interrompida", e);
+        } catch (RuntimeException e) {
+            active.forEach(UnitCrawl::cancelPending);
+            String mensagem = String.format("Erro fatal ao sincronizar projetos: %s", e.getMessage());
             logger.error(mensagem, e);
             alertService.sendSyncFailureAlert(mensagem);
             throw new SyncProjetosException(mensagem, e);
+        } finally {
+            // Os lotes já enfileirados são gravados mesmo que a busca tenha falhado
+            try {
+                if (embedding.awaitCompletion() > 0) {
+                    // Novos embeddings mudam os resultados semânticos
+                    dataVersionService.bump();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            progress.finish();
+            logger.info("⏱️ SINCRONIZAÇÃO PARALELA: {} ms | {} unidades | {} janelas | {} falhas | {} projetos | {} gravados | {} embeddings ({} falhas)",
+                    System.currentTimeMillis() - start, progress.getUnitsTotal(), progress.getWindowsFetched(),
+                    progress.getWindowsFailed(), progress.getProjetosFound(), progress.getProjetosUpserted(),
+                    progress.getProjetosEmbedded(), progress.getEmbeddingFailures());
+        }
+    }
+    
+    /**
+     * Completa as janelas em busca da unidade até o limite de antecipação
+     */
+    private void submitWindows(UnitCrawl crawl, BlockingQueue<UnitCrawl> completions) {
+        SyncUnit unit = crawl.unit;
+        if (!crawl.headDone) {
+            // Até a cabeça responder não se sabe o limite superior: nenhuma janela é antecipada
+            if (crawl.pending.isEmpty()) {
+                logger.info("Buscando projetos a partir do {} do tipo {} do ano {}", crawl.next, unit.tipo(), unit.year());
+                submit(crawl, crawl.next, MAX_NUMERO, true, completions);
+            }
+            return;
+        }
+        while (!crawl.finished && crawl.pending.size() < Math.max(1, windowLookahead) && crawl.next <= crawl.limite) {
+            int inicio = crawl.next;
+            int fim = Math.min(inicio + crawl.windowSize - 1, crawl.limite);
+            crawl.next = fim + 1;
+            
+            logger.info("Buscando lote de projetos {} a {} do tipo {} do ano {}", inicio, fim, unit.tipo(), unit.year());
+            submit(crawl, inicio, fim, false, completions);
+        }
+        if (crawl.pending.isEmpty()) {
+            crawl.finished = true;
+        }
+    }
+    
+    private void submit(UnitCrawl crawl, int inicio, int fim, boolean head, BlockingQueue<UnitCrawl> completions) {
+        CompletableFuture<WindowResult> resultado = CompletableFuture.supplyAsync(
+                () -> fetchWindowWithRetry(crawl.unit, inicio, fim), syncFetchExecutor);
+        resultado.whenComplete((janela, erro) -> completions.add(crawl));
+        crawl.pending.add(new WindowFetch(inicio, fim, head, resultado));
+    }
+    
+    /**
+     * Processa, na ordem dos números, as janelas da unidade que já terminaram
+     */
+    private void processCompletedWindows(UnitCrawl crawl, SyncStatusService.SyncProgress progress,
+                                         SyncPipeline.EmbeddingStage embedding) throws InterruptedException {
+        SyncUnit unit = crawl.unit;
+        while (!crawl.finished && !crawl.pending.isEmpty() && crawl.pending.peek().result().isDone()) {
+            WindowFetch window = crawl.pending.poll();
+            WindowResult resultado = window.result().join();
+            
+            if (resultado == null) {
+                progress.windowFailed();
+                if (window.head()) {
+                    // Sem a cabeça não há limite conhecido: busca em janelas até a primeira vazia ou incompleta
+                    crawl.headDone = true;
+                    logger.error("Falha em todas as tentativas de buscar projetos {}-{}/{}. Buscando em janelas.", 
+                            window.inicio(), window.fim(), unit.year());
+                    continue;
+                }
+                crawl.shrink();
+                // O checkpoint não pode passar de uma janela que não foi buscada
+                crawl.checkpointBlocked = true;
+                logger.error("Falha em todas as tentativas de buscar projetos {}-{}/{}. Pulando este lote.", 
+                        window.inicio(), window.fim(), unit.year());
+                continue; // Pula para o próximo lote
+            }
+            List<SPLegisProjetoDTO> projetos = resultado.projetos();
+            progress.windowFetched(projetos.size());
+            syncPipeline.record(SyncPipeline.Stage.FETCH, projetos.size(), true);
+            
+            if (window.head()) {
+                crawl.headDone = true;
+                crawl.bound(resultado);
+                if (crawl.finished) {
+                    logger.info("{} projetos do tipo {} do ano {} a partir do {}: todos recebidos em uma requisição", 
+                            projetos.size(), unit.tipo(), unit.year(), window.inicio());
+                } else {
+                    logger.info("{} de {} projetos do tipo {} do ano {} recebidos; buscando em janelas de {} até {}", 
+                            projetos.size(), crawl.restantes < 0 ? "?" : projetos.size() + crawl.restantes,
+                            unit.tipo(), unit.year(), crawl.next, crawl.limite);
+                }
+            } else {
+                crawl.adapt(window, resultado, windowTargetLatencyMs);
+                if (crawl.bounded) {
+                    // Limite conhecido: termina ao receber a quantidade informada pelo SPLegis.
+                    // Abaixo do limite uma janela vazia é só uma lacuna na numeração
+                    if (crawl.restantes >= 0) {
+                        crawl.restantes = Math.max(0, crawl.restantes - projetos.size());
+                        if (crawl.restantes == 0) {
+                            crawl.finished = true;
+                        }
+                    }
+                } else if (projetos.size() < window.fim() - window.inicio() + 1) {
+                    // Se o lote veio vazio ou incompleto, provavelmente chegamos ao fim dos projetos disponíveis
+                    crawl.finished = true;
+                }
+            }
+            
+            if (projetos.isEmpty()) {
+                logger.info("Nenhum projeto encontrado no intervalo {} a {} do tipo {} do ano {}", 
+                        window.inicio(), window.fim(), unit.tipo(), unit.year());
+                saveCheckpoint(crawl, window);
+                continue;
+            }
+            
+            logger.info("Encontrados {} projetos no intervalo {} a {} do tipo {} do ano {}", 
+                    projetos.size(), window.inicio(), window.fim(), unit.tipo(), unit.year());
+            
+            // Converte e salva os projetos em uma transação própria (os workers de embedding precisam
+            // ver as linhas gravadas), junto com o checkpoint da janela. upsertProjetos propaga os erros
+            // que não consegue recuperar: a exceção desfaz a transação inteira (TransactionTemplate faz o
+            // rollback) e o checkpoint, gravado só depois de o upsert terminar, não avança
+            List<Projeto> projetosParaEmbedding = List.of();
+            try {
+                TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+                transacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                projetosParaEmbedding = transacao.execute(status -> {
+                    List<Projeto> paraEmbedding = upsertProjetos(projetos, unit.tipo());
+                    saveCheckpoint(crawl, window);
+                    return paraEmbedding;
+                });
+                progress.projetosUpserted(projetos.size());
+                syncPipeline.record(SyncPipeline.Stage.UPSERT, projetos.size(), true);
+            } catch (Exception e) {
+                // O checkpoint não pode passar de uma janela que não foi gravada
+                crawl.checkpointBlocked = true;
+                syncPipeline.record(SyncPipeline.Stage.UPSERT, projetos.size(), false);
+                logger.error("Erro ao salvar lote de projetos {}-{}/{}: {}", 
+                        window.inicio(), window.fim(), unit.year(), e.getMessage(), e);
+                
+                // Notifica sobre o erro mas continua com o próximo lote
+                alertService.sendSyncFailureAlert(
+                        String.format("Erro ao salvar lote %d-%d/%d do tipo %s: %s", 
+                                window.inicio(), window.fim(), unit.year(), unit.tipo(), e.getMessage()));
+            }
+            
+            // Espera se a fila de embeddings estiver cheia (contrapressão sobre a busca)
+            embedding.submit(projetosParaEmbedding);
+        }
+    }
+    
+    private void removeFinished(List<UnitCrawl> active, SyncStatusService.SyncProgress progress) {
+        Iterator<UnitCrawl> iterator = active.iterator();
+        while (iterator.hasNext()) {
+            UnitCrawl crawl = iterator.next();
+            if (crawl.finished) {
+                // Janelas antecipadas além do fim da unidade não interessam mais
+                crawl.cancelPending();
+                completeCheckpoint(crawl);
+                progress.unitDone();
+                iterator.remove();
+            }
+        }
+    }
+    
+    /**
+     * Retoma a unidade do checkpoint de uma sincronização anterior que não terminou (falha, retry ou
+     * reinício da aplicação), sem repetir a cabeça nem as janelas já gravadas. O checkpoint prevalece
+     * sobre o número inicial da unidade: como a cabeça grava primeiro os maiores números, o projeto mais
+     * recente no banco não indica até onde as janelas abaixo do limite foram gravadas.
+     */
+    private void resumeFromCheckpoint(UnitCrawl crawl) {
+        if (!checkpointsEnabled) {
+            return;
+        }
+        SyncUnit unit = crawl.unit;
+        try {
+            LocalDateTime validoDesde = LocalDateTime.now().minusHours(checkpointMaxAgeHours);
+            syncCheckpointRepository.find(unit.tipo(), unit.year())
+                    .filter(checkpoint -> !checkpoint.concluido())
+                    .filter(checkpoint -> checkpoint.atualizadoEm().isAfter(validoDesde))
+                    .ifPresent(checkpoint -> {
+                        crawl.resume(checkpoint);
+                        logger.info("Retomando o tipo {} do ano {} a partir do {} (checkpoint de {}, limite {}, {} restantes)",
+                                unit.tipo(), unit.year(), crawl.next, checkpoint.atualizadoEm(),
+                                checkpoint.limite(), checkpoint.restantes());
+                    });
+        } catch (Exception e) {
+            logger.warn("Falha ao ler o checkpoint do tipo {} do ano {}: {}", unit.tipo(), unit.year(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Grava a janela como concluída; chamado na transação do upsert da janela
+     */
+    private void saveCheckpoint(UnitCrawl crawl, WindowFetch window) {
+        if (!checkpointsEnabled || crawl.checkpointBlocked) {
+            return;
+        }
+        syncCheckpointRepository.save(crawl.unit.tipo(), crawl.unit.year(), UnitCrawl.checkpointNumero(window),
+                crawl.bounded ? crawl.limite : null, crawl.restantes >= 0 ? crawl.restantes : null);
+    }
+    
+    private void completeCheckpoint(UnitCrawl crawl) {
+        if (!checkpointsEnabled || crawl.checkpointBlocked) {
+            // Com uma janela não gravada, a próxima sincronização retoma do último checkpoint
+            return;
+        }
+        try {
+            syncCheckpointRepository.complete(crawl.unit.tipo(), crawl.unit.year());
+        } catch (Exception e) {
+            logger.warn("Falha ao concluir o checkpoint do tipo {} do ano {}: {}",
+                    crawl.unit.tipo(), crawl.unit.year(), e.getMessage());
         }
     }
     
+    /**
+     * Busca uma janela com até {@value #WINDOW_ATTEMPTS} tentativas (backoff exponencial com jitter).
+     * Roda no executor de sincronização; retorna null se todas as tentativas falharem.
+     */
+    private WindowResult fetchWindowWithRetry(SyncUnit unit, int inicio, int fim) {
+        int retryAttempts = 0;
+        while (retryAttempts < WINDOW_ATTEMPTS) {
+            try {
+                // A janela inteira fica em memória até ser gravada, em ordem, pela thread da sincronização:
+                // o checkpoint só avança depois que todos os projetos da janela foram gravados. A memória
+                // fica limitada a PAGE_LENGTH projetos por janela × janelas antecipadas × unidades ativas
+                List<SPLegisProjetoDTO> projetos = new ArrayList<>();
+                long inicioRequisicao = System.nanoTime();
+                SplegisPageParser.PageSummary page = requestProjetosFromSPLegis(
+                        unit.spLegisTipo(), inicio, fim, unit.year(), PAGE_LENGTH, projetos::add);
+                return new WindowResult(projetos, page, (System.nanoTime() - inicioRequisicao) / 1_000_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (Exception e) {
+                retryAttempts++;
+                logger.warn("Falha na tentativa {} de buscar projetos {}-{}/{}: {}", 
+                        retryAttempts, inicio, fim, unit.year(), e.getMessage());
+                
+                if (retryAttempts < WINDOW_ATTEMPTS) {
+                    // Aguarda antes de tentar novamente: 2s, 4s, ... com jitter, para que as janelas
+                    // que falharam juntas (ex: instabilidade do SPLegis) não repitam a requisição em sincronia
+                    long backoffMs = WINDOW_RETRY_BASE_MS << (retryAttempts - 1);
+                    try {
+                        Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMs / 2, backoffMs + 1));
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+    
     /**
      * Busca projetos na API do SPLegis
+     * Em caso de erro, registra no log e retorna uma lista vazia
      */
     public List<SPLegisProjetoDTO> fetchProjetosFromSPLegis(Integer tipo, int numeroInicio, int numeroFim, int ano) {
+        List<SPLegisProjetoDTO> projetos = new ArrayList<>();
+        try {
+            requestProjetosFromSPLegis(tipo, numeroInicio, numeroFim, ano, PAGE_LENGTH, projetos::add);
+            return projetos;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Busca de projetos na API SPLegis interrompida");
+            return Collections.emptyList();
+        } catch (Exception e) {
+            logger.error("Erro ao buscar projetos da API SPLegis: {}", e.getMessage(), e);
+            return Collections.emptyList();
+        }
+    }
+    
+    /**
+     * Busca projetos na API do SPLegis, respeitando os limites do SplegisThrottle.
+     * Ao contrário de fetchProjetosFromSPLegis, propaga os erros (para as tentativas da sincronização).
+     * A resposta é lida em streaming e cada projeto é entregue ao consumidor assim que é lido.
+     */
+    private SplegisPageParser.PageSummary requestProjetosFromSPLegis(Integer tipo, int numeroInicio, int numeroFim, int ano, int length,
+                                                                     Consumer<SPLegisProjetoDTO> itemConsumer) throws Exception {
+        SplegisFetchEvent fetchEvent = new SplegisFetchEvent();
+        fetchEvent.tipo = tipo;
+        fetchEvent.ano = ano;
+        fetchEvent.numeroInicio = numeroInicio;
+        fetchEvent.numeroFim = numeroFim;
         try {
             // Formato da URL com os parâmetros necessários
-            String url = BASE_URL + 
+            String url = splegisBaseUrl + PAGE_DATA_PATH + 
                     "?draw=5" +
                     "&columns%5B0%5D%5Bdata%5D=&columns%5B0%5D%5Bname%5D=&columns%5B0%5D%5Bsearchable%5D=false" +
                     "&columns%5B0%5D%5Borderable%5D=false&columns%5B0%5D%5Bsearch%5D%5Bvalue%5D=&columns%5B0%5D%5Bsearch%5D%5Bregex%5D=false" +
@@ -503,7 +928,7 @@ public class SyncProjetosService {
                     "&columns%5B4%5D%5Borderable%5D=true&columns%5B4%5D%5Bsearch%5D%5Bvalue%5D=&columns%5B4%5D%5Bsearch%5D%5Bregex%5D=false" +
                     "&columns%5B5%5D%5Bdata%5D=promoventes&columns%5B5%5D%5Bname%5D=PROMOVENTE&columns%5B5%5D%5Bsearchable%5D=true" +
                     "&columns%5B5%5D%5Borderable%5D=true&columns%5B5%5D%5Bsearch%5D%5Bvalue%5D=&columns%5B5%5D%5Bsearch%5D%5Bregex%5D=false" +
-                    "&order%5B0%5D%5Bcolumn%5D=1&order%5B0%5D%5Bdir%5D=desc&start=0&length=1000" +
+                    "&order%5B0%5D%5Bcolumn%5D=1&order%5B0%5D%5Bdir%5D=desc&start=0&length=" + length +
                     "&search%5Bvalue%5D=&search%5Bregex%5D=false&assuntos=&naoAssuntos=&promoventes=&naoPromoventes=" +
                     "&tipo=" + tipo +
                     "&tipoPromovente=0&tipoVeto=0&promulgadoTipo=0&votacao=&somenteEmTramitacao=false" +
@@ -515,22 +940,28 @@ public class SyncProjetosService {
                     "&anoFim=" + ano +
                     "&_=" + System.currentTimeMillis();
             
-            // Fazer a requisição HTTP
-            String response = restTemplate.getForObject(url, String.class);
-            
-            // Parsear a resposta JSON
-            SPLegisResponseDTO spLegisResponse = objectMapper.readValue(response, SPLegisResponseDTO.class);
+            // Fazer a requisição HTTP, lendo o JSON direto do corpo da resposta
+            SplegisPageParser.PageSummary page;
+            try (SplegisThrottle.Permit ignored = splegisThrottle.acquire(splegisBaseUrl)) {
+                fetchEvent.begin();
+                page = restTemplate.execute(url, HttpMethod.GET, null,
+                        response -> splegisPageParser.parse(response.getBody(), itemConsumer));
+            }
             
-            if (spLegisResponse != null && spLegisResponse.getData() != null) {
-                return spLegisResponse.getData();
-            } else {
+            if (page == null) {
                 logger.warn("Resposta vazia ou inválida da API SPLegis");
-                return Collections.emptyList();
+                return null;
             }
+            if (page.error() != null && !page.error().isBlank()) {
+                logger.warn("API SPLegis informou erro: {}", page.error());
+            }
+            fetchEvent.bytes = page.bytes();
+            fetchEvent.items = page.items();
+            fetchEvent.success = true;
+            return page;
             
-        } catch (Exception e) {
-            logger.error("Erro ao buscar projetos da API SPLegis: {}", e.getMessage(), e);
-            return Collections.emptyList();
+        } finally {
+            fetchEvent.commit();
         }
     }
     
@@ -539,16 +970,65 @@ public class SyncProjetosService {
      */
     @Transactional
     public void saveNewProjetos(List<SPLegisProjetoDTO> projetosDTO, TipoProposicao tipo) {
+        List<Projeto> projetosParaEmbedding = upsertProjetos(projetosDTO, tipo);
+        
+        // Gerar embeddings apenas para projetos que precisam
+        if (!projetosParaEmbedding.isEmpty()) {
+            logger.info("Gerando embeddings para {} projetos do tipo {}", 
+                    projetosParaEmbedding.size(), tipo);
+            generateEmbeddingsForNewProjetos(projetosParaEmbedding);
+        }
+    }
+    
+    /**
+     * Grava o lote em um savepoint. Se o lote for recusado por dados inválidos (violação de restrição,
+     * valor fora do tipo da coluna), grava projeto a projeto, cada um no seu savepoint, e descarta só
+     * os recusados. Outros erros (conexão, timeout, SQL) não são recuperáveis aqui e são propagados.
+     */
+    private UpsertLote upsertLote(List<Projeto> loteProjetos, TipoProposicao tipo) {
+        try {
+            return new UpsertLote(projetoBulkUpsert.inSavepoint(() -> projetoBulkUpsert.upsert(loteProjetos)), 0);
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Lote de {} projetos do tipo {} recusado ({}); gravando projeto a projeto",
+                    loteProjetos.size(), tipo, e.getMostSpecificCause().getMessage());
+        }
+        List<ProjetoBulkUpsert.UpsertResult> resultados = new ArrayList<>(loteProjetos.size());
+        int recusados = 0;
+        for (Projeto projeto : loteProjetos) {
+            try {
+                resultados.addAll(projetoBulkUpsert.inSavepoint(() -> projetoBulkUpsert.upsert(
+                        ProjetoBulkUpsert.TABLE, List.of(projeto), ProjetoBulkUpsert.Strategy.ROW, 1)));
+            } catch (DataIntegrityViolationException e) {
+                recusados++;
+                logger.error("Projeto {}/{} do tipo {} recusado no upsert: {}",
+                        projeto.getNumero(), projeto.getAno(), tipo, e.getMostSpecificCause().getMessage());
+            }
+        }
+        return new UpsertLote(resultados, recusados);
+    }
+
+    private record UpsertLote(List<ProjetoBulkUpsert.UpsertResult> resultados, int recusados) {
+    }
+
+    /**
+     * Converte e grava os projetos com o upsert em lote
+     * 
+     * @return projetos que precisam de embedding (novos, sem embedding ou com conteúdo alterado)
+     */
+    private List<Projeto> upsertProjetos(List<SPLegisProjetoDTO> projetosDTO, TipoProposicao tipo) {
         if (projetosDTO.isEmpty()) {
             logger.info("Nenhum projeto do tipo {} para processar", tipo);
-            return;
+            return List.of();
         }
         
         logger.info("Processando {} projetos do tipo {}", projetosDTO.size(), tipo);
         List<Projeto> projetosProcessados = new ArrayList<>();
+        List<Projeto> projetosParaEmbedding = new ArrayList<>();
+        int projetosAlterados = 0;
+        int projetosRecusados = 0;
         
-        // Tamanho do lote para processamento de upsert
-        final int BATCH_SIZE = 50;
+        // Tamanho do lote para processamento de upsert (app.sync.upsert.batch-size)
+        final int BATCH_SIZE = Math.max(1, projetoBulkUpsert.getBatchSize());
         
         try {
             // Processa em lotes para melhorar a performance
@@ -591,68 +1071,60 @@ public class SyncProjetosService {
                         
                         loteProjetos.add(projeto);
                     } catch (Exception e) {
+                        projetosRecusados++;
                         logger.error("Erro ao converter DTO para projeto {}/{} do tipo {}: {}", 
                                 dto.getNumero(), dto.getAno(), tipo, e.getMessage());
                     }
                 }
                 
                 // Executa o upsert em lote
-                for (Projeto projeto : loteProjetos) {
-                    try {
-                        // Usar o método de upsert em lote
-                        projetoRepository.upsertProjetoBatch(
-                            projeto.getTipo().name(),
-                            projeto.getNumero(),
-                            projeto.getAno(),
-                            projeto.getAutor(),
-                            projeto.getAutorSearch(),
-                            projeto.getEmenta(),
-                            projeto.getPalavrasChave()
-                        );
+                UpsertBatchEvent upsertEvent = new UpsertBatchEvent();
+                upsertEvent.begin();
+                int gravadosAntes = projetosProcessados.size();
+                try {
+                    // Um único comando (ou COPY) por lote, conforme app.sync.upsert.strategy.
+                    // O upsert devolve o id e o que mudou em cada projeto, sem precisar reler do banco
+                    UpsertLote lote = upsertLote(loteProjetos, tipo);
+                    projetosRecusados += lote.recusados();
+                    List<ProjetoBulkUpsert.UpsertResult> resultados = lote.resultados();
+                    Map<String, Projeto> porChave = new HashMap<>();
+                    for (Projeto projeto : loteProjetos) {
+                        porChave.put(chaveProjeto(projeto.getTipo(), projeto.getNumero(), projeto.getAno()), projeto);
+                    }
+                    
+                    for (ProjetoBulkUpsert.UpsertResult resultado : resultados) {
+                        Projeto projeto = porChave.get(chaveProjeto(resultado.tipo(), resultado.numero(), resultado.ano()));
+                        projeto.setId(resultado.id());
                         
                         // Adiciona à lista de projetos processados
                         projetosProcessados.add(projeto);
-                    } catch (Exception e) {
-                        logger.error("Erro ao executar upsert para projeto {}/{} do tipo {}: {}", 
-                                projeto.getNumero(), projeto.getAno(), projeto.getTipo(), e.getMessage());
-                    }
-                }
-            }
-            
-            // Recupera os projetos que precisam gerar embeddings
-            // Precisa buscar novamente do banco, pois o upsert não retorna os IDs
-            List<Projeto> projetosParaEmbedding = new ArrayList<>();
-            
-            // Busca em lotes para não sobrecarregar o banco
-            for (int i = 0; i < projetosProcessados.size(); i += BATCH_SIZE) {
-                int fim = Math.min(i + BATCH_SIZE, projetosProcessados.size());
-                List<Projeto> lote = projetosProcessados.subList(i, fim);
-                
-                for (Projeto projeto : lote) {
-                    try {
-                        Projeto projetoCompleto = projetoRepository.findByTipoAndNumeroAndAno(
-                                projeto.getTipo(), projeto.getNumero(), projeto.getAno());
-                        
-                        if (projetoCompleto != null && projetoCompleto.getEmbedding() == null) {
-                            projetosParaEmbedding.add(projetoCompleto);
+                        if (resultado.changed()) {
+                            projetosAlterados++;
+                        }
+                        // Novos, sem embedding ou com ementa/palavras-chave alteradas
+                        if (resultado.needsEmbedding()) {
+                            projetosParaEmbedding.add(projeto);
                         }
-                    } catch (Exception e) {
-                        logger.error("Erro ao buscar projeto para embedding {}/{} do tipo {}: {}", 
-                                projeto.getNumero(), projeto.getAno(), projeto.getTipo(), e.getMessage());
                     }
+                } finally {
+                    upsertEvent.tipo = tipo.name();
+                    upsertEvent.strategy = projetoBulkUpsert.getStrategy().name();
+                    upsertEvent.size = loteDTO.size();
+                    upsertEvent.saved = projetosProcessados.size() - gravadosAntes;
+                    upsertEvent.failures = loteDTO.size() - upsertEvent.saved;
+                    upsertEvent.commit();
                 }
             }
             
             // Logs informativos
-            logger.info("Processamento concluído para o tipo {}: {} projetos processados", 
-                    tipo, projetosProcessados.size());
+            logger.info("Processamento concluído para o tipo {}: {} projetos processados, {} novos ou alterados, {} recusados", 
+                    tipo, projetosProcessados.size(), projetosAlterados, projetosRecusados);
             
-            // Gerar embeddings apenas para projetos que precisam
-            if (!projetosParaEmbedding.isEmpty()) {
-                logger.info("Gerando embeddings para {} projetos do tipo {}", 
-                        projetosParaEmbedding.size(), tipo);
-                generateEmbeddingsForNewProjetos(projetosParaEmbedding);
+            // Projetos novos ou alterados invalidam os resultados de busca em cache
+            if (projetosAlterados > 0) {
+                dataVersionService.bump();
             }
+            return projetosParaEmbedding;
             
         } catch (Exception e) {
             String mensagem = String.format("Erro durante o processamento de projetos do tipo %s: %s", 
@@ -662,19 +1134,60 @@ public class SyncProjetosService {
         }
     }
     
+    /**
+     * Gera e grava os embeddings de um lote de projetos (com id) e invalida os vizinhos pré-computados
+     */
+    private void embedAndSave(List<Projeto> lote) throws Exception {
+        // Cria os textos para gerar embeddings
+        List<String> textosParaEmbeddar = lote.stream()
+                .map(p -> {
+                    // Constrói o texto para embedding apenas com ementa e palavras-chave
+                    String ementa = "Ementa: " + (p.getEmenta() != null ? p.getEmenta() : "") + ". ";
+                    // Adiciona as palavras-chave, substituindo a barra por espaços para um texto mais natural
+                    String palavrasChave = "Palavras-chave: " + 
+                            (p.getPalavrasChave() != null ? p.getPalavrasChave().replace("|", " ") : "") + ".";
+
+                    return ementa + palavrasChave;
+                })
+                .collect(Collectors.toList());
+        
+        // Gera os embeddings apenas para o lote atual
+        float[][] embeddingsDoLote = embeddingService.generateEmbeddings(textosParaEmbeddar);
+        
+        // Associa cada embedding de volta ao seu projeto original
+        for (int j = 0; j < lote.size(); j++) {
+            Projeto projeto = lote.get(j);
+            projeto.setEmbedding(embeddingsDoLote[j]);
+        }
+        
+        // Salva os embeddings imediatamente após cada lote (UPDATE por id, sem recarregar as entidades)
+        projetoBulkUpsert.updateEmbeddings(lote);
+        
+        // Vizinhos calculados com o embedding antigo deixam de valer
+        projetosRelacionadosService.invalidate(lote.stream()
+                .map(Projeto::getId)
+                .filter(Objects::nonNull)
+                .toList());
+    }
+    
+    private static String chaveProjeto(TipoProposicao tipo, Integer numero, Integer ano) {
+        return tipo + "/" + numero + "/" + ano;
+    }
+    
     /**
      * Gera embeddings para novos projetos
      */
     @Transactional
     public void generateEmbeddingsForNewProjetos(List<Projeto> projetos) {
         // Tamanho do lote para processamento de embeddings
-        final int BATCH_SIZE = 64;
+        final int BATCH_SIZE = SyncPipeline.EMBEDDING_BATCH_SIZE;
         
         if (projetos.isEmpty()) {
             return;
         }
         
         logger.info("Gerando embeddings para {} novos projetos", projetos.size());
+        int lotesSalvos = 0;
         
         for (int i = 0; i < projetos.size(); i += BATCH_SIZE) {
             // Cria um sub-lote da lista principal
@@ -686,31 +1199,10 @@ public class SyncProjetosService {
                     (projetos.size() / BATCH_SIZE) + 1, 
                     i, fim);
             
-            // Cria os textos para gerar embeddings
-            List<String> textosParaEmbeddar = lote.stream()
-                    .map(p -> {
-                        // Constrói o texto para embedding apenas com ementa e palavras-chave
-                        String ementa = "Ementa: " + (p.getEmenta() != null ? p.getEmenta() : "") + ". ";
-                        // Adiciona as palavras-chave, substituindo a barra por espaços para um texto mais natural
-                        String palavrasChave = "Palavras-chave: " + 
-                                (p.getPalavrasChave() != null ? p.getPalavrasChave().replace("|", " ") : "") + ".";
-
-                        return ementa + palavrasChave;
-                    })
-                    .collect(Collectors.toList());
-            
             try {
-                // Gera os embeddings apenas para o lote atual
-                float[][] embeddingsDoLote = embeddingService.generateEmbeddings(textosParaEmbeddar);
+                embedAndSave(lote);
+                lotesSalvos++;
                 
-                // Associa cada embedding de volta ao seu projeto original
-                for (int j = 0; j < lote.size(); j++) {
-                    Projeto projeto = lote.get(j);
-                    projeto.setEmbedding(embeddingsDoLote[j]);
-                }
-                
-                // Salva os projetos atualizados imediatamente após cada lote
-                projetoRepository.saveAll(lote);
                 logger.info("Lote {}/{} de embeddings gerado e salvo com sucesso", 
                         (i / BATCH_SIZE) + 1, 
                         (projetos.size() / BATCH_SIZE) + 1);
@@ -721,9 +1213,26 @@ public class SyncProjetosService {
             }
         }
         
+        // Novos embeddings mudam os resultados semânticos
+        if (lotesSalvos > 0) {
+            dataVersionService.bump();
+        }
+        
         logger.info("Embeddings gerados e salvos com sucesso para {} projetos", projetos.size());
     }
     
+    /**
+     * Publica o evento de sincronização concluída, sem deixar que falhas dos ouvintes
+     * invalidem uma sincronização que já foi registrada como bem-sucedida
+     */
+    private void publishSyncCompleted() {
+        try {
+            eventPublisher.publishEvent(new ProjetosSincronizadosEvent(LocalDateTime.now()));
+        } catch (Exception e) {
+            logger.error("Erro ao notificar o fim da sincronização: {}", e.getMessage(), e);
+        }
+    }
+    
     // Método auxiliar para normalizar texto para busca (minúsculas, sem acentos)
     private String normalizarTexto(String texto) {
         if (texto == null) return "";
@@ -731,4 +1240,131 @@ public class SyncProjetosService {
         Pattern pattern = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
         return pattern.matcher(textoNormalizado).replaceAll("").toLowerCase();
     }
-}
\ No newline at end of file
+    
+    /**
+     * Unidade independente da sincronização: um tipo em um ano, a partir de um número
+     */
+    record SyncUnit(Integer spLegisTipo, TipoProposicao tipo, int startNumero, int year) {
+    }
+    
+    record WindowFetch(int inicio, int fim, boolean head, CompletableFuture<WindowResult> result) {
+    }
+    
+    /**
+     * Projetos de uma janela, metadados da página (pode ser null) e duração da requisição bem-sucedida
+     */
+    record WindowResult(List<SPLegisProjetoDTO> projetos, SplegisPageParser.PageSummary page, long millis) {
+    }
+    
+    /**
+     * Estado da busca de uma unidade: limite superior, largura e próxima janela, e janelas em busca, em ordem.
+     * Visível no pacote para os testes de bound/adapt/resume.
+     */
+    static class UnitCrawl {
+        private final SyncUnit unit;
+        private final Deque<WindowFetch> pending = new ArrayDeque<>();
+        private final int minSize;
+        int next;
+        int limite = MAX_NUMERO;
+        int windowSize;
+        // Projetos ainda não recebidos segundo o SPLegis (-1 se desconhecido)
+        int restantes = -1;
+        boolean headDone;
+        boolean bounded;
+        boolean finished;
+        // Uma janela falhou: o checkpoint fica na última janela gravada antes dela
+        private boolean checkpointBlocked;
+        
+        UnitCrawl(SyncUnit unit, int initialSize, int minSize) {
+            this.unit = unit;
+            this.next = unit.startNumero();
+            this.minSize = Math.max(1, Math.min(minSize, PAGE_LENGTH));
+            this.windowSize = Math.max(this.minSize, Math.min(initialSize, PAGE_LENGTH));
+        }
+        
+        /**
+         * Último número coberto por uma janela gravada. A cabeça grava os números acima do limite;
+         * as janelas abaixo dele ainda não foram buscadas
+         */
+        static int checkpointNumero(WindowFetch window) {
+            return window.head() ? window.inicio() - 1 : window.fim();
+        }
+        
+        /**
+         * Continua de onde um checkpoint parou, sem buscar a cabeça de novo
+         */
+        void resume(SyncCheckpointRepository.Checkpoint checkpoint) {
+            headDone = true;
+            next = checkpoint.ultimoNumero() + 1;
+            if (checkpoint.limite() != null) {
+                bounded = true;
+                limite = checkpoint.limite();
+                restantes = checkpoint.restantes() != null ? checkpoint.restantes() : -1;
+                if (restantes == 0) {
+                    finished = true;
+                }
+            }
+        }
+        
+        /**
+         * Usa a resposta da cabeça (intervalo até MAX_NUMERO, maiores números primeiro) para limitar a busca
+         */
+        void bound(WindowResult cabeca) {
+            List<SPLegisProjetoDTO> projetos = cabeca.projetos();
+            Integer total = cabeca.page() != null ? cabeca.page().recordsFiltered() : null;
+            if (total == null && projetos.size() < PAGE_LENGTH) {
+                // Página incompleta: não há mais projetos além dos recebidos
+                total = projetos.size();
+            }
+            if (projetos.isEmpty() || (total != null && projetos.size() >= total)) {
+                finished = true;
+                return;
+            }
+            int menorNumero = projetos.stream()
+                    .map(SPLegisProjetoDTO::getNumero)
+                    .filter(Objects::nonNull)
+                    .min(Integer::compare)
+                    .orElse(MAX_NUMERO + 1);
+            limite = menorNumero - 1;
+            restantes = total != null ? total - projetos.size() : -1;
+            bounded = true;
+            if (next > limite) {
+                finished = true;
+            }
+        }
+        
+        /**
+         * Ajusta a largura das próximas janelas: mira em tantos projetos quantos o SPLegis entrega no
+         * tempo alvo (pela vazão medida) e converte em números pela densidade da janela recebida.
+         * A largura no máximo dobra ou cai pela metade a cada janela.
+         */
+        void adapt(WindowFetch window, WindowResult resultado, long targetLatencyMs) {
+            int largura = window.fim() - window.inicio() + 1;
+            int projetos = resultado.projetos().size();
+            long millis = Math.max(1, resultado.millis());
+            int estimativa;
+            if (projetos == 0) {
+                // Janela vazia: números esparsos, janelas largas custam pouco
+                estimativa = millis <= targetLatencyMs ? PAGE_LENGTH : largura / 2;
+            } else {
+                double densidade = (double) projetos / largura;
+                double projetosNoAlvo = (double) projetos * targetLatencyMs / millis;
+                estimativa = (int) Math.min(Integer.MAX_VALUE, projetosNoAlvo / densidade);
+            }
+            windowSize = Math.max(minSize, Math.min(PAGE_LENGTH,
+                    Math.max(windowSize / 2, Math.min(windowSize * 2, estimativa))));
+        }
+        
+        /**
+         * Uma janela falhou em todas as tentativas: janelas menores até a resposta voltar ao normal
+         */
+        void shrink() {
+            windowSize = Math.max(minSize, windowSize / 2);
+        }
+        
+        void cancelPending() {
+            pending.forEach(window -> window.result().cancel(false));
+            pending.clear();
+        }
+    }
+}
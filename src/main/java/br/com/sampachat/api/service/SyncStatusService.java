@@ -10,6 +10,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Serviço para monitorar o status das sincronizações
@@ -29,6 +30,11 @@ public class SyncStatusService {
     private int consecutiveFailures = 0;
     private int totalSyncs = 0;
     private int successfulSyncs = 0;
+    // Progresso da sincronização completa em andamento (ou da última)
+    private volatile SyncProgress progress;
+    // Resultado da última sonda de mudanças no SPLegis
+    private volatile LocalDateTime lastProbeAt;
+    private volatile List<SyncProbe> lastProbes = List.of();
     
     /**
      * Registra uma sincronização bem-sucedida
@@ -90,6 +96,25 @@ public class SyncStatusService {
         }
     }
     
+    /**
+     * Inicia o acompanhamento de uma sincronização completa
+     * 
+     * @param unitsTotal Número de unidades (tipo, ano) a sincronizar
+     */
+    public SyncProgress startProgress(int unitsTotal) {
+        SyncProgress novo = new SyncProgress(LocalDateTime.now(), unitsTotal);
+        progress = novo;
+        return novo;
+    }
+    
+    /**
+     * Registra o resultado da sonda de mudanças feita antes de uma sincronização
+     */
+    public void recordProbes(List<SyncProbe> probes) {
+        lastProbes = List.copyOf(probes);
+        lastProbeAt = LocalDateTime.now();
+    }
+    
     /**
      * Adiciona uma entrada ao histórico, mantendo o limite de tamanho
      */
@@ -133,6 +158,9 @@ public class SyncStatusService {
         status.setSuccessfulSyncs(successfulSyncs);
         status.setSuccessRate(totalSyncs > 0 ? (double) successfulSyncs / totalSyncs : 0);
         status.setHealthy(consecutiveFailures == 0);
+        status.setProgress(progress);
+        status.setLastProbeAt(lastProbeAt);
+        status.setLastProbes(lastProbes);
         
         return status;
     }
@@ -174,6 +202,113 @@ public class SyncStatusService {
         }
     }
     
+    /**
+     * Sonda de um (tipo, ano): estado no SPLegis (pedido de um só projeto, o de maior número) comparado
+     * à marca d'água local (quantidade e maior número gravados)
+     *
+     * @param upstreamTotal     recordsFiltered informado pelo SPLegis (null se a sonda falhou)
+     * @param upstreamMaxNumero maior número no SPLegis (null se não há projetos ou a sonda falhou)
+     * @param changed           o SPLegis tem projetos além dos gravados (ou a sonda falhou): o (tipo, ano) é buscado
+     * @param error             erro da sonda, ou null
+     */
+    public record SyncProbe(String tipo, int ano, Integer upstreamTotal, Integer upstreamMaxNumero,
+                            long localTotal, Integer localMaxNumero, boolean changed, String error) {
+    }
+    
+    /**
+     * Progresso de uma sincronização completa, atualizado pelas buscas em paralelo
+     */
+    public static class SyncProgress {
+        private final LocalDateTime startedAt;
+        private final int unitsTotal;
+        private final AtomicInteger unitsDone = new AtomicInteger();
+        private final AtomicInteger windowsFetched = new AtomicInteger();
+        private final AtomicInteger windowsFailed = new AtomicInteger();
+        private final AtomicInteger projetosFound = new AtomicInteger();
+        private final AtomicInteger projetosUpserted = new AtomicInteger();
+        private final AtomicInteger projetosEmbedded = new AtomicInteger();
+        private final AtomicInteger embeddingFailures = new AtomicInteger();
+        private volatile LocalDateTime finishedAt;
+        
+        public SyncProgress(LocalDateTime startedAt, int unitsTotal) {
+            this.startedAt = startedAt;
+            this.unitsTotal = unitsTotal;
+        }
+        
+        public void unitDone() {
+            unitsDone.incrementAndGet();
+        }
+        
+        public void windowFetched(int projetos) {
+            windowsFetched.incrementAndGet();
+            projetosFound.addAndGet(projetos);
+        }
+        
+        public void windowFailed() {
+            windowsFailed.incrementAndGet();
+        }
+        
+        public void projetosUpserted(int projetos) {
+            projetosUpserted.addAndGet(projetos);
+        }
+        
+        public void projetosEmbedded(int projetos) {
+            projetosEmbedded.addAndGet(projetos);
+        }
+        
+        public void embeddingFailed(int projetos) {
+            embeddingFailures.addAndGet(projetos);
+        }
+        
+        public void finish() {
+            finishedAt = LocalDateTime.now();
+        }
+        
+        public LocalDateTime getStartedAt() {
+            return startedAt;
+        }
+        
+        public LocalDateTime getFinishedAt() {
+            return finishedAt;
+        }
+        
+        public boolean isRunning() {
+            return finishedAt == null;
+        }
+        
+        public int getUnitsTotal() {
+            return unitsTotal;
+        }
+        
+        public int getUnitsDone() {
+            return unitsDone.get();
+        }
+        
+        public int getWindowsFetched() {
+            return windowsFetched.get();
+        }
+        
+        public int getWindowsFailed() {
+            return windowsFailed.get();
+        }
+        
+        public int getProjetosFound() {
+            return projetosFound.get();
+        }
+        
+        public int getProjetosUpserted() {
+            return projetosUpserted.get();
+        }
+        
+        public int getProjetosEmbedded() {
+            return projetosEmbedded.get();
+        }
+        
+        public int getEmbeddingFailures() {
+            return embeddingFailures.get();
+        }
+    }
+    
     /**
      * Classe para representar o status atual da sincronização
      */
@@ -186,6 +321,9 @@ public class SyncStatusService {
         private int successfulSyncs;
         private double successRate;
         private boolean healthy;
+        private SyncProgress progress;
+        private LocalDateTime lastProbeAt;
+        private List<SyncProbe> lastProbes;
         
         // Getters e Setters
         
@@ -252,5 +390,29 @@ public class SyncStatusService {
         public void setHealthy(boolean healthy) {
             this.healthy = healthy;
         }
+        
+        public SyncProgress getProgress() {
+            return progress;
+        }
+        
+        public void setProgress(SyncProgress progress) {
+            this.progress = progress;
+        }
+        
+        public LocalDateTime getLastProbeAt() {
+            return lastProbeAt;
+        }
+        
+        public void setLastProbeAt(LocalDateTime lastProbeAt) {
+            this.lastProbeAt = lastProbeAt;
+        }
+        
+        public List<SyncProbe> getLastProbes() {
+            return lastProbes;
+        }
+        
+        public void setLastProbes(List<SyncProbe> lastProbes) {
+            this.lastProbes = lastProbes;
+        }
     }
 }
@@ -0,0 +1,112 @@
+package br.com.sampachat.api.service;
+
+import br.com.sampachat.api.model.Projeto;
+import br.com.sampachat.api.model.TipoProposicao;
+import br.com.sampachat.api.repository.ProjetoBulkUpsert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark das estratégias de upsert em massa (ROW, BATCH, MULTI_ROW e COPY).
+ * <p>
+ * Cada medição roda em uma tabela temporária com a mesma estrutura e índices da tabela de projetos,
+ * dentro de uma transação que é desfeita no fim: nada é gravado em projetos. São medidas duas
+ * passadas com os mesmos projetos sintéticos: a primeira só insere e a segunda só atualiza
+ * (caminho do ON CONFLICT DO UPDATE), como numa sincronização que reprocessa projetos existentes.
+ */
+@Service
+public class UpsertBenchmarkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpsertBenchmarkService.class);
+    private static final String BENCHMARK_TABLE = "projetos_benchmark";
+
+    @Autowired
+    private ProjetoBulkUpsert projetoBulkUpsert;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Resultado de uma estratégia com uma quantidade de projetos
+     */
+    public record Result(String strategy, int rows, int batchSize, long insertMillis, long updateMillis,
+                         double insertRowsPerSecond, double updateRowsPerSecond) {
+    }
+
+    public List<Result> run(List<Integer> rowCounts, List<ProjetoBulkUpsert.Strategy> strategies, int batchSize) {
+        List<Result> resultados = new ArrayList<>();
+        for (int rows : rowCounts) {
+            List<Projeto> inseridos = syntheticProjetos(rows, "Ementa sintética");
+            List<Projeto> atualizados = syntheticProjetos(rows, "Ementa sintética alterada");
+            for (ProjetoBulkUpsert.Strategy strategy : strategies) {
+                Result resultado = measure(strategy, inseridos, atualizados, batchSize);
+                logger.info("⏱️ BENCHMARK UPSERT: {} | {} projetos | lote {} | inserção {} ms ({} projetos/s) | atualização {} ms ({} projetos/s)",
+                        strategy, rows, batchSize, resultado.insertMillis(), Math.round(resultado.insertRowsPerSecond()),
+                        resultado.updateMillis(), Math.round(resultado.updateRowsPerSecond()));
+                resultados.add(resultado);
+            }
+        }
+        return resultados;
+    }
+
+    private Result measure(ProjetoBulkUpsert.Strategy strategy, List<Projeto> inseridos, List<Projeto> atualizados, int batchSize) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return transaction.execute(status -> {
+            // Tudo é desfeito ao fim da medição, inclusive a tabela e a sequência temporárias
+            status.setRollbackOnly();
+            jdbcTemplate.execute("CREATE TEMP SEQUENCE " + BENCHMARK_TABLE + "_id_seq");
+            jdbcTemplate.execute("CREATE TEMP TABLE " + BENCHMARK_TABLE + " (LIKE projetos INCLUDING ALL)");
+            // Sem isso o id viria da sequência da tabela de projetos
+            jdbcTemplate.execute("ALTER TABLE " + BENCHMARK_TABLE + " ALTER COLUMN id SET DEFAULT nextval('"
+                    + BENCHMARK_TABLE + "_id_seq')");
+
+            long inicio = System.nanoTime();
+            projetoBulkUpsert.upsert(BENCHMARK_TABLE, inseridos, strategy, batchSize);
+            long insertNanos = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            projetoBulkUpsert.upsert(BENCHMARK_TABLE, atualizados, strategy, batchSize);
+            long updateNanos = System.nanoTime() - inicio;
+
+            return new Result(strategy.name(), inseridos.size(), batchSize,
+                    insertNanos / 1_000_000, updateNanos / 1_000_000,
+                    rowsPerSecond(inseridos.size(), insertNanos), rowsPerSecond(atualizados.size(), updateNanos));
+        });
+    }
+
+    private static double rowsPerSecond(int rows, long nanos) {
+        return nanos > 0 ? rows * 1_000_000_000.0 / nanos : 0;
+    }
+
+    /**
+     * Projetos com textos de tamanho parecido com os reais; a chave (tipo, número, ano) depende só da posição
+     */
+    private static List<Projeto> syntheticProjetos(int rows, String ementaBase) {
+        TipoProposicao[] tipos = TipoProposicao.values();
+        List<Projeto> projetos = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Projeto projeto = new Projeto();
+            projeto.setTipo(tipos[i % tipos.length]);
+            projeto.setNumero(i / tipos.length + 1);
+            projeto.setAno(2000 + i % 25);
+            projeto.setAutor("Vereador " + (i % 55) + ", Vereadora " + (i % 37));
+            projeto.setAutorSearch("vereador " + (i % 55) + ", vereadora " + (i % 37));
+            projeto.setEmenta(ementaBase + " " + i + ": dispõe sobre a denominação de logradouro público, "
+                    + "institui programa municipal e dá outras providências no âmbito do Município de São Paulo.");
+            projeto.setPalavrasChave("DENOMINAÇÃO|LOGRADOURO PÚBLICO|PROGRAMA MUNICIPAL|" + (i % 100));
+            projetos.add(projeto);
+        }
+        return projetos;
+    }
+}
@@ -18,4 +18,9 @@ public final class AppConstants {
      * Limite máximo de resultados que podem ser recuperados no total
      */
     public static final int MAX_RESULTS_LIMIT = 1000;
+    
+    /**
+     * Número máximo de buscas aceitas em uma única requisição de busca em lote
+     */
+    public static final int MAX_BATCH_QUERIES = 50;
 }
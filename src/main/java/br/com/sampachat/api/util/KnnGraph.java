@@ -0,0 +1,287 @@
+package br.com.sampachat.api.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Cálculo dos k vizinhos mais próximos (similaridade de cosseno) sobre uma matriz contígua de vetores.
+ * <p>
+ * Os vetores ficam em um único {@code float[]} (linha a linha) e são normalizados na construção,
+ * de modo que a similaridade de cosseno se reduz a um produto escalar. O cálculo é feito em blocos
+ * de consultas x candidatos, para que cada bloco caiba no cache, e os blocos de consulta são
+ * processados em paralelo.
+ */
+public final class KnnGraph {
+
+    private static final int QUERY_BLOCK = 64;
+    private static final int CANDIDATE_BLOCK = 1024;
+
+    private final int[] ids;
+    private final float[] matrix;
+    private final int dimension;
+
+    /**
+     * @param ids       id do projeto de cada linha
+     * @param matrix    vetores concatenados, {@code ids.length * dimension} posições
+     * @param dimension dimensão de cada vetor
+     */
+    public KnnGraph(int[] ids, float[] matrix, int dimension) {
+        if (matrix.length != ids.length * dimension) {
+            throw new IllegalArgumentException("Matriz com tamanho incompatível: " + matrix.length);
+        }
+        this.ids = ids;
+        this.matrix = matrix;
+        this.dimension = dimension;
+        normalizeRows();
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int idAt(int row) {
+        return ids[row];
+    }
+
+    /**
+     * Atualização incremental do grafo a partir das listas já calculadas.
+     * <p>
+     * Linhas sem lista em {@code existing} (projetos novos ou com embedding regerado, cujas listas foram
+     * invalidadas) são calculadas contra todas as linhas. As listas existentes que apontam para um desses
+     * ids, ou para um id que não está mais no grafo, guardam uma similaridade calculada com o embedding
+     * antigo: são recalculadas por inteiro (a aresta velha pode ter tirado da lista um vizinho que agora
+     * voltaria). As demais só são mescladas com as linhas novas.
+     *
+     * @return listas a gravar, por id (só as que mudaram)
+     */
+    public Map<Integer, Neighbors> updateIncremental(Map<Integer, Neighbors> existing, int k) {
+        Set<Integer> idsNoGrafo = new HashSet<>();
+        List<Integer> newRows = new ArrayList<>();
+        for (int row = 0; row < ids.length; row++) {
+            idsNoGrafo.add(ids[row]);
+            if (!existing.containsKey(ids[row])) {
+                newRows.add(row);
+            }
+        }
+        Map<Integer, Neighbors> toWrite = new LinkedHashMap<>();
+        if (newRows.isEmpty()) {
+            return toWrite;
+        }
+        Set<Integer> newIds = new HashSet<>();
+        newRows.forEach(row -> newIds.add(ids[row]));
+
+        List<Integer> staleRows = new ArrayList<>();
+        List<Integer> mergeRows = new ArrayList<>();
+        for (int row = 0; row < ids.length; row++) {
+            Neighbors atual = existing.get(ids[row]);
+            if (atual == null) continue;
+            boolean stale = Arrays.stream(atual.getIds()).anyMatch(id -> newIds.contains(id) || !idsNoGrafo.contains(id));
+            (stale ? staleRows : mergeRows).add(row);
+        }
+
+        int[] allRows = IntStream.range(0, ids.length).toArray();
+        int[] newRowArray = toArray(newRows);
+
+        // 1. Novos e regerados, e as listas com arestas velhas, contra todas as linhas
+        List<Integer> recalcular = new ArrayList<>(newRows);
+        recalcular.addAll(staleRows);
+        int[] recalcularArray = toArray(recalcular);
+        Neighbors[] recalculados = topK(recalcularArray, allRows, k, null);
+        for (int i = 0; i < recalcularArray.length; i++) {
+            int id = ids[recalcularArray[i]];
+            if (!recalculados[i].equals(existing.get(id))) {
+                toWrite.put(id, recalculados[i]);
+            }
+        }
+
+        // 2. Listas existentes que podem mudar com a chegada dos novos
+        if (!mergeRows.isEmpty()) {
+            int[] mergeRowArray = toArray(mergeRows);
+            Neighbors[] initial = new Neighbors[mergeRowArray.length];
+            for (int i = 0; i < mergeRowArray.length; i++) {
+                initial[i] = existing.get(ids[mergeRowArray[i]]);
+            }
+            Neighbors[] merged = topK(mergeRowArray, newRowArray, k, initial);
+            for (int i = 0; i < mergeRowArray.length; i++) {
+                if (!merged[i].equals(initial[i])) {
+                    toWrite.put(ids[mergeRowArray[i]], merged[i]);
+                }
+            }
+        }
+        return toWrite;
+    }
+
+    private static int[] toArray(List<Integer> rows) {
+        return rows.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Calcula, para cada linha de {@code queryRows}, os k candidatos de {@code candidateRows} mais similares.
+     * Se {@code initial} for informado, cada lista inicial é mesclada com os novos candidatos
+     * (usado na atualização incremental).
+     *
+     * @return uma lista por linha de consulta, na mesma ordem de {@code queryRows}
+     */
+    public Neighbors[] topK(int[] queryRows, int[] candidateRows, int k, Neighbors[] initial) {
+        Neighbors[] result = new Neighbors[queryRows.length];
+        for (int q = 0; q < queryRows.length; q++) {
+            result[q] = initial != null && initial[q] != null ? initial[q].copy(k) : new Neighbors(k);
+        }
+
+        int queryBlocks = (queryRows.length + QUERY_BLOCK - 1) / QUERY_BLOCK;
+        IntStream.range(0, queryBlocks).parallel().forEach(block -> {
+            int qStart = block * QUERY_BLOCK;
+            int qEnd = Math.min(qStart + QUERY_BLOCK, queryRows.length);
+
+            for (int cStart = 0; cStart < candidateRows.length; cStart += CANDIDATE_BLOCK) {
+                int cEnd = Math.min(cStart + CANDIDATE_BLOCK, candidateRows.length);
+
+                for (int q = qStart; q < qEnd; q++) {
+                    int queryRow = queryRows[q];
+                    int queryOffset = queryRow * dimension;
+                    Neighbors neighbors = result[q];
+
+                    for (int c = cStart; c < cEnd; c++) {
+                        int candidateRow = candidateRows[c];
+                        if (candidateRow == queryRow) continue;
+
+                        neighbors.offer(ids[candidateRow], dot(queryOffset, candidateRow * dimension));
+                    }
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Produto escalar com quatro acumuladores independentes, o que quebra a dependência
+     * entre iterações e permite ao JIT manter o pipeline de ponto flutuante ocupado
+     */
+    private float dot(int offsetA, int offsetB) {
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        int d = 0;
+        for (; d + 3 < dimension; d += 4) {
+            s0 += matrix[offsetA + d] * matrix[offsetB + d];
+            s1 += matrix[offsetA + d + 1] * matrix[offsetB + d + 1];
+            s2 += matrix[offsetA + d + 2] * matrix[offsetB + d + 2];
+            s3 += matrix[offsetA + d + 3] * matrix[offsetB + d + 3];
+        }
+        for (; d < dimension; d++) {
+            s0 += matrix[offsetA + d] * matrix[offsetB + d];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private void normalizeRows() {
+        for (int row = 0; row < ids.length; row++) {
+            int offset = row * dimension;
+            double norm = 0;
+            for (int d = 0; d < dimension; d++) {
+                norm += matrix[offset + d] * matrix[offset + d];
+            }
+            if (norm == 0) continue;
+            float inv = (float) (1.0 / Math.sqrt(norm));
+            for (int d = 0; d < dimension; d++) {
+                matrix[offset + d] *= inv;
+            }
+        }
+    }
+
+    /**
+     * Lista limitada aos k vizinhos de maior similaridade, mantida em ordem decrescente
+     */
+    public static final class Neighbors {
+        private final int[] ids;
+        private final float[] similarities;
+        private int size;
+
+        public Neighbors(int k) {
+            this.ids = new int[k];
+            this.similarities = new float[k];
+        }
+
+        public Neighbors(int[] ids, float[] similarities, int k) {
+            this(k);
+            for (int i = 0; i < Math.min(ids.length, similarities.length); i++) {
+                offer(ids[i], similarities[i]);
+            }
+        }
+
+        /**
+         * Insere o vizinho se ele estiver entre os k melhores. Se o id já estiver na lista,
+         * a similaridade dele é substituída (e ele sai da lista se deixar de estar entre os k melhores).
+         *
+         * @return true se a lista foi alterada
+         */
+        public boolean offer(int id, float similarity) {
+            int k = ids.length;
+            if (k == 0) return false;
+            boolean removed = false;
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    if (similarities[i] == similarity) return false;
+                    removed = remove(id);
+                    break;
+                }
+            }
+            if (size == k && similarity <= similarities[k - 1]) return removed;
+
+            int pos = size < k ? size : k - 1;
+            while (pos > 0 && similarities[pos - 1] < similarity) {
+                ids[pos] = ids[pos - 1];
+                similarities[pos] = similarities[pos - 1];
+                pos--;
+            }
+            ids[pos] = id;
+            similarities[pos] = similarity;
+            if (size < k) size++;
+            return true;
+        }
+
+        /**
+         * Remove o vizinho da lista
+         *
+         * @return true se o id estava na lista
+         */
+        public boolean remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                    System.arraycopy(similarities, i + 1, similarities, i, size - i - 1);
+                    size--;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int[] getIds() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        public float[] getSimilarities() {
+            return Arrays.copyOf(similarities, size);
+        }
+
+        Neighbors copy(int k) {
+            return new Neighbors(getIds(), getSimilarities(), k);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Neighbors other)) return false;
+            return Arrays.equals(getIds(), other.getIds()) && Arrays.equals(getSimilarities(), other.getSimilarities());
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(getIds());
+        }
+    }
+}
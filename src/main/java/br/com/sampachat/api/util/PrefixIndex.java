@@ -0,0 +1,202 @@
+package br.com.sampachat.api.util;
+
+import java.util.*;
+
+/**
+ * Índice de prefixos imutável baseado em arrays ordenados e busca binária.
+ * <p>
+ * Cada entrada pode ser indexada por várias chaves (ex: nome completo e sobrenome).
+ * A busca localiza o intervalo de chaves com o prefixo via busca binária. Prefixos cujo intervalo
+ * tem mais de {@value #SCAN_LIMIT} chaves (os curtos, de 1-2 letras, cobrem quase o índice todo) têm
+ * as {@code topK} entradas de maior peso calculadas na construção; os demais percorrem no máximo
+ * {@value #SCAN_LIMIT} chaves. O custo da busca é limitado, qualquer que seja o prefixo.
+ *
+ * @param <T> tipo do valor associado a cada entrada
+ */
+public final class PrefixIndex<T> {
+
+    // Maior intervalo de chaves percorrido numa busca; prefixos com intervalos maiores são pré-calculados
+    static final int SCAN_LIMIT = 256;
+    private static final int DEFAULT_TOP_K = 20;
+
+    private final String[] keys;
+    private final int[] entryOfKey;
+    private final List<T> values;
+    private final int[] weights;
+    private final int topK;
+    // Prefixo -> entradas de maior peso, em ordem decrescente (só prefixos com mais de SCAN_LIMIT chaves)
+    private final Map<String, int[]> topByPrefix;
+
+    private PrefixIndex(String[] keys, int[] entryOfKey, List<T> values, int[] weights, int topK) {
+        this.keys = keys;
+        this.entryOfKey = entryOfKey;
+        this.values = values;
+        this.weights = weights;
+        this.topK = topK;
+        this.topByPrefix = new HashMap<>();
+        precompute(0, keys.length, 0);
+    }
+
+    /**
+     * Retorna até {@code limit} valores cujas chaves começam com o prefixo informado,
+     * ordenados por peso decrescente. O prefixo já deve estar normalizado.
+     * Acima de {@code topK} resultados a busca percorre o intervalo inteiro do prefixo.
+     */
+    public List<T> search(String prefix, int limit) {
+        if (prefix == null || prefix.isEmpty() || limit <= 0 || keys.length == 0) {
+            return Collections.emptyList();
+        }
+
+        int[] precalculado = topByPrefix.get(prefix);
+        if (precalculado != null && limit <= topK) {
+            List<T> result = new ArrayList<>(Math.min(limit, precalculado.length));
+            for (int i = 0; i < precalculado.length && i < limit; i++) {
+                result.add(values.get(precalculado[i]));
+            }
+            return result;
+        }
+
+        int inicio = lowerBound(prefix);
+        int fim = inicio;
+        while (fim < keys.length && keys[fim].startsWith(prefix)) {
+            fim++;
+        }
+        int[] top = topEntries(inicio, fim, limit);
+        List<T> result = new ArrayList<>(top.length);
+        for (int entry : top) {
+            result.add(values.get(entry));
+        }
+        return result;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Entradas distintas de maior peso nas chaves [inicio, fim), em ordem decrescente de peso
+     */
+    private int[] topEntries(int inicio, int fim, int limit) {
+        // Menor peso no topo para descartar rapidamente os piores candidatos
+        PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, this::compareEntries);
+        Set<Integer> seen = new HashSet<>();
+
+        for (int i = inicio; i < fim; i++) {
+            int entry = entryOfKey[i];
+            if (!seen.add(entry)) continue;
+
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        int[] result = new int[top.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = top.poll();
+        }
+        return result;
+    }
+
+    /**
+     * Calcula o top-k dos prefixos de tamanho {@code depth + 1} dentro de [inicio, fim) (chaves que
+     * compartilham os primeiros {@code depth} caracteres) cujo intervalo passa de SCAN_LIMIT, e desce
+     * nesses intervalos. Como as chaves estão ordenadas, cada prefixo é um intervalo contíguo; um prefixo
+     * com mais de SCAN_LIMIT chaves está sempre dentro de um prefixo menor também grande, então todos
+     * são alcançados.
+     */
+    private void precompute(int inicio, int fim, int depth) {
+        int i = inicio;
+        // Chaves de tamanho depth (iguais ao prefixo do intervalo) vêm primeiro e não têm prefixo maior
+        while (i < fim && keys[i].length() <= depth) {
+            i++;
+        }
+        while (i < fim) {
+            String prefixo = keys[i].substring(0, depth + 1);
+            int grupoFim = i + 1;
+            while (grupoFim < fim && keys[grupoFim].startsWith(prefixo)) {
+                grupoFim++;
+            }
+            if (grupoFim - i > SCAN_LIMIT) {
+                topByPrefix.put(prefixo, topEntries(i, grupoFim, topK));
+                precompute(i, grupoFim, depth + 1);
+            }
+            i = grupoFim;
+        }
+    }
+
+    private int compareEntries(int a, int b) {
+        int byWeight = Integer.compare(weights[a], weights[b]);
+        if (byWeight != 0) return byWeight;
+        // Em caso de empate, a entrada mais antiga (menor índice) vence
+        return Integer.compare(b, a);
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Acumula entradas e gera o índice ordenado
+     */
+    public static final class Builder<T> {
+        private final List<String> keys = new ArrayList<>();
+        private final List<Integer> entryOfKey = new ArrayList<>();
+        private final List<T> values = new ArrayList<>();
+        private final List<Integer> weights = new ArrayList<>();
+        private int topK = DEFAULT_TOP_K;
+
+        /**
+         * Maior {@code limit} atendido pelo top-k pré-calculado dos prefixos curtos
+         */
+        public Builder<T> topK(int topK) {
+            this.topK = Math.max(1, topK);
+            return this;
+        }
+
+        /**
+         * Adiciona uma entrada com seu peso e as chaves (normalizadas) pelas quais ela pode ser encontrada
+         */
+        public Builder<T> add(T value, int weight, Collection<String> entryKeys) {
+            int entry = values.size();
+            values.add(value);
+            weights.add(weight);
+            for (String key : new LinkedHashSet<>(entryKeys)) {
+                if (key == null || key.isEmpty()) continue;
+                keys.add(key);
+                entryOfKey.add(entry);
+            }
+            return this;
+        }
+
+        public PrefixIndex<T> build() {
+            Integer[] order = new Integer[keys.size()];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, Comparator.comparing(keys::get));
+
+            String[] sortedKeys = new String[order.length];
+            int[] sortedEntries = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedKeys[i] = keys.get(order[i]);
+                sortedEntries[i] = entryOfKey.get(order[i]);
+            }
+
+            int[] weightArray = weights.stream().mapToInt(Integer::intValue).toArray();
+            return new PrefixIndex<>(sortedKeys, sortedEntries, List.copyOf(values), weightArray, topK);
+        }
+    }
+}
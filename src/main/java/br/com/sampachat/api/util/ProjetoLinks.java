@@ -0,0 +1,60 @@
+package br.com.sampachat.api.util;
+
+import br.com.sampachat.api.model.TipoProposicao;
+
+/**
+ * Links externos de uma proposição (SPLegis, Portal da Câmara e PDF).
+ * Os links derivam apenas de tipo, número e ano, então são montados por concatenação
+ * no momento em que são necessários, em vez de guardados em cada resultado.
+ */
+public final class ProjetoLinks {
+
+    // Base de cada link; o restante (tipo, número e ano) é concatenado nos métodos abaixo
+    private static final String SPLEGIS_BASE =
+            "https://splegisconsulta.saopaulo.sp.leg.br/Pesquisa/DetailsDetalhado?COD_MTRA_LEGL=";
+    private static final String PORTAL_BASE =
+            "https://www.saopaulo.sp.leg.br/cgi-bin/wxis.bin/iah/scripts/?IsisScript=iah.xis&lang=pt&format=detalhado.pft&base=proje&form=A&nextAction=search&indexSearch=^nTw^lTodos%20os%20campos&exprSearch=P=";
+    private static final String PDF_BASE =
+            "https://www.saopaulo.sp.leg.br/iah/fulltext/projeto/";
+
+    private ProjetoLinks() {
+    }
+
+    public static String spLegis(TipoProposicao tipo, Integer numero, Integer ano) {
+        return SPLEGIS_BASE + codigoTipoMateria(tipo) + "&COD_PCSS_CMSP=" + numero + "&ANO_PCSS_CMSP=" + ano;
+    }
+
+    public static String portal(TipoProposicao tipo, Integer numero, Integer ano) {
+        // Número e ano concatenados sem separador
+        return PORTAL_BASE + tipo.name() + numero + ano;
+    }
+
+    public static String pdf(TipoProposicao tipo, Integer numero, Integer ano) {
+        return PDF_BASE + tipo.name() + zeroPad4(numero) + "-" + ano + ".pdf";
+    }
+
+    /**
+     * Código da matéria legislativa no SPLegis conforme o tipo
+     */
+    public static int codigoTipoMateria(TipoProposicao tipo) {
+        switch (tipo) {
+            case PL:
+                return 1;
+            case PLO:
+                return 3;
+            case PDL:
+                return 2;
+            case PR:
+                return 4;
+            default:
+                return 0;
+        }
+    }
+
+    private static String zeroPad4(Integer numero) {
+        if (numero == null) return "null";
+        String texto = Integer.toString(numero);
+        if (numero < 0 || texto.length() >= 4) return texto;
+        return "0000".substring(texto.length()) + texto;
+    }
+}
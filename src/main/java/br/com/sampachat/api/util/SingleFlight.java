@@ -0,0 +1,180 @@
+package br.com.sampachat.api.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalescência de computações idênticas e concorrentes ("single-flight").
+ * <p>
+ * A primeira chamada para uma chave vira líder e executa o trabalho; as chamadas que chegam
+ * enquanto ele está em andamento viram seguidoras e recebem os mesmos resultados. O líder pode
+ * publicar vários estágios (ex: resultados exatos e depois completos); cada seguidor recebe
+ * todos os estágios já publicados e os seguintes, na ordem. A chave é liberada quando o líder
+ * conclui, então chamadas posteriores iniciam um novo voo.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Entra no voo da chave, criando-o (como líder) se não houver um em andamento
+     */
+    public Membership<V> join(K key) {
+        while (true) {
+            Flight<V> created = new Flight<>(this, key);
+            Flight<V> existing = inFlight.putIfAbsent(key, created);
+            if (existing == null) {
+                return new Membership<>(created, true);
+            }
+            // Um voo que acabou de terminar (ou foi abandonado) pode ainda estar no mapa: tenta de novo
+            if (existing.addParticipant()) {
+                return new Membership<>(existing, false);
+            }
+            inFlight.remove(key, existing);
+        }
+    }
+
+    public int size() {
+        return inFlight.size();
+    }
+
+    /**
+     * Participação de uma chamada em um voo: líder executa o trabalho, seguidores aguardam
+     */
+    public record Membership<V>(Flight<V> flight, boolean leader) {
+    }
+
+    public static final class Flight<V> {
+
+        private final SingleFlight<?, V> owner;
+        private final Object key;
+        private final List<V> stages = new ArrayList<>();
+        private final AtomicInteger participants = new AtomicInteger(1);
+        private volatile Runnable onAbandoned;
+        private boolean finished;
+        private Throwable failure;
+
+        private Flight(SingleFlight<?, V> owner, Object key) {
+            this.owner = owner;
+            this.key = key;
+        }
+
+        private synchronized boolean addParticipant() {
+            // Voo encerrado ou abandonado por todos: quem chega agora inicia um novo
+            if (finished || participants.get() == 0) return false;
+            participants.incrementAndGet();
+            return true;
+        }
+
+        /**
+         * Ação executada quando todos os participantes saem do voo, ou seja, ninguém mais
+         * espera pelo resultado e o líder pode abandonar o trabalho
+         */
+        public void onAbandoned(Runnable action) {
+            this.onAbandoned = action;
+        }
+
+        /**
+         * Sai do voo (ex: cliente desconectou)
+         */
+        public void leave() {
+            boolean abandoned;
+            synchronized (this) {
+                abandoned = participants.decrementAndGet() == 0;
+            }
+            if (abandoned) {
+                owner.inFlight.remove(key, this);
+                Runnable action = onAbandoned;
+                if (action != null) action.run();
+            }
+        }
+
+        /**
+         * Publica um estágio do resultado (apenas o líder)
+         */
+        public synchronized void publish(V stage) {
+            stages.add(stage);
+            notifyAll();
+        }
+
+        /**
+         * Encerra o voo com sucesso (apenas o líder)
+         */
+        public void complete() {
+            finish(null);
+        }
+
+        /**
+         * Encerra o voo com falha, repassada aos seguidores (apenas o líder)
+         */
+        public void fail(Throwable error) {
+            finish(error);
+        }
+
+        private void finish(Throwable error) {
+            synchronized (this) {
+                if (finished) return;
+                finished = true;
+                failure = error;
+                notifyAll();
+            }
+            owner.inFlight.remove(key, this);
+        }
+
+        /**
+         * Aguarda o fim do voo e devolve o último estágio publicado.
+         * Lança TimeoutException se o voo não terminar dentro do tempo de espera.
+         */
+        public synchronized V awaitLast(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+            long remaining = unit.toNanos(timeout);
+            long deadline = System.nanoTime() + remaining;
+            while (!finished) {
+                if (remaining <= 0) {
+                    throw new TimeoutException("Voo não concluído no tempo de espera");
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            rethrowFailure();
+            return stages.isEmpty() ? null : stages.get(stages.size() - 1);
+        }
+
+        /**
+         * Aguarda o estágio de índice {@code index}. Retorna null quando o voo terminou sem
+         * esse estágio ou o tempo de espera acabou (distinga com {@link #isExhausted(int)}).
+         */
+        public synchronized V awaitStage(int index, long timeout, TimeUnit unit) throws InterruptedException {
+            long remaining = unit.toNanos(timeout);
+            long deadline = System.nanoTime() + remaining;
+            while (stages.size() <= index && !finished && remaining > 0) {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            if (stages.size() > index) {
+                return stages.get(index);
+            }
+            if (finished) {
+                rethrowFailure();
+            }
+            return null;
+        }
+
+        /**
+         * Indica que o voo terminou e não há estágio de índice {@code index} ou posterior
+         */
+        public synchronized boolean isExhausted(int index) {
+            return finished && stages.size() <= index;
+        }
+
+        private void rethrowFailure() {
+            if (failure instanceof RuntimeException runtime) throw runtime;
+            if (failure instanceof Error error) throw error;
+            if (failure != null) throw new IllegalStateException(failure);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package br.com.sampachat.api.util;
+
+import java.util.*;
+
+/**
+ * Dicionário de deleções no estilo SymSpell para correção ortográfica com distância de edição limitada.
+ * <p>
+ * Na construção, cada termo do dicionário gera todas as variantes obtidas removendo até
+ * {@code maxEditDistance} caracteres dos seus primeiros {@code prefixLength} caracteres.
+ * Na consulta, as mesmas deleções são geradas para a palavra digitada e cruzadas com esse
+ * mapa, de modo que o custo depende apenas do tamanho da palavra e não do tamanho do dicionário.
+ * Os candidatos são confirmados com a distância de Damerau-Levenshtein (transposições adjacentes).
+ */
+public final class SymSpellIndex {
+
+    private final int maxEditDistance;
+    private final int prefixLength;
+    private final Map<String, Integer> frequencies;
+    private final Map<String, List<String>> deletes;
+
+    private SymSpellIndex(int maxEditDistance, int prefixLength,
+                          Map<String, Integer> frequencies, Map<String, List<String>> deletes) {
+        this.maxEditDistance = maxEditDistance;
+        this.prefixLength = prefixLength;
+        this.frequencies = frequencies;
+        this.deletes = deletes;
+    }
+
+    /**
+     * Constrói o índice a partir de termos (já normalizados) e suas frequências
+     */
+    public static SymSpellIndex build(Map<String, Integer> termFrequencies, int maxEditDistance, int prefixLength) {
+        Map<String, Integer> frequencies = new HashMap<>(termFrequencies);
+        Map<String, List<String>> deletes = new HashMap<>();
+
+        for (String term : frequencies.keySet()) {
+            String prefix = term.length() > prefixLength ? term.substring(0, prefixLength) : term;
+            for (String variant : generateDeletes(prefix, maxEditDistance)) {
+                deletes.computeIfAbsent(variant, k -> new ArrayList<>(2)).add(term);
+            }
+        }
+        return new SymSpellIndex(maxEditDistance, prefixLength, frequencies, deletes);
+    }
+
+    public boolean contains(String term) {
+        return frequencies.containsKey(term);
+    }
+
+    public int size() {
+        return frequencies.size();
+    }
+
+    /**
+     * Retorna o termo do dicionário mais próximo da palavra, dentro da distância informada.
+     * Em caso de empate na distância, vence o termo mais frequente.
+     */
+    public Optional<Suggestion> lookup(String word, int maxDistance) {
+        if (word == null || word.isEmpty()) return Optional.empty();
+        if (frequencies.containsKey(word)) {
+            return Optional.of(new Suggestion(word, 0, frequencies.get(word)));
+        }
+
+        int distanceLimit = Math.min(maxDistance, maxEditDistance);
+        String prefix = word.length() > prefixLength ? word.substring(0, prefixLength) : word;
+
+        Suggestion best = null;
+        Set<String> checked = new HashSet<>();
+        for (String variant : generateDeletes(prefix, distanceLimit)) {
+            List<String> candidates = deletes.get(variant);
+            if (candidates == null) continue;
+
+            for (String candidate : candidates) {
+                if (!checked.add(candidate)) continue;
+                if (Math.abs(candidate.length() - word.length()) > distanceLimit) continue;
+
+                int distance = distance(word, candidate, distanceLimit);
+                if (distance > distanceLimit) continue;
+
+                int frequency = frequencies.get(candidate);
+                if (best == null || distance < best.getDistance()
+                        || (distance == best.getDistance() && frequency > best.getFrequency())) {
+                    best = new Suggestion(candidate, distance, frequency);
+                }
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Gera a própria palavra e todas as variantes com até {@code maxDistance} caracteres removidos
+     */
+    private static Set<String> generateDeletes(String word, int maxDistance) {
+        Set<String> result = new HashSet<>();
+        result.add(word);
+        Deque<String> current = new ArrayDeque<>(List.of(word));
+        for (int d = 0; d < maxDistance; d++) {
+            Deque<String> next = new ArrayDeque<>();
+            for (String w : current) {
+                if (w.length() <= 1) continue;
+                for (int i = 0; i < w.length(); i++) {
+                    String deleted = w.substring(0, i) + w.substring(i + 1);
+                    if (result.add(deleted)) {
+                        next.add(deleted);
+                    }
+                }
+            }
+            current = next;
+        }
+        return result;
+    }
+
+    /**
+     * Distância de Damerau-Levenshtein (variante OSA). Retorna {@code limit + 1} assim
+     * que uma linha inteira da matriz ultrapassa o limite.
+     */
+    static int distance(String a, String b, int limit) {
+        int n = a.length();
+        int m = b.length();
+        int[][] d = new int[n + 1][m + 1];
+        for (int i = 0; i <= n; i++) d[i][0] = i;
+        for (int j = 0; j <= m; j++) d[0][j] = j;
+
+        for (int i = 1; i <= n; i++) {
+            int rowMin = Integer.MAX_VALUE;
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, d[i - 2][j - 2] + 1);
+                }
+                d[i][j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > limit) return limit + 1;
+        }
+        return d[n][m];
+    }
+
+    /**
+     * Termo sugerido com sua distância de edição e frequência no dicionário
+     */
+    public static final class Suggestion {
+        private final String term;
+        private final int distance;
+        private final int frequency;
+
+        public Suggestion(String term, int distance, int frequency) {
+            this.term = term;
+            this.distance = distance;
+            this.frequency = frequency;
+        }
+
+        public String getTerm() {
+            return term;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+
+        public int getFrequency() {
+            return frequency;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.sampachat.api.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limitador de taxa por balde de fichas (token bucket).
+ * <p>
+ * O balde enche a {@code ratePerSecond} fichas por segundo até {@code burst}; cada chamada a
+ * {@link #acquire()} consome uma ficha. Quando o balde está vazio a ficha é reservada e a chamada
+ * dorme até o instante em que ela estaria disponível, então as chamadas concorrentes são
+ * espaçadas de forma justa, na ordem de chegada, sem espera ativa.
+ */
+public class TokenBucket {
+
+    private final double ratePerNano;
+    private final double burst;
+    private final Clock clock;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        this(ratePerSecond, burst, Clock.SYSTEM);
+    }
+
+    TokenBucket(double ratePerSecond, int burst, Clock clock) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("A taxa deve ser positiva");
+        }
+        this.ratePerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(1, burst);
+        this.clock = clock;
+        this.tokens = this.burst;
+        this.lastRefill = clock.nanoTime();
+    }
+
+    /**
+     * Consome uma ficha, aguardando se necessário
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            clock.sleepNanos(waitNanos);
+        }
+    }
+
+    /**
+     * Reserva uma ficha e devolve quanto tempo esperar até poder usá-la
+     */
+    synchronized long reserve() {
+        long now = clock.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefill) * ratePerNano);
+        lastRefill = now;
+        tokens -= 1;
+        // Saldo negativo: fichas já reservadas por quem chegou antes
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / ratePerNano);
+    }
+
+    /**
+     * Fonte de tempo do balde; substituível nos testes
+     */
+    interface Clock {
+
+        Clock SYSTEM = new Clock() {
+            @Override
+            public long nanoTime() {
+                return System.nanoTime();
+            }
+
+            @Override
+            public void sleepNanos(long nanos) throws InterruptedException {
+                TimeUnit.NANOSECONDS.sleep(nanos);
+            }
+        };
+
+        long nanoTime();
+
+        void sleepNanos(long nanos) throws InterruptedException;
+    }
+}
@@ -0,0 +1,8 @@
+-- Grafo pré-computado dos k vizinhos mais próximos (similaridade de cosseno) de cada projeto.
+-- Uma linha por projeto, com os ids e similaridades em arrays paralelos, em ordem decrescente de similaridade.
+CREATE TABLE IF NOT EXISTS projeto_vizinhos (
+    projeto_id INTEGER PRIMARY KEY REFERENCES projetos (id) ON DELETE CASCADE,
+    vizinhos INTEGER[] NOT NULL,
+    similaridades REAL[] NOT NULL,
+    atualizado_em TIMESTAMP NOT NULL DEFAULT now()
+);
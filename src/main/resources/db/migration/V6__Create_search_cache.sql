@@ -0,0 +1,18 @@
+-- Versão dos dados usada para invalidar o cache de resultados de busca.
+-- Linha única, incrementada pela sincronização sempre que projetos ou embeddings mudam.
+CREATE TABLE IF NOT EXISTS search_data_version (
+    id INTEGER PRIMARY KEY CHECK (id = 1),
+    versao BIGINT NOT NULL,
+    atualizado_em TIMESTAMP NOT NULL DEFAULT now()
+);
+
+INSERT INTO search_data_version (id, versao) VALUES (1, 1) ON CONFLICT (id) DO NOTHING;
+
+-- Camada compartilhada (opcional) do cache de resultados: lista ranqueada de ids por busca canônica.
+-- UNLOGGED: não passa pelo WAL e é esvaziada após um crash, o que é aceitável para um cache.
+CREATE UNLOGGED TABLE IF NOT EXISTS search_result_cache (
+    cache_key TEXT PRIMARY KEY,
+    data_version BIGINT NOT NULL,
+    ranked_ids INTEGER[] NOT NULL,
+    criado_em TIMESTAMP NOT NULL DEFAULT now()
+);
@@ -0,0 +1,4 @@
+-- Índice da ordenação das buscas apenas por filtros (ano DESC, numero DESC, id DESC).
+-- Permite a paginação por cursor (keyset): cada página parte da chave do último item entregue,
+-- sem percorrer e descartar as linhas anteriores como o OFFSET.
+CREATE INDEX IF NOT EXISTS idx_projetos_keyset ON projetos (ano DESC, numero DESC, id DESC);
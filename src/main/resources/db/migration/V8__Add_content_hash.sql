@@ -0,0 +1,22 @@
+-- Hash do conteúdo gravado de cada projeto (autor, autor_search, ementa e palavras_chave).
+-- O upsert da sincronização só reescreve a linha quando o hash muda, evitando tuplas mortas,
+-- WAL e atualização de índices para projetos que vieram iguais do SPLegis.
+-- Cada campo entra com o seu tamanho como prefixo (ou "-" quando nulo), para que campos
+-- diferentes não produzam a mesma concatenação.
+CREATE OR REPLACE FUNCTION projeto_content_hash(p_autor TEXT, p_autor_search TEXT, p_ementa TEXT, p_palavras_chave TEXT)
+RETURNS BYTEA
+LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$
+    SELECT sha256(convert_to(
+        COALESCE(length(p_autor) || ':' || p_autor, '-') || '|' ||
+        COALESCE(length(p_autor_search) || ':' || p_autor_search, '-') || '|' ||
+        COALESCE(length(p_ementa) || ':' || p_ementa, '-') || '|' ||
+        COALESCE(length(p_palavras_chave) || ':' || p_palavras_chave, '-'),
+        'UTF8'))
+$$;
+
+ALTER TABLE projetos ADD COLUMN IF NOT EXISTS content_hash BYTEA;
+
+-- Preenche os projetos existentes, para que a primeira sincronização não reescreva todos
+UPDATE projetos
+SET content_hash = projeto_content_hash(autor, autor_search, ementa, palavras_chave)
+WHERE content_hash IS NULL;
@@ -0,0 +1,16 @@
+-- Progresso persistente da sincronização completa, por (tipo, ano).
+-- ultimo_numero: fim da última janela concluída; todas as janelas até ele foram gravadas.
+-- limite: maior número ainda a buscar em janelas (a cabeça já trouxe os acima dele); NULL se desconhecido.
+-- restantes: projetos abaixo do limite ainda não recebidos, segundo o SPLegis; NULL se desconhecido.
+-- O checkpoint é gravado na mesma transação do upsert de cada janela, e uma sincronização
+-- interrompida (ou o retry) retoma a partir dele em vez de percorrer as janelas de novo.
+CREATE TABLE IF NOT EXISTS sync_checkpoints (
+    tipo tp_proposicao NOT NULL,
+    ano INTEGER NOT NULL,
+    ultimo_numero INTEGER NOT NULL,
+    limite INTEGER,
+    restantes INTEGER,
+    concluido BOOLEAN NOT NULL DEFAULT FALSE,
+    atualizado_em TIMESTAMP NOT NULL DEFAULT now(),
+    PRIMARY KEY (tipo, ano)
+);
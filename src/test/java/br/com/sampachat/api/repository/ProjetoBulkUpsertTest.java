@@ -0,0 +1,149 @@
+package br.com.sampachat.api.repository;
+
+import br.com.sampachat.api.model.Projeto;
+import br.com.sampachat.api.model.TipoProposicao;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProjetoBulkUpsertTest {
+
+    private static Projeto projeto(TipoProposicao tipo, int numero, int ano, String ementa) {
+        Projeto projeto = new Projeto();
+        projeto.setTipo(tipo);
+        projeto.setNumero(numero);
+        projeto.setAno(ano);
+        projeto.setEmenta(ementa);
+        return projeto;
+    }
+
+    @Test
+    void csvQuotesValuesAndDoublesInnerQuotes() {
+        Projeto projeto = projeto(TipoProposicao.PL, 12, 2024, "Institui o \"Dia da Saúde\", e dá outras providências");
+        projeto.setAutor("Fulano");
+        projeto.setAutorSearch("fulano");
+        projeto.setPalavrasChave("saúde;\nhospital");
+
+        assertEquals("\"PL\",\"12\",\"2024\",\"Fulano\",\"fulano\","
+                        + "\"Institui o \"\"Dia da Saúde\"\", e dá outras providências\",\"saúde;\nhospital\"\n",
+                ProjetoBulkUpsert.toCsv(List.of(projeto)));
+    }
+
+    @Test
+    void csvNullIsEmptyUnquotedFieldAndEmptyStringIsQuoted() {
+        Projeto semAutor = projeto(TipoProposicao.PL, 1, 2024, "");
+        Projeto outro = projeto(TipoProposicao.PDL, 2, 2023, null);
+
+        // No formato csv do COPY, campo vazio sem aspas é NULL e "" é texto vazio
+        assertEquals("\"PL\",\"1\",\"2024\",,,\"\",\n\"PDL\",\"2\",\"2023\",,,,\n",
+                ProjetoBulkUpsert.toCsv(List.of(semAutor, outro)));
+    }
+
+    @Test
+    void deduplicateKeepsLastVersionInFirstPosition() {
+        Projeto a1 = projeto(TipoProposicao.PL, 1, 2024, "versão 1");
+        Projeto b = projeto(TipoProposicao.PL, 2, 2024, "b");
+        Projeto a2 = projeto(TipoProposicao.PL, 1, 2024, "versão 2");
+        // Mesmo número e ano, mas outro tipo: é outro projeto
+        Projeto c = projeto(TipoProposicao.PDL, 1, 2024, "c");
+
+        List<Projeto> unicos = ProjetoBulkUpsert.deduplicate(List.of(a1, b, a2, c));
+
+        assertEquals(List.of(a2, b, c), unicos);
+    }
+
+    @Test
+    void deduplicateReturnsSameListWithoutRepeats() {
+        List<Projeto> projetos = List.of(projeto(TipoProposicao.PL, 1, 2024, "a"), projeto(TipoProposicao.PL, 2, 2024, "b"));
+
+        assertSame(projetos, ProjetoBulkUpsert.deduplicate(projetos));
+    }
+
+    @Test
+    void upsertReturningExposesAllFlags() {
+        String sql = ProjetoBulkUpsert.upsertReturning("projetos_bench", "SELECT 1");
+
+        assertTrue(sql.contains("INSERT INTO projetos_bench AS t"));
+        assertTrue(sql.contains("FROM projetos_bench p"));
+        assertTrue(sql.contains("(xmax = 0) AS inserted"));
+        assertTrue(sql.contains("AS changed"));
+        assertTrue(sql.contains("AS embedding_content_changed"));
+        assertTrue(sql.contains("END AS missing_embedding"));
+        // Projetos sem mudança não são reescritos e só mudanças de ementa ou palavras-chave apagam o embedding
+        assertTrue(sql.contains("WHERE t.content_hash IS DISTINCT FROM EXCLUDED.content_hash"));
+        assertTrue(sql.contains("WHEN (t.ementa, t.palavras_chave) IS DISTINCT FROM (EXCLUDED.ementa, EXCLUDED.palavras_chave) THEN NULL"));
+    }
+
+    @Test
+    void resultMapperReadsFlags() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getInt("id")).thenReturn(42);
+        when(rs.getString("tipo")).thenReturn("PL");
+        when(rs.getInt("numero")).thenReturn(12);
+        when(rs.getInt("ano")).thenReturn(2024);
+        when(rs.getBoolean("inserted")).thenReturn(false);
+        when(rs.getBoolean("changed")).thenReturn(true);
+        when(rs.getBoolean("embedding_content_changed")).thenReturn(false);
+        when(rs.getBoolean("missing_embedding")).thenReturn(true);
+
+        ProjetoBulkUpsert.UpsertResult result = ProjetoBulkUpsert.RESULT_MAPPER.mapRow(rs, 0);
+
+        assertEquals(new ProjetoBulkUpsert.UpsertResult(42, TipoProposicao.PL, 12, 2024, false, true, false, true), result);
+        // Sem mudança de ementa, mas o embedding ainda falta (ex: a geração falhou na sincronização anterior)
+        assertTrue(result.needsEmbedding());
+        assertFalse(new ProjetoBulkUpsert.UpsertResult(1, TipoProposicao.PL, 1, 2024, false, true, false, false).needsEmbedding());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void multiRowSplitsDeduplicatedProjetosIntoBatches() throws SQLException {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        ProjetoBulkUpsert upsert = new ProjetoBulkUpsert();
+        ReflectionTestUtils.setField(upsert, "jdbcTemplate", jdbcTemplate);
+        List<List<Integer>> lotes = new ArrayList<>();
+        when(jdbcTemplate.query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class))).thenAnswer(invocation -> {
+            List<Integer> numeros = new ArrayList<>();
+            PreparedStatement ps = mock(PreparedStatement.class);
+            // O número é o segundo de cada grupo de 7 parâmetros
+            doAnswer(set -> {
+                int indice = set.getArgument(0);
+                if (indice % 7 == 2) {
+                    numeros.add(set.getArgument(1));
+                }
+                return null;
+            }).when(ps).setObject(anyInt(), any());
+            invocation.<PreparedStatementSetter>getArgument(1).setValues(ps);
+            lotes.add(numeros);
+            return List.of();
+        });
+
+        List<Projeto> projetos = new ArrayList<>();
+        for (int numero = 1; numero <= 5; numero++) {
+            projetos.add(projeto(TipoProposicao.PL, numero, 2024, "v1"));
+        }
+        projetos.add(projeto(TipoProposicao.PL, 2, 2024, "v2"));
+
+        upsert.upsert(ProjetoBulkUpsert.TABLE, projetos, ProjetoBulkUpsert.Strategy.MULTI_ROW, 2);
+
+        assertEquals(List.of(List.of(1, 2), List.of(3, 4), List.of(5)), lotes);
+    }
+}
@@ -0,0 +1,156 @@
+package br.com.sampachat.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DataVersionServiceTest {
+
+    private final List<String> eventos = new ArrayList<>();
+    private RecordingTransactionManager transactionManager;
+    private DataVersionService service;
+
+    /**
+     * Gerenciador de transações que registra início, commit e rollback de cada transação física,
+     * identificadas pela ordem em que começaram
+     */
+    private final class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+
+        private int transacoes;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object[]{TransactionSynchronizationManager.getResource(this)};
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return ((Object[]) transaction)[0] != null;
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            String id = "tx" + (++transacoes);
+            ((Object[]) transaction)[0] = id;
+            TransactionSynchronizationManager.bindResource(this, id);
+            eventos.add("begin " + id);
+        }
+
+        @Override
+        protected Object doSuspend(Object transaction) {
+            ((Object[]) transaction)[0] = null;
+            return TransactionSynchronizationManager.unbindResource(this);
+        }
+
+        @Override
+        protected void doResume(Object transaction, Object suspendedResources) {
+            TransactionSynchronizationManager.bindResource(this, suspendedResources);
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            eventos.add("commit " + ((Object[]) status.getTransaction())[0]);
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            eventos.add("rollback " + ((Object[]) status.getTransaction())[0]);
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(this);
+        }
+
+        String atual() {
+            Object id = TransactionSynchronizationManager.getResource(this);
+            return id != null ? id.toString() : "sem transação";
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = new RecordingTransactionManager();
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            if (sql.startsWith("UPDATE")) {
+                eventos.add("update versão em " + transactionManager.atual());
+                return 8L;
+            }
+            return 7L;
+        });
+        when(jdbcTemplate.update(anyString(), anyLong())).thenAnswer(invocation -> {
+            eventos.add("delete cache em " + transactionManager.atual());
+            return 0;
+        });
+
+        service = new DataVersionService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "transactionManager", transactionManager);
+        service.init();
+    }
+
+    @Test
+    void bumpInsideWindowTransactionCommitsVersionInItsOwnTransaction() {
+        TransactionTemplate janela = new TransactionTemplate(transactionManager);
+        janela.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        janela.executeWithoutResult(status -> {
+            service.bump();
+            // Antes do commit da janela a versão não muda
+            assertEquals(7, service.current());
+        });
+
+        // O incremento roda depois do commit da janela, em uma transação nova que também é confirmada
+        assertEquals(List.of(
+                "begin tx1",
+                "commit tx1",
+                "begin tx2",
+                "update versão em tx2",
+                "delete cache em tx2",
+                "commit tx2"), eventos);
+        assertEquals(8, service.current());
+    }
+
+    @Test
+    void bumpInsideRolledBackTransactionDoesNothing() {
+        TransactionTemplate janela = new TransactionTemplate(transactionManager);
+
+        janela.executeWithoutResult(status -> {
+            service.bump();
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of("begin tx1", "rollback tx1"), eventos);
+        assertEquals(7, service.current());
+    }
+
+    @Test
+    void bumpOutsideTransactionCommitsImmediately() {
+        service.bump();
+
+        assertEquals(List.of(
+                "begin tx1",
+                "update versão em tx1",
+                "delete cache em tx1",
+                "commit tx1"), eventos);
+        assertEquals(8, service.current());
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.sampachat.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SearchResultCacheServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SearchResultCacheService cache;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        cache = service(true, false);
+    }
+
+    private SearchResultCacheService service(boolean enabled, boolean sharedEnabled) {
+        SearchResultCacheService service = new SearchResultCacheService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "enabled", enabled);
+        ReflectionTestUtils.setField(service, "maxEntries", 100L);
+        ReflectionTestUtils.setField(service, "sharedEnabled", sharedEnabled);
+        service.init();
+        return service;
+    }
+
+    @Test
+    void hitOnlyInTheVersionItWasComputed() {
+        cache.put("saude", 7, new int[]{3, 1, 2});
+
+        assertArrayEquals(new int[]{3, 1, 2}, cache.get("saude", 7));
+        // Depois de uma sincronização (versão 8) a entrada não vale mais
+        assertNull(cache.get("saude", 8));
+        assertNull(cache.get("educacao", 7));
+    }
+
+    @Test
+    void newerVersionReplacesEntry() {
+        cache.put("saude", 7, new int[]{3, 1, 2});
+        cache.put("saude", 8, new int[]{4});
+
+        assertArrayEquals(new int[]{4}, cache.get("saude", 8));
+        assertNull(cache.get("saude", 7));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void staleComputationDoesNotOverwriteNewerEntry() {
+        // Uma busca que começou antes da sincronização termina depois de outra já ter gravado a versão nova
+        cache.put("saude", 8, new int[]{4});
+        cache.put("saude", 7, new int[]{3, 1, 2});
+
+        assertArrayEquals(new int[]{4}, cache.get("saude", 8));
+        assertNull(cache.get("saude", 7));
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        SearchResultCacheService desligado = service(false, true);
+
+        desligado.put("saude", 7, new int[]{3, 1, 2});
+
+        assertNull(desligado.get("saude", 7));
+        assertEquals(0, desligado.size());
+        verify(jdbcTemplate, never()).update(anyString(), any(PreparedStatementSetter.class));
+    }
+
+    @Test
+    void sharedLayerIsQueriedByVersionAndFillsLocalLayer() {
+        SearchResultCacheService compartilhado = service(true, true);
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), eq("saude"), eq(8L)))
+                .thenReturn(new int[]{5, 6});
+
+        assertArrayEquals(new int[]{5, 6}, compartilhado.get("saude", 8));
+        // A segunda leitura vem da camada local
+        assertArrayEquals(new int[]{5, 6}, compartilhado.get("saude", 8));
+        verify(jdbcTemplate, times(1)).query(anyString(), any(ResultSetExtractor.class), eq("saude"), eq(8L));
+        // Versão sem entrada compartilhada
+        assertNull(compartilhado.get("saude", 9));
+    }
+
+    @Test
+    void sharedLayerErrorsAreMisses() {
+        SearchResultCacheService compartilhado = service(true, true);
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), eq("saude"), eq(8L)))
+                .thenThrow(new DataAccessResourceFailureException("sem conexão"));
+
+        assertNull(compartilhado.get("saude", 8));
+    }
+}
@@ -0,0 +1,131 @@
+package br.com.sampachat.api.service;
+
+import br.com.sampachat.api.dto.splegis.SPLegisProjetoDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SplegisPageParserTest {
+
+    private SplegisPageParser parser;
+    private List<SPLegisProjetoDTO> itens;
+
+    @BeforeEach
+    void setUp() {
+        parser = new SplegisPageParser();
+        ReflectionTestUtils.setField(parser, "objectMapper", new ObjectMapper());
+        itens = new ArrayList<>();
+    }
+
+    private SplegisPageParser.PageSummary parse(String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        return parser.parse(new ByteArrayInputStream(body), itens::add);
+    }
+
+    private static String projeto(int numero) {
+        return "{\"codigo\":" + (1000 + numero) + ",\"numero\":" + numero + ",\"ano\":2024,"
+                + "\"ementa\":\"Ementa " + numero + "\",\"texto\":\"ignorado\","
+                + "\"promoventes\":[{\"texto\":\"Autor " + numero + "\"}],\"assuntos\":[{\"texto\":\"Saúde\"}]}";
+    }
+
+    @Test
+    void parsesNormalPage() throws IOException {
+        String json = "{\"draw\":1,\"recordsTotal\":500,\"recordsFiltered\":3,\"data\":["
+                + projeto(1) + "," + projeto(2) + "," + projeto(3) + "]}";
+
+        SplegisPageParser.PageSummary page = parse(json);
+
+        assertEquals(500, page.recordsTotal());
+        assertEquals(3, page.recordsFiltered());
+        assertEquals(3, page.items());
+        assertEquals(json.getBytes(StandardCharsets.UTF_8).length, page.bytes());
+        assertNull(page.error());
+        assertEquals(List.of(1, 2, 3), itens.stream().map(SPLegisProjetoDTO::getNumero).toList());
+
+        SPLegisProjetoDTO primeiro = itens.get(0);
+        assertEquals(1001L, primeiro.getCodigo());
+        assertEquals(1, primeiro.getNumero());
+        assertEquals(2024, primeiro.getAno());
+        assertEquals("Ementa 1", primeiro.getEmenta());
+        assertEquals("Autor 1", primeiro.getPromoventes().get(0).getTexto());
+        assertEquals("Saúde", primeiro.getAssuntos().get(0).getTexto());
+    }
+
+    @Test
+    void emptyDataDeliversNoItems() throws IOException {
+        SplegisPageParser.PageSummary page = parse("{\"recordsTotal\":10,\"recordsFiltered\":0,\"data\":[]}");
+
+        assertEquals(0, page.items());
+        assertEquals(0, page.recordsFiltered());
+        assertTrue(itens.isEmpty());
+    }
+
+    @Test
+    void missingAndNullFieldsBecomeNull() throws IOException {
+        String json = "{\"recordsTotal\":null,\"data\":[{\"numero\":7,\"ementa\":null,\"promoventes\":null}],"
+                + "\"error\":\"consulta parcial\"}";
+
+        SplegisPageParser.PageSummary page = parse(json);
+
+        assertNull(page.recordsTotal());
+        assertNull(page.recordsFiltered());
+        assertEquals("consulta parcial", page.error());
+        assertEquals(1, page.items());
+        SPLegisProjetoDTO projeto = itens.get(0);
+        assertEquals(7, projeto.getNumero());
+        assertNull(projeto.getCodigo());
+        assertNull(projeto.getAno());
+        assertNull(projeto.getEmenta());
+        assertNull(projeto.getPromoventes());
+        assertNull(projeto.getAssuntos());
+    }
+
+    @Test
+    void dataThatIsNotAnArrayIsSkipped() throws IOException {
+        SplegisPageParser.PageSummary page = parse("{\"data\":{\"numero\":1},\"recordsFiltered\":0}");
+
+        assertEquals(0, page.items());
+        assertEquals(0, page.recordsFiltered());
+        assertTrue(itens.isEmpty());
+    }
+
+    @Test
+    void nonObjectItemsAreSkipped() throws IOException {
+        SplegisPageParser.PageSummary page = parse("{\"data\":[null,1,[2]," + projeto(4) + "]}");
+
+        assertEquals(1, page.items());
+        assertEquals(4, itens.get(0).getNumero());
+    }
+
+    @Test
+    void responseThatIsNotAnObjectFails() {
+        assertThrows(IOException.class, () -> parse("[" + projeto(1) + "]"));
+        assertThrows(IOException.class, () -> parse(""));
+    }
+
+    @Test
+    void truncatedBodyFails() {
+        String json = "{\"recordsTotal\":500,\"recordsFiltered\":3,\"data\":[" + projeto(1) + "," + projeto(2) + "]}";
+
+        assertThrows(IOException.class, () -> parse(json.substring(0, json.length() - 1)));
+        assertThrows(IOException.class, () -> parse(json.substring(0, json.indexOf(projeto(2)) + 20)));
+    }
+
+    @Test
+    void malformedJsonFails() {
+        assertThrows(IOException.class, () -> parse("{\"data\":[{\"numero\":}]}"));
+        assertThrows(IOException.class, () -> parse("{\"data\":[" + projeto(1) + " " + projeto(2) + "]}"));
+    }
+}
@@ -0,0 +1,279 @@
+package br.com.sampachat.api.service;
+
+import br.com.sampachat.api.dto.splegis.SPLegisProjetoDTO;
+import br.com.sampachat.api.model.TipoProposicao;
+import br.com.sampachat.api.repository.SyncCheckpointRepository.Checkpoint;
+import br.com.sampachat.api.service.SyncProjetosService.SyncUnit;
+import br.com.sampachat.api.service.SyncProjetosService.UnitCrawl;
+import br.com.sampachat.api.service.SyncProjetosService.WindowFetch;
+import br.com.sampachat.api.service.SyncProjetosService.WindowResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static br.com.sampachat.api.service.SyncProjetosService.MAX_NUMERO;
+import static br.com.sampachat.api.service.SyncProjetosService.PAGE_LENGTH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UnitCrawlTest {
+
+    private static final long ALVO_MS = 1000;
+
+    private static UnitCrawl crawl(int startNumero, int initialSize, int minSize) {
+        return new UnitCrawl(new SyncUnit(1, TipoProposicao.PL, startNumero, 2024), initialSize, minSize);
+    }
+
+    /**
+     * Projetos com números de {@code maior} até {@code menor}, na ordem da cabeça (maiores primeiro)
+     */
+    private static List<SPLegisProjetoDTO> projetos(int maior, int menor) {
+        List<SPLegisProjetoDTO> projetos = new ArrayList<>();
+        for (int numero = maior; numero >= menor; numero--) {
+            SPLegisProjetoDTO dto = new SPLegisProjetoDTO();
+            dto.setNumero(numero);
+            projetos.add(dto);
+        }
+        return projetos;
+    }
+
+    private static WindowResult cabeca(List<SPLegisProjetoDTO> projetos, Integer recordsFiltered) {
+        SplegisPageParser.PageSummary page = recordsFiltered == null ? null
+                : new SplegisPageParser.PageSummary(recordsFiltered, recordsFiltered, projetos.size(), 0, null);
+        return new WindowResult(projetos, page, 100);
+    }
+
+    private static Checkpoint checkpoint(int ultimoNumero, Integer limite, Integer restantes) {
+        return new Checkpoint(TipoProposicao.PL, 2024, ultimoNumero, limite, restantes, false, LocalDateTime.now());
+    }
+
+    private static void adapt(UnitCrawl crawl, int largura, int recebidos, long millis) {
+        WindowFetch janela = new WindowFetch(1, largura, false, null);
+        crawl.adapt(janela, new WindowResult(projetos(recebidos, 1), null, millis), ALVO_MS);
+    }
+
+    @Test
+    void boundFinishesWhenNothingMatches() {
+        UnitCrawl crawl = crawl(1, 200, 50);
+
+        crawl.bound(cabeca(List.of(), 0));
+
+        assertTrue(crawl.finished);
+        assertFalse(crawl.bounded);
+    }
+
+    @Test
+    void boundFinishesOnEmptyPageWithoutSummary() {
+        UnitCrawl crawl = crawl(1, 200, 50);
+
+        crawl.bound(cabeca(List.of(), null));
+
+        assertTrue(crawl.finished);
+    }
+
+    @Test
+    void boundFinishesWhenExactlyOnePageMatches() {
+        UnitCrawl crawl = crawl(1, 200, 50);
+
+        crawl.bound(cabeca(projetos(MAX_NUMERO, MAX_NUMERO - PAGE_LENGTH + 1), PAGE_LENGTH));
+
+        assertTrue(crawl.finished);
+    }
+
+    @Test
+    void fullPageWithoutSummaryKeepsCrawlingWithUnknownTotal() {
+        UnitCrawl crawl = crawl(1, 200, 50);
+
+        crawl.bound(cabeca(projetos(MAX_NUMERO, MAX_NUMERO - PAGE_LENGTH + 1), null));
+
+        assertFalse(crawl.finished);
+        assertTrue(crawl.bounded);
+        assertEquals(MAX_NUMERO - PAGE_LENGTH, crawl.limite);
+        assertEquals(-1, crawl.restantes);
+    }
+
+    @Test
+    void partialPageWithoutSummaryIsEverything() {
+        UnitCrawl crawl = crawl(1, 200, 50);
+
+        crawl.bound(cabeca(projetos(300, 1), null));
+
+        assertTrue(crawl.finished);
+    }
+
+    @Test
+    void boundLimitsBelowSmallestNumberOfHead() {
+        UnitCrawl crawl = crawl(1, 200, 50);
+        List<SPLegisProjetoDTO> projetos = projetos(9999, 9001);
+        // Itens sem número não definem o limite
+        projetos.add(new SPLegisProjetoDTO());
+
+        crawl.bound(cabeca(projetos, 1500));
+
+        assertFalse(crawl.finished);
+        assertTrue(crawl.bounded);
+        assertEquals(9000, crawl.limite);
+        assertEquals(1500 - projetos.size(), crawl.restantes);
+    }
+
+    @Test
+    void boundFinishesWhenStartIsAboveLimit() {
+        UnitCrawl crawl = crawl(9500, 200, 50);
+
+        crawl.bound(cabeca(projetos(9999, 9001), 1500));
+
+        assertTrue(crawl.finished);
+    }
+
+    @Test
+    void initialSizeIsClampedBetweenMinimumAndPage() {
+        assertEquals(PAGE_LENGTH, crawl(1, 5000, 50).windowSize);
+        assertEquals(50, crawl(1, 10, 50).windowSize);
+        assertEquals(PAGE_LENGTH, crawl(1, 10, 5000).windowSize);
+    }
+
+    @Test
+    void adaptKeepsWidthOnTarget() {
+        UnitCrawl crawl = crawl(1, 500, 50);
+
+        adapt(crawl, 500, 500, ALVO_MS);
+
+        assertEquals(500, crawl.windowSize);
+    }
+
+    @Test
+    void slowWindowsShrinkAtMostByHalf() {
+        UnitCrawl crawl = crawl(1, 500, 50);
+
+        // 4x mais lenta que o alvo: a estimativa seria 125, mas cai no máximo pela metade
+        adapt(crawl, 500, 500, 4 * ALVO_MS);
+        assertEquals(250, crawl.windowSize);
+
+        adapt(crawl, 250, 250, 4 * ALVO_MS);
+        assertEquals(125, crawl.windowSize);
+    }
+
+    @Test
+    void adaptNeverGoesBelowMinimum() {
+        UnitCrawl crawl = crawl(1, 120, 100);
+
+        adapt(crawl, 120, 120, 10 * ALVO_MS);
+
+        assertEquals(100, crawl.windowSize);
+    }
+
+    @Test
+    void fastWindowsGrowAtMostDoubleAndUpToPage() {
+        UnitCrawl crawl = crawl(1, 300, 50);
+        adapt(crawl, 300, 300, ALVO_MS / 10);
+        assertEquals(600, crawl.windowSize);
+
+        adapt(crawl, 600, 600, ALVO_MS / 10);
+        assertEquals(PAGE_LENGTH, crawl.windowSize);
+    }
+
+    @Test
+    void sparseNumberingWidensWindow() {
+        UnitCrawl crawl = crawl(1, 500, 50);
+
+        // 1 projeto a cada 10 números: no alvo cabem 100 projetos, ou seja, 1000 números
+        adapt(crawl, 500, 50, ALVO_MS / 2);
+
+        assertEquals(PAGE_LENGTH, crawl.windowSize);
+    }
+
+    @Test
+    void emptyWindowWidensWhenFastAndNarrowsWhenSlow() {
+        UnitCrawl crawl = crawl(1, 200, 50);
+        adapt(crawl, 200, 0, ALVO_MS / 10);
+        assertEquals(400, crawl.windowSize);
+
+        adapt(crawl, 400, 0, 5 * ALVO_MS);
+        assertEquals(200, crawl.windowSize);
+    }
+
+    @Test
+    void shrinkRespectsMinimum() {
+        UnitCrawl crawl = crawl(1, 120, 100);
+
+        crawl.shrink();
+
+        assertEquals(100, crawl.windowSize);
+    }
+
+    @Test
+    void resumeContinuesAfterLastSavedNumber() {
+        UnitCrawl crawl = crawl(1, 200, 50);
+
+        crawl.resume(checkpoint(4200, 9000, 350));
+
+        assertTrue(crawl.headDone);
+        assertTrue(crawl.bounded);
+        assertFalse(crawl.finished);
+        assertEquals(4201, crawl.next);
+        assertEquals(9000, crawl.limite);
+        assertEquals(350, crawl.restantes);
+    }
+
+    @Test
+    void resumeWithoutLimitKeepsUnboundedCrawl() {
+        UnitCrawl crawl = crawl(1, 200, 50);
+
+        // A cabeça falhou na execução anterior: as janelas seguem até a primeira vazia
+        crawl.resume(checkpoint(800, null, null));
+
+        assertTrue(crawl.headDone);
+        assertFalse(crawl.bounded);
+        assertEquals(801, crawl.next);
+        assertEquals(MAX_NUMERO, crawl.limite);
+        assertEquals(-1, crawl.restantes);
+    }
+
+    @Test
+    void resumeWithUnknownRemainingKeepsCrawling() {
+        UnitCrawl crawl = crawl(1, 200, 50);
+
+        crawl.resume(checkpoint(1000, 9000, null));
+
+        assertTrue(crawl.bounded);
+        assertFalse(crawl.finished);
+        assertEquals(-1, crawl.restantes);
+    }
+
+    @Test
+    void resumeWithNothingRemainingFinishes() {
+        UnitCrawl crawl = crawl(1, 200, 50);
+
+        crawl.resume(checkpoint(8999, 9000, 0));
+
+        assertTrue(crawl.finished);
+    }
+
+    @Test
+    void checkpointOfHeadResumesAtFirstWindow() {
+        UnitCrawl anterior = crawl(1, 200, 50);
+        WindowFetch cabeca = new WindowFetch(1, MAX_NUMERO, true, null);
+        anterior.bound(cabeca(projetos(9999, 9001), 1500));
+
+        // A cabeça cobre os números acima do limite; a retomada começa pela primeira janela
+        UnitCrawl retomada = crawl(1, 200, 50);
+        retomada.resume(checkpoint(UnitCrawl.checkpointNumero(cabeca), anterior.limite, anterior.restantes));
+
+        assertEquals(1, retomada.next);
+        assertEquals(9000, retomada.limite);
+        assertEquals(1500 - 999, retomada.restantes);
+    }
+
+    @Test
+    void checkpointOfWindowResumesAfterIt() {
+        WindowFetch janela = new WindowFetch(201, 400, false, null);
+
+        UnitCrawl retomada = crawl(1, 200, 50);
+        retomada.resume(checkpoint(UnitCrawl.checkpointNumero(janela), 9000, 300));
+
+        assertEquals(401, retomada.next);
+    }
+}
@@ -0,0 +1,117 @@
+package br.com.sampachat.api.util;
+
+import br.com.sampachat.api.util.KnnGraph.Neighbors;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KnnGraphTest {
+
+    private static final int[] IDS = {1, 2, 3, 4, 5};
+
+    private static KnnGraph graph(float[]... vectors) {
+        float[] matrix = new float[vectors.length * 2];
+        for (int i = 0; i < vectors.length; i++) {
+            System.arraycopy(vectors[i], 0, matrix, i * 2, 2);
+        }
+        return new KnnGraph(IDS.clone(), matrix, 2);
+    }
+
+    @Test
+    void offerKeepsDescendingOrderAndLimit() {
+        Neighbors neighbors = new Neighbors(2);
+
+        assertTrue(neighbors.offer(10, 0.5f));
+        assertTrue(neighbors.offer(11, 0.9f));
+        assertTrue(neighbors.offer(12, 0.7f));
+        assertFalse(neighbors.offer(13, 0.1f));
+
+        assertArrayEquals(new int[]{11, 12}, neighbors.getIds());
+        assertArrayEquals(new float[]{0.9f, 0.7f}, neighbors.getSimilarities());
+    }
+
+    @Test
+    void offerReplacesScoreOfPresentId() {
+        Neighbors neighbors = new Neighbors(3);
+        neighbors.offer(10, 0.9f);
+        neighbors.offer(11, 0.8f);
+        neighbors.offer(12, 0.7f);
+
+        // Sobe
+        assertTrue(neighbors.offer(12, 0.95f));
+        assertArrayEquals(new int[]{12, 10, 11}, neighbors.getIds());
+        assertArrayEquals(new float[]{0.95f, 0.9f, 0.8f}, neighbors.getSimilarities());
+
+        // Desce
+        assertTrue(neighbors.offer(12, 0.1f));
+        assertArrayEquals(new int[]{10, 11, 12}, neighbors.getIds());
+        assertArrayEquals(new float[]{0.9f, 0.8f, 0.1f}, neighbors.getSimilarities());
+
+        // Mesma similaridade: nada muda
+        assertFalse(neighbors.offer(12, 0.1f));
+    }
+
+    @Test
+    void idDroppingOutOfTopKIsEvicted() {
+        Neighbors neighbors = new Neighbors(2);
+        neighbors.offer(10, 0.9f);
+        neighbors.offer(11, 0.8f);
+
+        // Com a lista cheia, 10 cai para abaixo do último: sai da lista
+        assertTrue(neighbors.offer(10, 0.1f));
+        assertArrayEquals(new int[]{11, 10}, neighbors.getIds());
+        assertTrue(neighbors.remove(10));
+        assertFalse(neighbors.remove(10));
+        assertArrayEquals(new int[]{11}, neighbors.getIds());
+    }
+
+    @Test
+    void topKExcludesSelfAndOrdersBySimilarity() {
+        KnnGraph knn = graph(new float[]{1, 0}, new float[]{0.9f, 0.1f}, new float[]{0, 1},
+                new float[]{0.1f, 0.9f}, new float[]{0.7f, 0.7f});
+
+        Neighbors[] result = knn.topK(new int[]{0}, new int[]{0, 1, 2, 3, 4}, 2, null);
+
+        assertArrayEquals(new int[]{2, 5}, result[0].getIds());
+    }
+
+    @Test
+    void reEmbeddedNodeIsCorrectedInOtherNodesLists() {
+        float[][] antes = {{1, 0}, {0.95f, 0.05f}, {0, 1}, {0.05f, 0.95f}, {0.6f, 0.8f}};
+        Map<Integer, Neighbors> existentes = new HashMap<>(graph(antes).updateIncremental(Map.of(), 2));
+        assertArrayEquals(new int[]{2, 5}, existentes.get(1).getIds());
+
+        // O projeto 2 é embeddado de novo, agora perto de 3 e 4; a lista dele foi invalidada
+        float[][] depois = antes.clone();
+        depois[1] = new float[]{0.02f, 1};
+        existentes.remove(2);
+        KnnGraph atualizado = graph(depois);
+        Map<Integer, Neighbors> gravadas = atualizado.updateIncremental(existentes, 2);
+        existentes.putAll(gravadas);
+
+        // O resultado incremental é igual ao cálculo completo com os embeddings novos
+        Map<Integer, Neighbors> completo = graph(depois).updateIncremental(Map.of(), 2);
+        for (int id : IDS) {
+            assertEquals(completo.get(id), existentes.get(id), "vizinhos do projeto " + id);
+        }
+        // A aresta 1 -> 2, com a similaridade do embedding antigo, saiu da lista de 1
+        assertArrayEquals(new int[]{5, 4}, existentes.get(1).getIds());
+        assertTrue(gravadas.containsKey(1));
+    }
+
+    @Test
+    void noNewRowsMeansNothingToWrite() {
+        KnnGraph knn = graph(new float[]{1, 0}, new float[]{0, 1}, new float[]{1, 1},
+                new float[]{1, 2}, new float[]{2, 1});
+        Map<Integer, Neighbors> existentes = knn.updateIncremental(Map.of(), 2);
+
+        assertTrue(graph(new float[]{1, 0}, new float[]{0, 1}, new float[]{1, 1},
+                new float[]{1, 2}, new float[]{2, 1}).updateIncremental(existentes, 2).isEmpty());
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.sampachat.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixIndexTest {
+
+    @Test
+    void searchOrdersByWeightAndRespectsLimit() {
+        PrefixIndex<String> index = PrefixIndex.<String>builder()
+                .add("Ana Lima", 3, List.of("ana lima", "lima"))
+                .add("Antonio Donato", 10, List.of("antonio donato", "donato"))
+                .add("Amanda Paschoal", 5, List.of("amanda paschoal", "paschoal"))
+                .add("Bruno", 50, List.of("bruno"))
+                .build();
+
+        assertEquals(List.of("Antonio Donato", "Amanda Paschoal", "Ana Lima"), index.search("a", 10));
+        assertEquals(List.of("Antonio Donato", "Amanda Paschoal"), index.search("a", 2));
+        assertEquals(List.of("Ana Lima"), index.search("lim", 10));
+        assertTrue(index.search("x", 10).isEmpty());
+        assertTrue(index.search("", 10).isEmpty());
+    }
+
+    @Test
+    void entryWithSeveralMatchingKeysIsReturnedOnce() {
+        PrefixIndex<String> index = PrefixIndex.<String>builder()
+                .add("Silva Silveira", 1, List.of("silva silveira", "silveira"))
+                .build();
+
+        assertEquals(List.of("Silva Silveira"), index.search("silv", 10));
+    }
+
+    @Test
+    void tieKeepsInsertionOrder() {
+        PrefixIndex<String> index = PrefixIndex.<String>builder()
+                .add("primeiro", 1, List.of("pa"))
+                .add("segundo", 1, List.of("pb"))
+                .build();
+
+        assertEquals(List.of("primeiro", "segundo"), index.search("p", 10));
+    }
+
+    @Test
+    void precomputedShortPrefixesMatchFullScan() {
+        // Muito mais chaves que o limite de varredura com o mesmo prefixo curto
+        int total = PrefixIndex.SCAN_LIMIT * 8;
+        PrefixIndex.Builder<String> builder = PrefixIndex.<String>builder().topK(5);
+        List<String> esperadoA = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            String chave = (i % 2 == 0 ? "a" : "b") + String.format("%05d", i);
+            builder.add(chave, i, List.of(chave));
+        }
+        for (int i = total - 2; esperadoA.size() < 5; i -= 2) {
+            esperadoA.add("a" + String.format("%05d", i));
+        }
+        PrefixIndex<String> index = builder.build();
+
+        assertEquals(esperadoA, index.search("a", 5));
+        assertEquals(esperadoA.subList(0, 3), index.search("a", 3));
+        assertEquals(esperadoA.subList(0, 3), index.search("a0", 3));
+        // Acima do top-k pré-calculado a busca percorre o intervalo
+        assertEquals(7, index.search("a", 7).size());
+        assertEquals(List.of("a00010"), index.search("a00010", 5));
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.sampachat.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch allJoined = new CountDownLatch(8);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> {
+                    SingleFlight.Membership<String> membership = flights.join("busca");
+                    allJoined.countDown();
+                    if (!membership.leader()) {
+                        return membership.flight().awaitLast(5, TimeUnit.SECONDS);
+                    }
+                    // O líder só conclui depois que todos entraram no voo
+                    allJoined.await(5, TimeUnit.SECONDS);
+                    executions.incrementAndGet();
+                    membership.flight().publish("resultado");
+                    membership.flight().complete();
+                    return "resultado";
+                }));
+            }
+            for (Future<String> result : results) {
+                assertEquals("resultado", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, executions.get());
+        assertEquals(0, flights.size());
+    }
+
+    @Test
+    void followerSeesAllStagesInOrder() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        SingleFlight.Flight<String> flight = flights.join("busca").flight();
+        SingleFlight.Membership<String> follower = flights.join("busca");
+        assertFalse(follower.leader());
+        assertSame(flight, follower.flight());
+
+        flight.publish("exatos");
+        flight.publish("completos");
+        flight.complete();
+
+        assertEquals("exatos", follower.flight().awaitStage(0, 1, TimeUnit.SECONDS));
+        assertEquals("completos", follower.flight().awaitStage(1, 1, TimeUnit.SECONDS));
+        assertNull(follower.flight().awaitStage(2, 1, TimeUnit.SECONDS));
+        assertTrue(follower.flight().isExhausted(2));
+    }
+
+    @Test
+    void awaitLastTimesOutWhileLeaderIsRunning() {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        flights.join("busca");
+        SingleFlight.Membership<String> follower = flights.join("busca");
+
+        assertThrows(TimeoutException.class, () -> follower.flight().awaitLast(50, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void leaderFailureReachesFollowers() {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        SingleFlight.Flight<String> flight = flights.join("busca").flight();
+        SingleFlight.Membership<String> follower = flights.join("busca");
+
+        flight.fail(new IllegalArgumentException("falhou"));
+
+        assertThrows(IllegalArgumentException.class, () -> follower.flight().awaitLast(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void finishedFlightStartsNewOne() {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        SingleFlight.Flight<String> first = flights.join("busca").flight();
+        first.complete();
+
+        SingleFlight.Membership<String> next = flights.join("busca");
+        assertTrue(next.leader());
+        assertNotSame(first, next.flight());
+    }
+
+    @Test
+    void abandonedWhenAllParticipantsLeave() {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        SingleFlight.Flight<String> flight = flights.join("busca").flight();
+        flights.join("busca");
+        AtomicInteger abandoned = new AtomicInteger();
+        flight.onAbandoned(abandoned::incrementAndGet);
+
+        flight.leave();
+        assertEquals(0, abandoned.get());
+        flight.leave();
+        assertEquals(1, abandoned.get());
+        assertEquals(0, flights.size());
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.sampachat.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SymSpellIndexTest {
+
+    private final SymSpellIndex index = SymSpellIndex.build(
+            Map.of("keit", 10, "lima", 30, "lina", 5, "paschoal", 7, "silva", 40), 2, 7);
+
+    @Test
+    void exactTermHasDistanceZero() {
+        SymSpellIndex.Suggestion sugestao = index.lookup("lima", 2).orElseThrow();
+
+        assertEquals("lima", sugestao.getTerm());
+        assertEquals(0, sugestao.getDistance());
+        assertTrue(index.contains("lima"));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void findsSubstitutionInsertionDeletionAndTransposition() {
+        assertEquals("keit", index.lookup("keyt", 2).orElseThrow().getTerm());
+        assertEquals("keit", index.lookup("keitt", 2).orElseThrow().getTerm());
+        assertEquals("silva", index.lookup("slva", 2).orElseThrow().getTerm());
+        SymSpellIndex.Suggestion transposta = index.lookup("silav", 2).orElseThrow();
+        assertEquals("silva", transposta.getTerm());
+        assertEquals(1, transposta.getDistance());
+    }
+
+    @Test
+    void tieOnDistancePrefersMoreFrequentTerm() {
+        // "lixa" está a 1 edição de "lima" (30) e de "lina" (5)
+        assertEquals("lima", index.lookup("lixa", 2).orElseThrow().getTerm());
+    }
+
+    @Test
+    void respectsRequestedAndIndexedDistanceLimits() {
+        assertFalse(index.lookup("kxyt", 1).isPresent());
+        assertEquals("keit", index.lookup("kxyt", 2).orElseThrow().getTerm());
+        // O limite pedido não passa do limite usado na construção
+        assertFalse(index.lookup("paxxxoal", 5).isPresent());
+        assertEquals(Optional.empty(), index.lookup("", 2));
+        assertEquals(Optional.empty(), index.lookup(null, 2));
+    }
+
+    @Test
+    void wordsLongerThanPrefixAreMatchedByTheirPrefix() {
+        // O erro fica depois dos 7 primeiros caracteres indexados
+        assertEquals("paschoal", index.lookup("paschoax", 2).orElseThrow().getTerm());
+    }
+
+    @Test
+    void distanceIsOptimalStringAlignment() {
+        assertEquals(0, SymSpellIndex.distance("abc", "abc", 3));
+        assertEquals(1, SymSpellIndex.distance("abc", "acb", 3));
+        assertEquals(2, SymSpellIndex.distance("abc", "cab", 3));
+        assertEquals(3, SymSpellIndex.distance("", "abc", 3));
+        // Acima do limite devolve limite + 1
+        assertEquals(2, SymSpellIndex.distance("abcdef", "uvwxyz", 1));
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.sampachat.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenBucketTest {
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Relógio controlado pelo teste: dormir apenas avança o tempo
+     */
+    private static final class FakeClock implements TokenBucket.Clock {
+
+        long now = 1_000L * SEGUNDO;
+        final List<Long> sleeps = new ArrayList<>();
+
+        @Override
+        public long nanoTime() {
+            return now;
+        }
+
+        @Override
+        public void sleepNanos(long nanos) {
+            sleeps.add(nanos);
+            now += nanos;
+        }
+    }
+
+    @Test
+    void burstIsAvailableImmediately() throws InterruptedException {
+        FakeClock clock = new FakeClock();
+        TokenBucket bucket = new TokenBucket(2, 4, clock);
+
+        for (int i = 0; i < 4; i++) {
+            bucket.acquire();
+        }
+
+        assertEquals(List.of(), clock.sleeps);
+    }
+
+    @Test
+    void emptyBucketBlocksUntilNextToken() throws InterruptedException {
+        FakeClock clock = new FakeClock();
+        TokenBucket bucket = new TokenBucket(2, 1, clock);
+
+        bucket.acquire();
+        bucket.acquire();
+
+        // 2 fichas por segundo: a segunda espera meio segundo
+        assertEquals(List.of(SEGUNDO / 2), clock.sleeps);
+    }
+
+    @Test
+    void concurrentReservationsAreSpacedInArrivalOrder() {
+        FakeClock clock = new FakeClock();
+        TokenBucket bucket = new TokenBucket(4, 1, clock);
+
+        // Reservas no mesmo instante: cada uma espera uma ficha a mais que a anterior
+        assertEquals(0, bucket.reserve());
+        assertEquals(SEGUNDO / 4, bucket.reserve());
+        assertEquals(SEGUNDO / 2, bucket.reserve());
+        assertEquals(3 * SEGUNDO / 4, bucket.reserve());
+    }
+
+    @Test
+    void refillsWithElapsedTimeUpToBurst() {
+        FakeClock clock = new FakeClock();
+        TokenBucket bucket = new TokenBucket(1, 3, clock);
+        for (int i = 0; i < 3; i++) {
+            bucket.reserve();
+        }
+
+        // Um segundo depois há exatamente uma ficha
+        clock.now += SEGUNDO;
+        assertEquals(0, bucket.reserve());
+        assertEquals(SEGUNDO, bucket.reserve());
+
+        // Muito tempo parado não acumula além do burst
+        clock.now += 100 * SEGUNDO;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.reserve());
+        }
+        assertEquals(SEGUNDO, bucket.reserve());
+    }
+
+    @Test
+    void rejectsNonPositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+    }
+}